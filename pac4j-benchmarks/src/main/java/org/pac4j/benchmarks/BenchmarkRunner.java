@@ -0,0 +1,40 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the pac4j benchmarks with the GC profiler always enabled, so that the allocation rate
+ * is reported next to the throughput.
+ *
+ * <p>All the standard JMH command line options are supported:
+ * <code>java -jar target/benchmarks.jar SecurityLogicBenchmark -f 1 -wi 3 -i 5</code></p>
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    /**
+     * <p>main.</p>
+     *
+     * @param args the JMH command line arguments
+     * @throws CommandLineOptionException if the command line is not valid
+     * @throws RunnerException if the benchmarks fail
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        val commandLineOptions = new CommandLineOptions(args);
+        val options = new OptionsBuilder()
+            .parent(commandLineOptions)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
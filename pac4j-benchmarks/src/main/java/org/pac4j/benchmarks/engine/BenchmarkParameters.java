@@ -0,0 +1,16 @@
+package org.pac4j.benchmarks.engine;
+
+import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+
+/**
+ * The framework parameters carrying the web context and session store of one benchmarked request.
+ *
+ * @param webContext the web context
+ * @param sessionStore the session store
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public record BenchmarkParameters(WebContext webContext, SessionStore sessionStore) implements FrameworkParameters {
+}
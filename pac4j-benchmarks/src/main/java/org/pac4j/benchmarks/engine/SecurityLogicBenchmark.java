@@ -0,0 +1,259 @@
+package org.pac4j.benchmarks.engine;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.adapter.FrameworkAdapter;
+import org.pac4j.core.authorization.authorizer.RequireAllRolesAuthorizer;
+import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.direct.AnonymousClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.engine.DefaultSecurityLogic;
+import org.pac4j.core.engine.SecurityGrantedAccessAdapter;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileManager;
+import org.pac4j.http.client.direct.HeaderClient;
+import org.pac4j.http.client.indirect.FormClient;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestTokenAuthenticator;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestUsernamePasswordAuthenticator;
+import org.pac4j.test.context.MockWebContext;
+import org.pac4j.test.context.session.MockSessionStore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link DefaultSecurityLogic#perform} request path end to end
+ * (client finding, matching, profile loading, direct authentication and authorization checks).
+ *
+ * <p>Run it via the {@link org.pac4j.benchmarks.BenchmarkRunner} to get the allocation rate along with the throughput.</p>
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityLogicBenchmark {
+
+    private static final String URL = "http://localhost:8080/api/resource";
+
+    private static final String CALLBACK_URL = "http://localhost:8080/callback";
+
+    private static final String LOGIN_URL = "http://localhost:8080/login";
+
+    private static final String TOKEN = "3f2a9c6e-api-token";
+
+    private static final SecurityGrantedAccessAdapter GRANTED = (context, sessionStore, profiles) -> profiles;
+
+    /**
+     * The common state: a security logic and a config whose adapters return the result of the request.
+     */
+    public abstract static class AbstractSecurityState {
+
+        protected DefaultSecurityLogic logic;
+
+        protected Config config;
+
+        protected String clients;
+
+        protected String authorizers;
+
+        protected String matchers;
+
+        /**
+         * <p>setUp.</p>
+         */
+        @Setup
+        public void setUp() {
+            logic = new DefaultSecurityLogic();
+            config = new Config(buildClients());
+            config.setWebContextFactory(p -> ((BenchmarkParameters) p).webContext());
+            config.setSessionStoreFactory(p -> ((BenchmarkParameters) p).sessionStore());
+            config.setHttpActionAdapter((action, context) -> action);
+            FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+            configure();
+        }
+
+        /**
+         * Build the clients of the config.
+         *
+         * @return the clients
+         */
+        protected abstract Client[] buildClients();
+
+        /**
+         * Finish the configuration (clients, authorizers, matchers, session...).
+         */
+        protected void configure() {}
+
+        /**
+         * Build a new web context for one request.
+         *
+         * @return the web context
+         */
+        protected MockWebContext newWebContext() {
+            return MockWebContext.create().setFullRequestURL(URL).setRequestMethod(HttpConstants.HTTP_METHOD.GET.name());
+        }
+
+        /**
+         * The session store used for one request.
+         *
+         * @return the session store
+         */
+        protected SessionStore sessionStore() {
+            return new MockSessionStore();
+        }
+
+        /**
+         * Perform the security logic for a new request.
+         *
+         * @return the result of the security logic
+         */
+        public Object perform() {
+            val parameters = new BenchmarkParameters(newWebContext(), sessionStore());
+            return logic.perform(config, GRANTED, clients, authorizers, matchers, parameters);
+        }
+    }
+
+    /**
+     * An anonymous access: no session, the {@link AnonymousClient} is used.
+     */
+    @State(Scope.Thread)
+    public static class AnonymousState extends AbstractSecurityState {
+
+        @Override
+        protected Client[] buildClients() {
+            return new Client[] {new AnonymousClient()};
+        }
+
+        @Override
+        protected void configure() {
+            clients = "AnonymousClient";
+        }
+    }
+
+    /**
+     * An already authenticated user: the profile is loaded from the (existing) session of an indirect client.
+     */
+    @State(Scope.Thread)
+    public static class SessionProfileState extends AbstractSecurityState {
+
+        protected SessionStore sessionStore;
+
+        @Override
+        protected Client[] buildClients() {
+            val formClient = new FormClient(LOGIN_URL, new SimpleTestUsernamePasswordAuthenticator());
+            formClient.setCallbackUrl(CALLBACK_URL);
+            return new Client[] {formClient};
+        }
+
+        @Override
+        protected void configure() {
+            clients = "FormClient";
+            sessionStore = new MockSessionStore();
+            val profile = new CommonProfile();
+            profile.setId("jle");
+            profile.setClientName("FormClient");
+            profile.addRole("USER");
+            profile.addRole("ADMIN");
+            new ProfileManager(MockWebContext.create(), sessionStore).save(true, profile, false);
+        }
+
+        @Override
+        protected SessionStore sessionStore() {
+            return sessionStore;
+        }
+    }
+
+    /**
+     * A stateless API call: the token is read from a header by a direct client on each request.
+     */
+    @State(Scope.Thread)
+    public static class HeaderTokenState extends AbstractSecurityState {
+
+        @Override
+        protected Client[] buildClients() {
+            val headerClient = new HeaderClient(HttpConstants.AUTHORIZATION_HEADER, HttpConstants.BEARER_HEADER_PREFIX,
+                new SimpleTestTokenAuthenticator());
+            return new Client[] {headerClient};
+        }
+
+        @Override
+        protected void configure() {
+            clients = "HeaderClient";
+        }
+
+        @Override
+        protected MockWebContext newWebContext() {
+            return super.newWebContext().addRequestHeader(HttpConstants.AUTHORIZATION_HEADER, HttpConstants.BEARER_HEADER_PREFIX + TOKEN);
+        }
+    }
+
+    /**
+     * An authenticated user with the CSRF token generation (matcher) and the CSRF check (authorizer) explicitly defined.
+     */
+    @State(Scope.Thread)
+    public static class CsrfState extends SessionProfileState {
+
+        @Override
+        protected void configure() {
+            super.configure();
+            matchers = "securityHeaders,csrfToken";
+            authorizers = "csrfCheck,isAuthenticated";
+        }
+    }
+
+    /**
+     * An authenticated user checked against several role-based and built-in authorizers.
+     */
+    @State(Scope.Thread)
+    public static class MultiAuthorizersState extends SessionProfileState {
+
+        @Override
+        protected void configure() {
+            super.configure();
+            config.addAuthorizer("admin", new RequireAnyRoleAuthorizer("ADMIN"));
+            config.addAuthorizer("users", new RequireAllRolesAuthorizer("USER", "ADMIN"));
+            config.addAuthorizer("operators", new RequireAnyRoleAuthorizer("OPERATOR", "ADMIN", "SUPERVISOR"));
+            authorizers = "admin,users,operators,isFullyAuthenticated";
+        }
+    }
+
+    @Benchmark
+    public Object anonymous(final AnonymousState state) {
+        return state.perform();
+    }
+
+    @Benchmark
+    public Object sessionProfile(final SessionProfileState state) {
+        return state.perform();
+    }
+
+    @Benchmark
+    public Object directClientHeaderToken(final HeaderTokenState state) {
+        return state.perform();
+    }
+
+    @Benchmark
+    public Object csrfMatcher(final CsrfState state) {
+        return state.perform();
+    }
+
+    @Benchmark
+    public Object multiAuthorizers(final MultiAuthorizersState state) {
+        return state.perform();
+    }
+}
@@ -73,33 +73,44 @@ public class CsrfAuthorizer implements Authorizer {
             val headerToken = context.getRequestHeader(headerName).orElse(null);
             LOGGER.debug("parameterToken: {}", parameterToken);
             LOGGER.debug("headerToken: {}", headerToken);
-            val sessionPreviousToken = sessionStore.get(context, Pac4jConstants.PREVIOUS_CSRF_TOKEN);
-            val sessionToken = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN);
-            val sessionDate = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN_EXPIRATION_DATE);
-            if (sessionStore.getSessionId(context, false).isPresent()) {
-                sessionStore.set(context, Pac4jConstants.PREVIOUS_CSRF_TOKEN, null);
-            }
-            // all checks are always performed and conditional operations are turned into logical ones
-            // to reduce timing differences while keeping strict token equality checks
-            val hasSessionData = sessionToken.isPresent() & sessionDate.isPresent();
-            val previousToken = (String) sessionPreviousToken.orElse(Pac4jConstants.EMPTY_STRING);
-            LOGGER.debug("previous token: {}", previousToken);
-            val token = (String) sessionToken.orElse(Pac4jConstants.EMPTY_STRING);
-            LOGGER.debug("token: {}", token);
-            val isGoodCurrentToken = strEquals(token, parameterToken) | strEquals(token, headerToken);
-            val isGoodPreviousToken = strEquals(previousToken, parameterToken) | strEquals(previousToken, headerToken);
-            val isGoodToken = isGoodCurrentToken | isGoodPreviousToken;
-            val expirationDate = (Long) sessionDate.orElse(0L);
-            val now = new Date().getTime();
-            val isDateExpired = expirationDate < now;
-            if (!hasSessionData | !isGoodToken | isDateExpired) {
-                return false;
-            }
-
+            return checkTokens(context, sessionStore, parameterToken, headerToken);
         }
         return true;
     }
 
+    /**
+     * Check the CSRF tokens received as a parameter and as a header against the tokens saved in the session.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param parameterToken the token received as a parameter
+     * @param headerToken the token received as a header
+     * @return whether one of the received tokens is valid
+     */
+    protected boolean checkTokens(final WebContext context, final SessionStore sessionStore,
+                                  final String parameterToken, final String headerToken) {
+        val sessionPreviousToken = sessionStore.get(context, Pac4jConstants.PREVIOUS_CSRF_TOKEN);
+        val sessionToken = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN);
+        val sessionDate = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN_EXPIRATION_DATE);
+        if (sessionStore.getSessionId(context, false).isPresent()) {
+            sessionStore.set(context, Pac4jConstants.PREVIOUS_CSRF_TOKEN, null);
+        }
+        // all checks are always performed and conditional operations are turned into logical ones
+        // to reduce timing differences while keeping strict token equality checks
+        val hasSessionData = sessionToken.isPresent() & sessionDate.isPresent();
+        val previousToken = (String) sessionPreviousToken.orElse(Pac4jConstants.EMPTY_STRING);
+        LOGGER.debug("previous token: {}", previousToken);
+        val token = (String) sessionToken.orElse(Pac4jConstants.EMPTY_STRING);
+        LOGGER.debug("token: {}", token);
+        val isGoodCurrentToken = strEquals(token, parameterToken) | strEquals(token, headerToken);
+        val isGoodPreviousToken = strEquals(previousToken, parameterToken) | strEquals(previousToken, headerToken);
+        val isGoodToken = isGoodCurrentToken | isGoodPreviousToken;
+        val expirationDate = (Long) sessionDate.orElse(0L);
+        val now = new Date().getTime();
+        val isDateExpired = expirationDate < now;
+        return hasSessionData & isGoodToken & !isDateExpired;
+    }
+
     /**
      * <p>strEquals.</p>
      *
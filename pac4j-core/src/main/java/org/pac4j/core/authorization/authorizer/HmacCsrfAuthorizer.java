@@ -0,0 +1,48 @@
+package org.pac4j.core.authorization.authorizer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.util.CommonHelper;
+
+/**
+ * Authorizer that checks the CSRF tokens generated by the {@link HmacCsrfTokenGenerator}, without any session access
+ * (except the session identifier).
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class HmacCsrfAuthorizer extends CsrfAuthorizer {
+
+    private HmacCsrfTokenGenerator csrfTokenGenerator;
+
+    /**
+     * <p>Constructor for HmacCsrfAuthorizer.</p>
+     */
+    public HmacCsrfAuthorizer() {}
+
+    /**
+     * <p>Constructor for HmacCsrfAuthorizer.</p>
+     *
+     * @param csrfTokenGenerator the CSRF token generator
+     */
+    public HmacCsrfAuthorizer(final HmacCsrfTokenGenerator csrfTokenGenerator) {
+        this.csrfTokenGenerator = csrfTokenGenerator;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean checkTokens(final WebContext context, final SessionStore sessionStore,
+                                  final String parameterToken, final String headerToken) {
+        CommonHelper.assertNotNull("csrfTokenGenerator", csrfTokenGenerator);
+        // both tokens are always checked to reduce timing differences
+        return csrfTokenGenerator.isValid(context, sessionStore, parameterToken)
+            | csrfTokenGenerator.isValid(context, sessionStore, headerToken);
+    }
+}
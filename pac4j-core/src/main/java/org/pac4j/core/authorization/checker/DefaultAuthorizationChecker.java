@@ -11,17 +11,21 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.ResolvedElements;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
 /**
  * Default way to check the authorizations (with default authorizers).
  *
+ * The authorizers resolved for given names are cached and reused as long as the map of authorizers is not updated.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -39,6 +43,15 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     /** Constant <code>IS_REMEMBERED_AUTHORIZER</code> */
     protected static final Authorizer IS_REMEMBERED_AUTHORIZER = new IsRememberedAuthorizer();
 
+    /** Constant <code>DEFAULT_AUTHORIZER_NAMES_WITH_CSRF_CHECK</code> */
+    protected static final String DEFAULT_AUTHORIZER_NAMES_WITH_CSRF_CHECK =
+        DefaultAuthorizers.CSRF_CHECK + Pac4jConstants.ELEMENT_SEPARATOR + DefaultAuthorizers.IS_AUTHENTICATED;
+
+    /** Constant <code>MAX_RESOLVED_AUTHORIZERS</code> */
+    protected static final int MAX_RESOLVED_AUTHORIZERS = 1000;
+
+    private final Map<String, ResolvedElements<Authorizer>> resolvedAuthorizers = new ConcurrentHashMap<>();
+
     /** {@inheritDoc} */
     @Override
     public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
@@ -86,18 +99,23 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
      */
     protected List<Authorizer> computeDefaultAuthorizers(final WebContext context, final List<UserProfile> profiles,
                                                          final List<Client> clients, final Map<String, Authorizer> authorizersMap) {
-        List<Authorizer> authorizers = new ArrayList<>();
-        if (containsClientType(clients, IndirectClient.class)) {
-            authorizers.add(retrieveAuthorizer(DefaultAuthorizers.CSRF_CHECK, authorizersMap));
-        }
-        if (!containsClientType(clients, AnonymousClient.class)) {
-            authorizers.add(retrieveAuthorizer(DefaultAuthorizers.IS_AUTHENTICATED, authorizersMap));
+        val csrfCheck = containsClientType(clients, IndirectClient.class);
+        val isAuthenticated = !containsClientType(clients, AnonymousClient.class);
+        final String authorizerNames;
+        if (csrfCheck && isAuthenticated) {
+            authorizerNames = DEFAULT_AUTHORIZER_NAMES_WITH_CSRF_CHECK;
+        } else if (csrfCheck) {
+            authorizerNames = DefaultAuthorizers.CSRF_CHECK;
+        } else if (isAuthenticated) {
+            authorizerNames = DefaultAuthorizers.IS_AUTHENTICATED;
+        } else {
+            return new ArrayList<>();
         }
-        return authorizers;
+        return new ArrayList<>(computeAuthorizersFromNames(authorizerNames, authorizersMap));
     }
 
     /**
-     * <p>computeAuthorizersFromNames.</p>
+     * Compute the authorizers from their names, reusing the previous resolution of the same names if the map has not been updated.
      *
      * @param authorizerNames a {@link String} object
      * @param authorizersMap a {@link Map} object
@@ -105,6 +123,27 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
      */
     protected List<Authorizer> computeAuthorizersFromNames(final String authorizerNames, final Map<String, Authorizer> authorizersMap) {
         assertNotNull("authorizersMap", authorizersMap);
+        val previous = resolvedAuthorizers.get(authorizerNames);
+        if (previous != null && previous.isValidFor(authorizersMap)) {
+            return previous.getElements();
+        }
+        val resolved = new ResolvedElements<>(authorizersMap, resolveAuthorizersFromNames(authorizerNames, authorizersMap));
+        LOGGER.debug("Resolved authorizers for '{}': {}", authorizerNames, resolved);
+        if (resolvedAuthorizers.size() >= MAX_RESOLVED_AUTHORIZERS) {
+            resolvedAuthorizers.clear();
+        }
+        resolvedAuthorizers.put(authorizerNames, resolved);
+        return resolved.getElements();
+    }
+
+    /**
+     * <p>resolveAuthorizersFromNames.</p>
+     *
+     * @param authorizerNames a {@link String} object
+     * @param authorizersMap a {@link Map} object
+     * @return a {@link List} object
+     */
+    protected List<Authorizer> resolveAuthorizersFromNames(final String authorizerNames, final Map<String, Authorizer> authorizersMap) {
         List<Authorizer> authorizers = new ArrayList<>();
         val names = authorizerNames.split(Pac4jConstants.ELEMENT_SEPARATOR);
         val nb = names.length;
@@ -68,6 +68,35 @@ public interface Client {
      */
     Optional<UserProfile> renewUserProfile(CallContext ctx, UserProfile profile);
 
+    /**
+     * Renew the user profile in the background (for a profile which is not expired yet): the renewal is started
+     * if needed and the renewed profile is returned once available, without blocking the current request.
+     *
+     * @param ctx the current context
+     * @param profile the user profile
+     * @return the renewed user profile if the background renewal has completed (optional).
+     */
+    default Optional<UserProfile> renewUserProfileInBackground(final CallContext ctx, final UserProfile profile) {
+        return Optional.empty();
+    }
+
+    /**
+     * Restore a user profile read from the web session before it is used (like linking it again to the server-side data
+     * of the client), nothing by default.
+     *
+     * @param ctx the current context
+     * @param profile the user profile
+     */
+    default void restoreUserProfile(final CallContext ctx, final UserProfile profile) {}
+
+    /**
+     * Release the server-side data of a user profile removed from the current user (local logout), nothing by default.
+     *
+     * @param ctx the current context
+     * @param profile the user profile
+     */
+    default void releaseUserProfile(final CallContext ctx, final UserProfile profile) {}
+
     /**
      * Process the logout.
      *
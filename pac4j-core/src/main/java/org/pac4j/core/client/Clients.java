@@ -1,5 +1,6 @@
 package org.pac4j.core.client;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -14,11 +15,19 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p>This class is made to group multiple clients, generally on one callback url.</p>
  *
- * <p>Clients can be changed at any time.</p>
+ * <p>Clients can be changed at any time. They are indexed by their normalized name (lower-cased and trimmed),
+ * so that a client is found by a map lookup even with a large number of clients (like one client per tenant).
+ * A client can be added or removed without re-indexing all the clients and the lookups do not require any lock.</p>
+ *
+ * <p>The list of clients given to {@link #setClients(List)} is kept as is (not copied) behind a view: any change made through
+ * {@link #getClients()} increments the version and triggers the re-indexing. An identity snapshot of the indexed clients
+ * is kept to detect the changes made directly on the original list (a reference comparison on each lookup).</p>
  *
  * @author Jerome Leleu
  * @since 1.3.0
@@ -26,14 +35,20 @@ import java.util.*;
 @Slf4j
 @Getter
 @Setter
-@ToString
+@ToString(exclude = {"clientsMap", "clientsByName", "indexState"})
 public class Clients extends InitializableObject {
 
-    private volatile List<Client> clients = new ArrayList<>();
+    private volatile List<Client> clients = new VersionedList(new ArrayList<>());
+
+    private volatile Map<String, Client> clientsMap = new ConcurrentHashMap<>();
 
-    private Map<String, Client> clientsMap;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Map<String, Client> clientsByName = new ConcurrentHashMap<>();
 
-    private volatile Integer oldClientsHash;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicReference<IndexState> indexState = new AtomicReference<>(new IndexState(0, -1, null));
 
     private String callbackUrl;
 
@@ -93,53 +108,86 @@ public class Clients extends InitializableObject {
         setClients(clients);
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * The clients are (re-)indexed if they have never been or if the list of clients has been changed
+     * (and not via the {@link #addClient(Client)} or {@link #removeClient(String)} methods).
+     */
     @Override
     protected boolean shouldInitialize(final boolean forceReinit) {
         if (forceReinit) {
             return true;
         }
 
-        return oldClientsHash == null || oldClientsHash.intValue() != clients.hashCode();
+        val state = indexState.get();
+        // the identity snapshot catches the changes made directly on the original list
+        return state.indexedVersion() != state.version() || !state.isIndexed(clients);
     }
 
     /**
      * {@inheritDoc}
      *
-     * Populate the resolvers, callback URL and authz generators in the Client
-     * if defined in Clients and not already in the Client itself. And check the client name.
+     * Index the clients by their name after populating them and checking their names.
      */
     @Override
     protected void internalInit(final boolean forceReinit) {
-        clientsMap = new HashMap<>();
+        final Map<String, Client> newClientsMap = new ConcurrentHashMap<>();
+        final Map<String, Client> newClientsByName = new ConcurrentHashMap<>();
         for (val client : this.clients) {
-            val name = client.getName();
-            CommonHelper.assertNotBlank("name", name);
-            val lowerTrimmedName = name.toLowerCase().trim();
-            if (clientsMap.containsKey(lowerTrimmedName)) {
-                throw new TechnicalException("Duplicate name in clients: " + name);
+            indexClient(client, newClientsMap, newClientsByName);
+        }
+        this.clientsMap = newClientsMap;
+        this.clientsByName = newClientsByName;
+        val indexedClients = this.clients.toArray(new Client[0]);
+        indexState.updateAndGet(state -> new IndexState(state.version() + 1, state.version() + 1, indexedClients));
+    }
+
+    /**
+     * Populate the resolvers, callback URL and authz generators in the Client
+     * if defined in Clients and not already in the Client itself. And check the client name before indexing it.
+     *
+     * @param client the client
+     * @param normalizedIndex the index by normalized name
+     * @param nameIndex the index by name
+     */
+    protected void indexClient(final Client client, final Map<String, Client> normalizedIndex, final Map<String, Client> nameIndex) {
+        val name = client.getName();
+        CommonHelper.assertNotBlank("name", name);
+        val lowerTrimmedName = normalizeName(name);
+        if (normalizedIndex.containsKey(lowerTrimmedName)) {
+            throw new TechnicalException("Duplicate name in clients: " + name);
+        }
+        if (client instanceof IndirectClient indirectClient) {
+            if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
+                indirectClient.setCallbackUrl(this.callbackUrl);
             }
-            clientsMap.put(lowerTrimmedName, client);
-            if (client instanceof IndirectClient indirectClient) {
-                if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
-                    indirectClient.setCallbackUrl(this.callbackUrl);
-                }
-                if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
-                    indirectClient.setUrlResolver(this.urlResolver);
-                }
-                if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
-                    indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
-                }
-                if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
-                    indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
-                }
+            if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
+                indirectClient.setUrlResolver(this.urlResolver);
             }
-            val baseClient = (BaseClient) client;
-            if (!authorizationGenerators.isEmpty()) {
-                baseClient.addAuthorizationGenerators(this.authorizationGenerators);
+            if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
+                indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
             }
+            if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
+                indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
+            }
+        }
+        val baseClient = (BaseClient) client;
+        if (!authorizationGenerators.isEmpty()) {
+            baseClient.addAuthorizationGenerators(this.authorizationGenerators);
         }
-        this.oldClientsHash = this.clients.hashCode();
+        normalizedIndex.put(lowerTrimmedName, client);
+        nameIndex.put(name, client);
+    }
+
+    /**
+     * Normalize a client name for the index.
+     *
+     * @param name the client name
+     * @return the lower-cased and trimmed name
+     */
+    protected String normalizeName(final String name) {
+        return name.toLowerCase().trim();
     }
 
     /**
@@ -152,11 +200,23 @@ public class Clients extends InitializableObject {
         CommonHelper.assertNotBlank("name", name);
         init();
 
-        val foundClient = clientsMap.get(name.toLowerCase().trim());
+        var foundClient = clientsByName.get(name);
+        if (foundClient == null) {
+            foundClient = clientsMap.get(normalizeName(name));
+        }
         LOGGER.debug("Found client: {} for name: {}", foundClient, name);
         return Optional.ofNullable(foundClient);
     }
 
+    /**
+     * Return the version of the clients, incremented each time they are changed (and indexed).
+     *
+     * @return the version of the clients
+     */
+    public long getVersion() {
+        return indexState.get().version();
+    }
+
     /**
      * Find all the clients (initialized).
      *
@@ -169,22 +229,69 @@ public class Clients extends InitializableObject {
     }
 
     /**
-     * <p>addClient.</p>
+     * Add a client (indexed immediately if the clients are already initialized).
      *
      * @param client a {@link Client} object
      */
     public void addClient(final Client client) {
-        this.clients.add(client);
+        CommonHelper.assertNotNull("client", client);
+        synchronized (this) {
+            if (isInitialized() && !shouldInitialize(false)) {
+                indexClient(client, clientsMap, clientsByName);
+                delegate().add(client);
+                // the version and the index are published together
+                indexState.updateAndGet(state -> {
+                    val indexedClients = Arrays.copyOf(state.indexedClients(), state.indexedClients().length + 1);
+                    indexedClients[indexedClients.length - 1] = client;
+                    return new IndexState(state.version() + 1, state.version() + 1, indexedClients);
+                });
+            } else {
+                this.clients.add(client);
+            }
+        }
+    }
+
+    /**
+     * Remove a client by its name.
+     *
+     * @param name the name of the client
+     * @return the removed client (if found)
+     */
+    public Optional<Client> removeClient(final String name) {
+        CommonHelper.assertNotBlank("name", name);
+        init();
+
+        synchronized (this) {
+            val upToDate = !shouldInitialize(false);
+            val client = clientsMap.get(normalizeName(name));
+            if (client != null && delegate().remove(client)) {
+                clientsMap.remove(normalizeName(client.getName()));
+                clientsByName.remove(client.getName());
+                // the version and the index are published together
+                val indexedClients = upToDate ? this.clients.toArray(new Client[0]) : null;
+                indexState.updateAndGet(state -> new IndexState(state.version() + 1,
+                    upToDate ? state.version() + 1 : state.indexedVersion(), indexedClients));
+            }
+            LOGGER.debug("Removed client: {} for name: {}", client, name);
+            return Optional.ofNullable(client);
+        }
     }
 
     /**
      * <p>Setter for the field <code>clients</code>.</p>
      *
-     * @param clients a {@link List} object
+     * @param clients a {@link List} object (kept as is, not copied)
      */
     public void setClients(final List<Client> clients) {
         CommonHelper.assertNotNull("clients", clients);
-        this.clients = clients;
+        synchronized (this) {
+            this.clients = new VersionedList(clients instanceof VersionedList versionedList ? versionedList.delegate : clients);
+            indexState.updateAndGet(IndexState::changed);
+        }
+    }
+
+    private List<Client> delegate() {
+        return ((VersionedList) this.clients).delegate;
     }
 
     /**
@@ -235,4 +342,73 @@ public class Clients extends InitializableObject {
         CommonHelper.assertNotNull("authorizationGenerator", authorizationGenerator);
         this.authorizationGenerators.add(authorizationGenerator);
     }
+
+    /**
+     * The version of the clients, the version which has been indexed and the identity snapshot of the indexed clients.
+     *
+     * @param version the version of the clients
+     * @param indexedVersion the indexed version
+     * @param indexedClients the indexed clients
+     */
+    private record IndexState(long version, long indexedVersion, Client[] indexedClients) {
+
+        IndexState changed() {
+            return new IndexState(version + 1, indexedVersion, indexedClients);
+        }
+
+        boolean isIndexed(final List<Client> clients) {
+            if (indexedClients == null || indexedClients.length != clients.size()) {
+                return false;
+            }
+            var i = 0;
+            for (val client : clients) {
+                if (i >= indexedClients.length || client != indexedClients[i++]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A view of the list of clients which increments the version of the clients on each change.
+     */
+    private final class VersionedList extends AbstractList<Client> implements RandomAccess {
+
+        private final List<Client> delegate;
+
+        private VersionedList(final List<Client> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Client get(final int index) {
+            return delegate.get(index);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Client set(final int index, final Client client) {
+            val previous = delegate.set(index, client);
+            indexState.updateAndGet(IndexState::changed);
+            return previous;
+        }
+
+        @Override
+        public void add(final int index, final Client client) {
+            delegate.add(index, client);
+            indexState.updateAndGet(IndexState::changed);
+        }
+
+        @Override
+        public Client remove(final int index) {
+            val removed = delegate.remove(index);
+            indexState.updateAndGet(IndexState::changed);
+            return removed;
+        }
+    }
 }
@@ -8,17 +8,19 @@ import org.apache.commons.lang3.StringUtils;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
 import org.pac4j.core.context.WebContext;
-import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Find the right clients based on the query parameter for the {@link org.pac4j.core.engine.SecurityLogic}.
  *
+ * The clients resolved for given names are cached and reused as long as the clients are not updated.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -27,8 +29,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DefaultSecurityClientFinder implements ClientFinder {
 
+    /** Constant <code>MAX_RESOLVED_CLIENTS</code> */
+    protected static final int MAX_RESOLVED_CLIENTS = 1000;
+
     private String clientNameParameter = Pac4jConstants.DEFAULT_FORCE_CLIENT_PARAMETER;
 
+    private final Map<String, ResolvedClients> resolvedClients = new ConcurrentHashMap<>();
+
     /** {@inheritDoc} */
     @Override
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
@@ -50,7 +57,7 @@ public class DefaultSecurityClientFinder implements ClientFinder {
         }
 
         if (StringUtils.isNotBlank(securityClientNames)) {
-            val names = Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR));
+            val securityClients = resolveSecurityClients(clients, securityClientNames);
             val clientOnRequest = context.getRequestParameter(clientNameParameter);
 
             // if a client is provided on the request, get the client
@@ -60,27 +67,54 @@ public class DefaultSecurityClientFinder implements ClientFinder {
                 // from the request
                 val client = clients.findClient(clientOnRequest.get());
                 if (client.isPresent()) {
-                    val nameFound = client.get().getName();
                     // if allowed -> return it
-                    for (val name : names) {
-                        if (CommonHelper.areEqualsIgnoreCaseAndTrim(name, nameFound)) {
-                            result.add(client.get());
+                    for (val securityClient : securityClients) {
+                        if (securityClient == client.get()) {
+                            result.add(securityClient);
                             break;
                         }
                     }
                 }
             } else {
                 // no client provided, return all
-                for (val name : names) {
-                    // from its name
-                    val client = clients.findClient(name);
-                    if (client.isPresent()) {
-                        result.add(client.get());
-                    }
-                }
+                result.addAll(securityClients);
             }
         }
         LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
         return result;
     }
+
+    /**
+     * Resolve the clients from their names, reusing the previous resolution of the same names if the clients have not been updated.
+     *
+     * @param clients the clients
+     * @param securityClientNames the names of the clients
+     * @return the resolved clients
+     */
+    protected List<Client> resolveSecurityClients(final Clients clients, final String securityClientNames) {
+        clients.init();
+        val version = clients.getVersion();
+        val previous = resolvedClients.get(securityClientNames);
+        if (previous != null && previous.clients() == clients && previous.version() == version) {
+            return previous.securityClients();
+        }
+
+        final List<Client> securityClients = new ArrayList<>();
+        for (val name : securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR)) {
+            // from its name
+            val client = clients.findClient(name);
+            if (client.isPresent()) {
+                securityClients.add(client.get());
+            }
+        }
+        LOGGER.debug("Resolved clients for '{}': {}", securityClientNames, securityClients);
+        if (resolvedClients.size() >= MAX_RESOLVED_CLIENTS) {
+            resolvedClients.clear();
+        }
+        val resolved = new ResolvedClients(clients, version, List.copyOf(securityClients));
+        resolvedClients.put(securityClientNames, resolved);
+        return resolved.securityClients();
+    }
+
+    private record ResolvedClients(Clients clients, long version, List<Client> securityClients) {}
 }
@@ -0,0 +1,184 @@
+package org.pac4j.core.config;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.util.InitializableObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initializes all the clients concurrently (OP discovery, JWKS, IdP metadata, keystores...) instead of lazily
+ * on the first requests, with a bounded number of threads and a timeout per client.
+ *
+ * The last result can be used as a readiness check: the clients which have not been initialized in time
+ * go on initializing in the background and are checked again by {@link #isReady()}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString
+@Slf4j
+public class ClientsWarmUp {
+
+    private static final int DEFAULT_PARALLELISM = 4;
+
+    private static final long DEFAULT_CLIENT_TIMEOUT_IN_MILLISECONDS = 30_000;
+
+    private static final long POLL_INTERVAL_IN_MILLISECONDS = 100;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    private long clientTimeoutInMilliseconds = DEFAULT_CLIENT_TIMEOUT_IN_MILLISECONDS;
+
+    @Setter(AccessLevel.NONE)
+    private volatile WarmUpResult lastResult;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private volatile List<Client> warmedUpClients = List.of();
+
+    /**
+     * Initialize all the clients.
+     *
+     * @param clients the clients
+     * @return the result of the warm-up
+     */
+    public WarmUpResult run(final Clients clients) {
+        val start = System.currentTimeMillis();
+        clients.init();
+        val allClients = clients.findAllClients();
+        val nbThreads = Math.max(1, Math.min(parallelism, allClients.size()));
+        val executor = Executors.newFixedThreadPool(nbThreads, r -> {
+            val thread = new Thread(r, "pac4j-warm-up-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        val results = new LinkedHashMap<String, WarmUpResult.ClientResult>();
+        try {
+            final List<ClientInitialization> initializations = new ArrayList<>();
+            for (val client : allClients) {
+                val initialization = new ClientInitialization(client);
+                initialization.future = executor.submit(initialization);
+                initializations.add(initialization);
+            }
+            // the clients waiting for a thread must not make the warm-up last forever
+            val rounds = (allClients.size() + nbThreads - 1) / nbThreads;
+            val globalDeadline = start + clientTimeoutInMilliseconds * rounds;
+            for (val initialization : initializations) {
+                results.put(initialization.client.getName(), initialization.await(globalDeadline));
+            }
+        } finally {
+            // the initializations which have timed out go on in the background
+            executor.shutdown();
+        }
+
+        val result = new WarmUpResult(results, System.currentTimeMillis() - start);
+        if (result.isReady()) {
+            LOGGER.info("{} client(s) initialized in {} ms", results.size(), result.getDurationInMilliseconds());
+        } else {
+            LOGGER.warn("Clients not initialized after {} ms: {}", result.getDurationInMilliseconds(), result.getNotReadyClients());
+        }
+        warmedUpClients = allClients;
+        lastResult = result;
+        return result;
+    }
+
+    /**
+     * Whether the warm-up has run and all the clients are now initialized.
+     *
+     * @return whether the clients are ready
+     */
+    public boolean isReady() {
+        val result = lastResult;
+        if (result == null) {
+            return false;
+        }
+        if (result.isReady()) {
+            return true;
+        }
+        for (val client : warmedUpClients) {
+            if (client instanceof InitializableObject initializableObject && !initializableObject.isInitialized()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class ClientInitialization implements Callable<WarmUpResult.ClientResult> {
+
+        private final Client client;
+
+        private volatile long startTime;
+
+        private Future<WarmUpResult.ClientResult> future;
+
+        private ClientInitialization(final Client client) {
+            this.client = client;
+        }
+
+        @Override
+        public WarmUpResult.ClientResult call() {
+            startTime = System.currentTimeMillis();
+            try {
+                if (client instanceof InitializableObject initializableObject) {
+                    initializableObject.init();
+                    if (!initializableObject.isInitialized()) {
+                        return new WarmUpResult.ClientResult(WarmUpResult.Status.FAILED, System.currentTimeMillis() - startTime,
+                            "Not initialized (too many attempts or initialization in progress)");
+                    }
+                }
+                return new WarmUpResult.ClientResult(WarmUpResult.Status.READY, System.currentTimeMillis() - startTime, null);
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Cannot initialize client: {}", client.getName(), e);
+                return new WarmUpResult.ClientResult(WarmUpResult.Status.FAILED, System.currentTimeMillis() - startTime,
+                    e.getMessage());
+            }
+        }
+
+        private WarmUpResult.ClientResult await(final long globalDeadline) {
+            while (true) {
+                val now = System.currentTimeMillis();
+                val start = startTime;
+                final long deadline;
+                if (start > 0) {
+                    deadline = Math.min(start + clientTimeoutInMilliseconds, globalDeadline);
+                } else {
+                    deadline = Math.min(now + POLL_INTERVAL_IN_MILLISECONDS, globalDeadline);
+                }
+                if (now >= deadline) {
+                    return new WarmUpResult.ClientResult(WarmUpResult.Status.TIMED_OUT, start > 0 ? now - start : 0, null);
+                }
+                try {
+                    return future.get(Math.max(1, deadline - now), TimeUnit.MILLISECONDS);
+                } catch (final TimeoutException e) {
+                    LOGGER.trace("Client: {} still initializing", client.getName());
+                } catch (final ExecutionException e) {
+                    return new WarmUpResult.ClientResult(WarmUpResult.Status.FAILED, 0, String.valueOf(e.getCause()));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new WarmUpResult.ClientResult(WarmUpResult.Status.TIMED_OUT, 0, "Interrupted");
+                }
+            }
+        }
+    }
+}
@@ -242,7 +242,7 @@ public class Config {
      */
     public Config addClient(final Client client) {
         this.clients.addClient(client);
-        setConfigForClients();
+        ((BaseClient) client).setConfig(this);
         return this;
     }
 
@@ -395,6 +395,27 @@ public class Config {
         return this;
     }
 
+    /**
+     * Initialize all the clients concurrently, with the default warm-up settings.
+     *
+     * @return the result of the warm-up
+     */
+    public WarmUpResult warmUp() {
+        return warmUp(new ClientsWarmUp());
+    }
+
+    /**
+     * Initialize all the clients concurrently.
+     *
+     * @param warmUp the warm-up settings
+     * @return the result of the warm-up
+     */
+    public WarmUpResult warmUp(final ClientsWarmUp warmUp) {
+        CommonHelper.assertNotNull("warmUp", warmUp);
+        CommonHelper.assertNotNull("clients", clients);
+        return warmUp.run(clients);
+    }
+
     /**
      * <p>setSecurityLogicIfUndefined.</p>
      *
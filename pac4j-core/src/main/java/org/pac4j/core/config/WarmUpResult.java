@@ -0,0 +1,79 @@
+package org.pac4j.core.config;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The result of the warm-up of the clients: the status of the initialization of each client.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@ToString
+public class WarmUpResult {
+
+    /**
+     * The status of the initialization of a client.
+     */
+    public enum Status {
+        /** The client is initialized. */
+        READY,
+        /** The initialization of the client has failed. */
+        FAILED,
+        /** The initialization of the client has not finished in time (it goes on in the background). */
+        TIMED_OUT
+    }
+
+    /**
+     * The result of the initialization of a client.
+     *
+     * @param status the status
+     * @param durationInMilliseconds the duration of the initialization
+     * @param error the error message, if any
+     */
+    public record ClientResult(Status status, long durationInMilliseconds, String error) {}
+
+    /** The results per client name, in the order of the clients. */
+    private final Map<String, ClientResult> clientResults;
+
+    /** The total duration of the warm-up in milliseconds. */
+    private final long durationInMilliseconds;
+
+    /**
+     * <p>Constructor for WarmUpResult.</p>
+     *
+     * @param clientResults the results per client name
+     * @param durationInMilliseconds the total duration of the warm-up
+     */
+    public WarmUpResult(final Map<String, ClientResult> clientResults, final long durationInMilliseconds) {
+        this.clientResults = Collections.unmodifiableMap(clientResults);
+        this.durationInMilliseconds = durationInMilliseconds;
+    }
+
+    /**
+     * Whether all the clients are initialized.
+     *
+     * @return whether all the clients are initialized
+     */
+    public boolean isReady() {
+        return clientResults.values().stream().allMatch(result -> result.status() == Status.READY);
+    }
+
+    /**
+     * Return the names of the clients which are not initialized.
+     *
+     * @return the names of the clients which are not initialized
+     */
+    public List<String> getNotReadyClients() {
+        return clientResults.entrySet().stream()
+            .filter(entry -> entry.getValue().status() != Status.READY)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+}
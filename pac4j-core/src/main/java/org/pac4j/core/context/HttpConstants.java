@@ -29,6 +29,9 @@ public interface HttpConstants {
     /** Constant <code>SEE_OTHER=303</code> */
     int SEE_OTHER = 303;
 
+    /** Constant <code>NOT_MODIFIED=304</code> */
+    int NOT_MODIFIED = 304;
+
     /** Constant <code>TEMPORARY_REDIRECT=307</code> */
     int TEMPORARY_REDIRECT = 307;
 
@@ -1,5 +1,6 @@
 package org.pac4j.core.credentials.authenticator;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -7,17 +8,38 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
  * An authenticator that caches the result of an authentication based on the credentials.
  *
+ * Concurrent validations of the same credentials are coalesced: only one call to the delegate is in flight per credentials,
+ * the other requests wait for its result.
+ *
+ * Failed validations ({@link CredentialsException}) can be cached for a short time (<code>failureTimeout</code>)
+ * and cached profiles can be re-validated in the background before they expire (<code>refreshAfter</code>).
+ * The background re-validation happens after the request which triggered it is over, so the delegate is called without
+ * context (<code>null</code>): only enable it for delegates which do not use the context. The refresh time must be lower
+ * than the cache timeout.
+ *
  * Add the <code>guava</code> dependency to use this class.
  *
  * @author Misagh Moayyed
@@ -26,9 +48,18 @@ import java.util.concurrent.TimeUnit;
 @Getter
 @Setter
 @Slf4j
-@ToString
+@ToString(exclude = {"inFlightValidations", "freshnessStore"})
 public class LocalCachingAuthenticator extends InitializableObject implements Authenticator {
 
+    /** The size of the internal stores when no cache size is defined (custom store). */
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    private static final Executor DEFAULT_REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        val thread = new Thread(r, "pac4j-caching-authenticator-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private Authenticator delegate;
     private int cacheSize;
     private int timeout;
@@ -36,6 +67,31 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
 
     private Store<Credentials, UserProfile> store;
 
+    /** The time (in <code>timeUnit</code>) failed validations are cached, <code>0</code> to disable the negative caching. */
+    private int failureTimeout;
+
+    /** The messages of the failed validations (a new {@link CredentialsException} is thrown for each cached failure). */
+    private Store<Credentials, String> failureStore;
+
+    /** The time (in <code>timeUnit</code>) after which a cached profile is re-validated in the background,
+     * <code>0</code> to disable the refresh-ahead. */
+    private int refreshAfter;
+
+    private Executor refreshExecutor = DEFAULT_REFRESH_EXECUTOR;
+
+    /** The serializer used to copy the credentials used as cache keys (other than token and username/password credentials):
+     * this costs a serialization round trip on each cache miss. <code>null</code> to disable the copy: such credentials are
+     * then validated by the delegate without caching. */
+    private Serializer serializer = new JavaSerializer();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Store<Credentials, Boolean> freshnessStore;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final ConcurrentMap<Credentials, CompletableFuture<UserProfile>> inFlightValidations = new ConcurrentHashMap<>();
+
     /**
      * <p>Constructor for LocalCachingAuthenticator.</p>
      */
@@ -73,27 +129,206 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
     public Optional<Credentials> validate(final CallContext ctx, final Credentials credentials) {
         init();
 
-        var optProfile = this.store.get(credentials);
-        if (optProfile.isEmpty()) {
-            LOGGER.debug("No cached credentials found. Delegating authentication to {}...", delegate);
-            delegate.validate(ctx, credentials);
-            val profile = credentials.getUserProfile();
-            LOGGER.debug("Caching credential. Using profile {}...", profile);
-            store.set(credentials, profile);
-        } else {
-            credentials.setUserProfile(optProfile.get());
+        val optProfile = this.store.get(credentials);
+        if (optProfile.isPresent()) {
             LOGGER.debug("Found cached credential. Using cached profile {}...", optProfile.get());
+            if (freshnessStore != null && freshnessStore.get(credentials).isEmpty()) {
+                refreshInBackground(credentials);
+            }
+            credentials.setUserProfile(optProfile.get());
+        } else {
+            if (failureStore != null) {
+                val optFailure = failureStore.get(credentials);
+                if (optFailure.isPresent()) {
+                    LOGGER.debug("Found cached failure for credential: {}", optFailure.get());
+                    throw new CredentialsException(optFailure.get());
+                }
+            }
+            credentials.setUserProfile(loadProfile(ctx, credentials));
         }
 
         return Optional.of(credentials);
     }
 
+    /**
+     * Validate the credentials via the delegate or wait for the in-flight validation of the same credentials.
+     *
+     * @param ctx the context
+     * @param credentials the credentials
+     * @return the user profile
+     */
+    protected UserProfile loadProfile(final CallContext ctx, final Credentials credentials) {
+        val key = newCacheKey(credentials);
+        if (key == credentials) {
+            // the validation modifies the credentials: they cannot be used as a key
+            LOGGER.debug("Credential cannot be copied, delegating authentication to {} without caching...", delegate);
+            delegate.validate(ctx, credentials);
+            return credentials.getUserProfile();
+        }
+        val future = new CompletableFuture<UserProfile>();
+        val inFlightFuture = inFlightValidations.putIfAbsent(key, future);
+        if (inFlightFuture != null) {
+            LOGGER.debug("Waiting for the in-flight validation of the same credential...");
+            try {
+                return CommonHelper.join(inFlightFuture);
+            } catch (final CredentialsException e) {
+                throw new CredentialsException(e.getMessage());
+            }
+        }
+
+        try {
+            // the previous in-flight validation may have completed in the meantime
+            val optProfile = this.store.get(credentials);
+            final UserProfile profile;
+            if (optProfile.isPresent()) {
+                profile = optProfile.get();
+            } else {
+                LOGGER.debug("No cached credentials found. Delegating authentication to {}...", delegate);
+                profile = validateAndCache(ctx, credentials, key);
+            }
+            future.complete(profile);
+            return profile;
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightValidations.remove(key, future);
+        }
+    }
+
+    /**
+     * Re-validate the cached profile of the credentials in the background (if not already in progress).
+     *
+     * The delegate is called without context as the request which triggered the refresh may be over.
+     *
+     * @param credentials the credentials
+     */
+    protected void refreshInBackground(final Credentials credentials) {
+        val key = newCacheKey(credentials);
+        val refreshCredentials = newCacheKey(credentials);
+        if (key == credentials || refreshCredentials == credentials) {
+            LOGGER.debug("Credential cannot be copied, no background refresh");
+            return;
+        }
+        val future = new CompletableFuture<UserProfile>();
+        if (inFlightValidations.putIfAbsent(key, future) != null) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    LOGGER.debug("Refreshing cached credential. Delegating authentication to {}...", delegate);
+                    future.complete(validateAndCache(null, refreshCredentials, key));
+                } catch (final RuntimeException e) {
+                    if (e instanceof CredentialsException) {
+                        LOGGER.debug("Cached credential is no longer valid: {}", e.getMessage());
+                        this.store.remove(key);
+                    } else {
+                        LOGGER.warn("Cannot refresh cached credential, keeping the cached profile", e);
+                        freshnessStore.set(key, Boolean.TRUE);
+                    }
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlightValidations.remove(key, future);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Cannot schedule the refresh of the cached credential", e);
+            inFlightValidations.remove(key, future);
+        }
+    }
+
+    /**
+     * Validate the credentials via the delegate and cache the result.
+     *
+     * @param ctx the context
+     * @param credentials the credentials to validate
+     * @param key the cache key
+     * @return the user profile
+     */
+    protected UserProfile validateAndCache(final CallContext ctx, final Credentials credentials, final Credentials key) {
+        try {
+            delegate.validate(ctx, credentials);
+        } catch (final CredentialsException e) {
+            if (failureStore != null) {
+                LOGGER.debug("Caching credential failure: {}", e.getMessage());
+                failureStore.set(key, String.valueOf(e.getMessage()));
+            }
+            throw e;
+        }
+        val profile = credentials.getUserProfile();
+        LOGGER.debug("Caching credential. Using profile {}...", profile);
+        store.set(key, profile);
+        if (freshnessStore != null && profile != null) {
+            freshnessStore.set(key, Boolean.TRUE);
+        }
+        return profile;
+    }
+
+    /**
+     * Build the cache key of the credentials: a copy without user profile so that it is not modified by the validation.
+     *
+     * Token and username/password credentials are copied directly, the other credentials via the serializer.
+     *
+     * @param credentials the credentials
+     * @return the copied credentials or the credentials themselves if they cannot be copied
+     */
+    protected Credentials newCacheKey(final Credentials credentials) {
+        final Credentials copy;
+        if (credentials.getClass() == TokenCredentials.class && credentials.getLogoutType() == null) {
+            copy = new TokenCredentials(((TokenCredentials) credentials).getToken());
+        } else if (credentials.getClass() == UsernamePasswordCredentials.class && credentials.getLogoutType() == null) {
+            val usernamePasswordCredentials = (UsernamePasswordCredentials) credentials;
+            copy = new UsernamePasswordCredentials(usernamePasswordCredentials.getUsername(), usernamePasswordCredentials.getPassword());
+        } else if (serializer != null
+            && serializer.deserializeFromBytes(serializer.serializeToBytes(credentials)) instanceof Credentials copiedCredentials) {
+            copiedCredentials.setUserProfile(null);
+            return copiedCredentials;
+        } else {
+            return credentials;
+        }
+        copy.setSource(credentials.getSource());
+        return copy;
+    }
+
+    /**
+     * Define the time after which a cached profile is re-validated in the background.
+     *
+     * @param refreshAfter the refresh time (lower than the timeout), <code>0</code> to disable the refresh-ahead
+     */
+    public void setRefreshAfter(final int refreshAfter) {
+        checkRefreshAfter(refreshAfter, timeout);
+        this.refreshAfter = refreshAfter;
+    }
+
+    /**
+     * Define the cache timeout.
+     *
+     * @param timeout the cache timeout (greater than the refresh time)
+     */
+    public void setTimeout(final int timeout) {
+        checkRefreshAfter(refreshAfter, timeout);
+        this.timeout = timeout;
+    }
+
+    private static void checkRefreshAfter(final int refreshAfter, final int timeout) {
+        CommonHelper.assertTrue(refreshAfter <= 0 || timeout <= 0 || refreshAfter < timeout,
+            "refreshAfter must be lower than timeout");
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void internalInit(final boolean forceReinit) {
+        checkRefreshAfter(refreshAfter, timeout);
         if (this.store == null) {
             this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
         }
+        val size = cacheSize > 0 ? cacheSize : DEFAULT_CACHE_SIZE;
+        if (this.failureStore == null && failureTimeout > 0) {
+            this.failureStore = new GuavaStore<>(size, failureTimeout, timeUnit);
+        }
+        this.freshnessStore = refreshAfter > 0 ? new GuavaStore<>(size, refreshAfter, timeUnit) : null;
 
         if (delegate instanceof InitializableObject initializableObject) {
             initializableObject.init(forceReinit);
@@ -107,6 +342,12 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
      */
     public void removeFromCache(final Credentials credentials) {
         this.store.remove(credentials);
+        if (this.failureStore != null) {
+            this.failureStore.remove(credentials);
+        }
+        if (this.freshnessStore != null) {
+            this.freshnessStore.remove(credentials);
+        }
     }
 
     /**
@@ -9,6 +9,11 @@ import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.engine.metrics.LogicMetricsListener;
+import org.pac4j.core.engine.metrics.LogicOutcome;
+import org.pac4j.core.engine.metrics.LogicPhase;
+import org.pac4j.core.engine.metrics.LogicType;
+import org.pac4j.core.engine.metrics.NoLogicMetricsListener;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.util.HttpActionHelper;
@@ -34,6 +39,8 @@ public abstract class AbstractExceptionAwareLogic {
 
     private String errorUrl;
 
+    private LogicMetricsListener metricsListener = NoLogicMetricsListener.INSTANCE;
+
     /**
      * Handle exceptions.
      *
@@ -95,4 +102,56 @@ public abstract class AbstractExceptionAwareLogic {
 
         return new CallContext(webContext, sessionStore, profileManagerFactory);
     }
+
+    /**
+     * Start the timing of a phase or of the whole logic.
+     *
+     * @return the start time (or <code>0</code> if the metrics are disabled)
+     */
+    protected long startTiming() {
+        return isMetricsEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Notify the metrics listener that a phase has completed.
+     *
+     * @param type the type of logic
+     * @param phase the phase
+     * @param start the start time of the phase
+     */
+    protected void phaseCompleted(final LogicType type, final LogicPhase phase, final long start) {
+        if (isMetricsEnabled()) {
+            metricsListener.onPhase(type, phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Notify the metrics listener that the logic has completed.
+     *
+     * @param type the type of logic
+     * @param outcome the outcome
+     * @param start the start time of the logic
+     */
+    protected void logicCompleted(final LogicType type, final LogicOutcome outcome, final long start) {
+        if (isMetricsEnabled()) {
+            metricsListener.onOutcome(type, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Notify the metrics listener that the logic has failed.
+     *
+     * @param type the type of logic
+     * @param e the thrown exception
+     * @param start the start time of the logic
+     */
+    protected void logicFailed(final LogicType type, final Exception e, final long start) {
+        if (isMetricsEnabled()) {
+            logicCompleted(type, e instanceof HttpAction httpAction ? LogicOutcome.of(httpAction) : LogicOutcome.ERROR, start);
+        }
+    }
+
+    private boolean isMetricsEnabled() {
+        return metricsListener != null && metricsListener.isEnabled();
+    }
 }
@@ -12,9 +12,13 @@ import org.pac4j.core.client.finder.DefaultCallbackClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.engine.metrics.LogicOutcome;
+import org.pac4j.core.engine.metrics.LogicPhase;
+import org.pac4j.core.engine.metrics.LogicType;
 import org.pac4j.core.engine.savedrequest.DefaultSavedRequestHandler;
 import org.pac4j.core.engine.savedrequest.SavedRequestHandler;
 import org.pac4j.core.exception.http.HttpAction;
+import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
 
@@ -50,6 +54,7 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
                           final String defaultClient, final FrameworkParameters parameters) {
 
         LOGGER.debug("=== CALLBACK ===");
+        val start = startTiming();
 
         // checks
         val ctx = buildContext(config, parameters);
@@ -70,7 +75,9 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             val clients = config.getClients();
             assertNotNull("clients", clients);
 
+            var phaseStart = startTiming();
             val foundClients = clientFinder.find(clients, webContext, defaultClient);
+            phaseCompleted(LogicType.CALLBACK, LogicPhase.CLIENT_FINDING, phaseStart);
             assertTrue(foundClients != null && foundClients.size() == 1,
                 "unable to find one indirect client for the callback: check the callback URL for a client name parameter or suffix path"
                     + " or ensure that your configuration defaults to one indirect client");
@@ -78,9 +85,13 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             LOGGER.debug("foundClient: {}", foundClient);
             assertNotNull("foundClient", foundClient);
 
+            phaseStart = startTiming();
             var credentials = foundClient.getCredentials(ctx).orElse(null);
+            phaseCompleted(LogicType.CALLBACK, LogicPhase.CREDENTIALS_EXTRACTION, phaseStart);
             LOGGER.debug("extracted credentials: {}", credentials);
+            phaseStart = startTiming();
             credentials = foundClient.validateCredentials(ctx, credentials).orElse(null);
+            phaseCompleted(LogicType.CALLBACK, LogicPhase.CREDENTIALS_VALIDATION, phaseStart);
             LOGGER.debug("validated credentials: {}", credentials);
 
             if (credentials != null && !credentials.isForAuthentication()) {
@@ -90,24 +101,32 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 if (credentials != null) {
+                    phaseStart = startTiming();
                     val optProfile = foundClient.getUserProfile(ctx, credentials);
+                    phaseCompleted(LogicType.CALLBACK, LogicPhase.PROFILE_CREATION, phaseStart);
                     LOGGER.debug("optProfile: {}", optProfile);
                     if (optProfile.isPresent()) {
                         val profile = optProfile.get();
                         val saveProfileInSession = ((BaseClient) foundClient).getSaveProfileInSession(webContext, profile);
                         val multiProfile = ((BaseClient) foundClient).isMultiProfile(webContext, profile);
                         LOGGER.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
+                        phaseStart = startTiming();
                         saveUserProfile(ctx, config, profile, saveProfileInSession, multiProfile, renewSession);
+                        phaseCompleted(LogicType.CALLBACK, LogicPhase.PROFILE_SAVING, phaseStart);
                     }
                 }
 
+                phaseStart = startTiming();
                 action = redirectToOriginallyRequestedUrl(ctx, defaultUrl);
+                phaseCompleted(LogicType.CALLBACK, LogicPhase.REDIRECTION, phaseStart);
             }
 
         } catch (final RuntimeException e) {
+            logicFailed(LogicType.CALLBACK, e, start);
             return handleException(e, httpActionAdapter, webContext);
         }
 
+        logicCompleted(LogicType.CALLBACK, LogicOutcome.of(action), start);
         return httpActionAdapter.adapt(action, webContext);
     }
 
@@ -149,6 +168,7 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             val oldSessionId = optOldSessionId.get();
             val renewed = sessionStore.renewSession(context);
             if (renewed) {
+                ProfileManager.invalidateSessionProfiles(context);
                 val optNewSessionId = sessionStore.getSessionId(context, true);
                 if (optNewSessionId.isEmpty()) {
                     LOGGER.error("No new session identifier retrieved although the session creation has been requested");
@@ -8,6 +8,9 @@ import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.engine.metrics.LogicOutcome;
+import org.pac4j.core.engine.metrics.LogicPhase;
+import org.pac4j.core.engine.metrics.LogicType;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.exception.http.NoContentAction;
 import org.pac4j.core.util.HttpActionHelper;
@@ -38,6 +41,7 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
                           final Boolean inputDestroySession, final Boolean inputCentralLogout, final FrameworkParameters parameters) {
 
         LOGGER.debug("=== LOGOUT ===");
+        val start = startTiming();
 
         // checks
         val ctx = buildContext(config, parameters);
@@ -63,7 +67,9 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
             // logic
             val manager = ctx.profileManagerFactory().apply(webContext, sessionStore);
             manager.setConfig(config);
+            var phaseStart = startTiming();
             val profiles = manager.getProfiles();
+            phaseCompleted(LogicType.LOGOUT, LogicPhase.PROFILE_LOADING, phaseStart);
 
             // compute redirection URL
             val url = webContext.getRequestParameter(Pac4jConstants.URL);
@@ -81,6 +87,7 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
             // local logout if requested or multiple profiles
             if (localLogout || profiles.size() > 1) {
                 LOGGER.debug("Performing application logout");
+                phaseStart = startTiming();
                 manager.removeProfiles();
                 String sessionId = null;
                 if (sessionStore != null) {
@@ -98,11 +105,13 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
                 if (sessionLogoutHandler != null && sessionId != null) {
                     sessionLogoutHandler.cleanRecord(sessionId);
                 }
+                phaseCompleted(LogicType.LOGOUT, LogicPhase.LOCAL_LOGOUT, phaseStart);
             }
 
             // central logout
             if (centralLogout) {
                 LOGGER.debug("Performing central logout");
+                phaseStart = startTiming();
                 for (val profile : profiles) {
                     LOGGER.debug("Profile: {}", profile);
                     val clientName = profile.getClientName();
@@ -127,12 +136,15 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
                         }
                     }
                 }
+                phaseCompleted(LogicType.LOGOUT, LogicPhase.CENTRAL_LOGOUT, phaseStart);
             }
 
         } catch (final RuntimeException e) {
+            logicFailed(LogicType.LOGOUT, e, start);
             return handleException(e, httpActionAdapter, webContext);
         }
 
+        logicCompleted(LogicType.LOGOUT, LogicOutcome.of(action), start);
         return httpActionAdapter.adapt(action, webContext);
     }
 
@@ -16,6 +16,9 @@ import org.pac4j.core.client.finder.DefaultSecurityClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.engine.metrics.LogicOutcome;
+import org.pac4j.core.engine.metrics.LogicPhase;
+import org.pac4j.core.engine.metrics.LogicType;
 import org.pac4j.core.engine.savedrequest.DefaultSavedRequestHandler;
 import org.pac4j.core.engine.savedrequest.SavedRequestHandler;
 import org.pac4j.core.exception.http.ForbiddenAction;
@@ -76,6 +79,7 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                           final String clients, final String authorizers, final String matchers, final FrameworkParameters parameters) {
 
         LOGGER.debug("=== SECURITY ===");
+        val start = startTiming();
 
         // checks
         val ctx = buildContext(config, parameters);
@@ -85,6 +89,7 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
         assertNotNull("httpActionAdapter", httpActionAdapter);
 
         HttpAction action;
+        var granted = false;
         try {
             assertNotNull("clientFinder", clientFinder);
             assertNotNull("authorizationChecker", authorizationChecker);
@@ -96,16 +101,24 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             // logic
             LOGGER.debug("url: {}", webContext.getFullRequestURL());
             LOGGER.debug("clients: {} | matchers: {}", clients, matchers);
+            var phaseStart = startTiming();
             val currentClients = clientFinder.find(configClients, webContext, clients);
+            phaseCompleted(LogicType.SECURITY, LogicPhase.CLIENT_FINDING, phaseStart);
             LOGGER.debug("currentClients: {}", currentClients);
 
-            if (matchingChecker.matches(ctx, matchers, config.getMatchers(), currentClients)) {
+            phaseStart = startTiming();
+            val matches = matchingChecker.matches(ctx, matchers, config.getMatchers(), currentClients);
+            phaseCompleted(LogicType.SECURITY, LogicPhase.MATCHING, phaseStart);
+            if (matches) {
 
                 val manager = ctx.profileManagerFactory().apply(webContext, sessionStore);
                 manager.setConfig(config);
-                var profiles = this.loadProfilesFromSession
-                    ? loadProfiles(ctx, manager, currentClients)
-                    : List.<UserProfile>of();
+                var profiles = List.<UserProfile>of();
+                if (this.loadProfilesFromSession) {
+                    phaseStart = startTiming();
+                    profiles = loadProfiles(ctx, manager, currentClients);
+                    phaseCompleted(LogicType.SECURITY, LogicPhase.PROFILE_LOADING, phaseStart);
+                }
                 LOGGER.debug("Loaded profiles (from session: {}): {} ", this.loadProfilesFromSession, profiles);
 
                 // no profile and some current clients
@@ -116,18 +129,26 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                         if (currentClient instanceof DirectClient directClient) {
                             LOGGER.debug("Performing authentication for direct client: {}", currentClient);
 
+                            phaseStart = startTiming();
                             var credentials = currentClient.getCredentials(ctx).orElse(null);
+                            phaseCompleted(LogicType.SECURITY, LogicPhase.CREDENTIALS_EXTRACTION, phaseStart);
+                            phaseStart = startTiming();
                             credentials = currentClient.validateCredentials(ctx, credentials).orElse(null);
+                            phaseCompleted(LogicType.SECURITY, LogicPhase.CREDENTIALS_VALIDATION, phaseStart);
                             LOGGER.debug("credentials: {}", credentials);
                             if (credentials != null && credentials.isForAuthentication()) {
+                                phaseStart = startTiming();
                                 val optProfile = currentClient.getUserProfile(ctx, credentials);
+                                phaseCompleted(LogicType.SECURITY, LogicPhase.PROFILE_CREATION, phaseStart);
                                 LOGGER.debug("profile: {}", optProfile);
                                 if (optProfile.isPresent()) {
                                     val profile = optProfile.get();
                                     val saveProfileInSession = directClient.getSaveProfileInSession(webContext, profile);
                                     val multiProfile = directClient.isMultiProfile(webContext, profile);
                                     LOGGER.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
+                                    phaseStart = startTiming();
                                     manager.save(saveProfileInSession, profile, multiProfile);
+                                    phaseCompleted(LogicType.SECURITY, LogicPhase.PROFILE_SAVING, phaseStart);
                                     updated = true;
                                     if (!multiProfile) {
                                         break;
@@ -137,7 +158,9 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                         }
                     }
                     if (updated) {
+                        phaseStart = startTiming();
                         profiles = loadProfiles(ctx, manager, currentClients);
+                        phaseCompleted(LogicType.SECURITY, LogicPhase.PROFILE_LOADING, phaseStart);
                         LOGGER.debug("Reloaded profiles: {}", profiles);
                     }
                 }
@@ -145,9 +168,14 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 // we have profile(s) -> check authorizations; otherwise, redirect to identity provider or 401
                 if (isNotEmpty(profiles)) {
                     LOGGER.debug("authorizers: {}", authorizers);
-                    if (authorizationChecker.isAuthorized(webContext, sessionStore, profiles,
-                                                          authorizers, config.getAuthorizers(), currentClients)) {
+                    phaseStart = startTiming();
+                    val authorized = authorizationChecker.isAuthorized(webContext, sessionStore, profiles,
+                                                                       authorizers, config.getAuthorizers(), currentClients);
+                    phaseCompleted(LogicType.SECURITY, LogicPhase.AUTHORIZATION, phaseStart);
+                    if (authorized) {
                         LOGGER.debug("authenticated and authorized -> grant access");
+                        logicCompleted(LogicType.SECURITY, LogicOutcome.GRANTED, start);
+                        granted = true;
                         return securityGrantedAccessAdapter.adapt(webContext, sessionStore, profiles);
                     } else {
                         LOGGER.debug("forbidden");
@@ -156,8 +184,10 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 } else {
                     if (startAuthentication(ctx, currentClients)) {
                         LOGGER.debug("Starting authentication");
+                        phaseStart = startTiming();
                         saveRequestedUrl(ctx, currentClients, config.getClients().getAjaxRequestResolver());
                         action = redirectToIdentityProvider(ctx, currentClients);
+                        phaseCompleted(LogicType.SECURITY, LogicPhase.REDIRECTION, phaseStart);
                     } else {
                         LOGGER.debug("unauthorized");
                         action = unauthorized(ctx, currentClients);
@@ -167,13 +197,19 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 LOGGER.debug("no matching for this request -> grant access");
+                logicCompleted(LogicType.SECURITY, LogicOutcome.GRANTED, start);
+                granted = true;
                 return securityGrantedAccessAdapter.adapt(webContext, sessionStore, Collections.emptyList());
             }
 
         } catch (final Exception e) {
+            if (!granted) {
+                logicFailed(LogicType.SECURITY, e, start);
+            }
             return handleException(e, httpActionAdapter, webContext);
         }
 
+        logicCompleted(LogicType.SECURITY, LogicOutcome.of(action), start);
         return httpActionAdapter.adapt(action, webContext);
     }
 
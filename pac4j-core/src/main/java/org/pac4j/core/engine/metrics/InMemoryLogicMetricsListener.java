@@ -0,0 +1,103 @@
+package org.pac4j.core.engine.metrics;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics listener aggregating in memory the counts and total durations of the phases and the counts of the outcomes.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public class InMemoryLogicMetricsListener implements LogicMetricsListener {
+
+    private final LongAdder[][] phaseCounts = newAdders(LogicPhase.values().length);
+
+    private final LongAdder[][] phaseDurations = newAdders(LogicPhase.values().length);
+
+    private final LongAdder[][] outcomeCounts = newAdders(LogicOutcome.values().length);
+
+    private final LongAdder[][] outcomeDurations = newAdders(LogicOutcome.values().length);
+
+    private static LongAdder[][] newAdders(final int size) {
+        val adders = new LongAdder[LogicType.values().length][size];
+        for (var i = 0; i < adders.length; i++) {
+            for (var j = 0; j < size; j++) {
+                adders[i][j] = new LongAdder();
+            }
+        }
+        return adders;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onPhase(final LogicType type, final LogicPhase phase, final long durationInNanos) {
+        phaseCounts[type.ordinal()][phase.ordinal()].increment();
+        phaseDurations[type.ordinal()][phase.ordinal()].add(durationInNanos);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onOutcome(final LogicType type, final LogicOutcome outcome, final long durationInNanos) {
+        outcomeCounts[type.ordinal()][outcome.ordinal()].increment();
+        outcomeDurations[type.ordinal()][outcome.ordinal()].add(durationInNanos);
+    }
+
+    /**
+     * Return how many times a phase has completed.
+     *
+     * @param type the type of logic
+     * @param phase the phase
+     * @return the count
+     */
+    public long getCount(final LogicType type, final LogicPhase phase) {
+        return phaseCounts[type.ordinal()][phase.ordinal()].sum();
+    }
+
+    /**
+     * Return the total duration of a phase.
+     *
+     * @param type the type of logic
+     * @param phase the phase
+     * @return the total duration in nanoseconds
+     */
+    public long getTotalDuration(final LogicType type, final LogicPhase phase) {
+        return phaseDurations[type.ordinal()][phase.ordinal()].sum();
+    }
+
+    /**
+     * Return how many times a logic has completed with an outcome.
+     *
+     * @param type the type of logic
+     * @param outcome the outcome
+     * @return the count
+     */
+    public long getCount(final LogicType type, final LogicOutcome outcome) {
+        return outcomeCounts[type.ordinal()][outcome.ordinal()].sum();
+    }
+
+    /**
+     * Return the total duration of a logic for an outcome.
+     *
+     * @param type the type of logic
+     * @param outcome the outcome
+     * @return the total duration in nanoseconds
+     */
+    public long getTotalDuration(final LogicType type, final LogicOutcome outcome) {
+        return outcomeDurations[type.ordinal()][outcome.ordinal()].sum();
+    }
+
+    /**
+     * Reset all the metrics.
+     */
+    public void reset() {
+        for (val adders : new LongAdder[][][] {phaseCounts, phaseDurations, outcomeCounts, outcomeDurations}) {
+            for (val row : adders) {
+                for (val adder : row) {
+                    adder.reset();
+                }
+            }
+        }
+    }
+}
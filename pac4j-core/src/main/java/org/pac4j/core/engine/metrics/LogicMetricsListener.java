@@ -0,0 +1,37 @@
+package org.pac4j.core.engine.metrics;
+
+/**
+ * Listener notified of the duration of the phases and of the outcome of the security, callback and logout logics.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public interface LogicMetricsListener {
+
+    /**
+     * Whether the listener must be notified. When disabled, the logics do not even measure the time.
+     *
+     * @return whether the listener is enabled
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * A phase of a logic has completed successfully.
+     *
+     * @param type the type of logic
+     * @param phase the phase
+     * @param durationInNanos the duration of the phase in nanoseconds
+     */
+    void onPhase(LogicType type, LogicPhase phase, long durationInNanos);
+
+    /**
+     * A logic has completed.
+     *
+     * @param type the type of logic
+     * @param outcome the outcome
+     * @param durationInNanos the duration of the logic in nanoseconds (excluding the granted access adapter)
+     */
+    void onOutcome(LogicType type, LogicOutcome outcome, long durationInNanos);
+}
@@ -0,0 +1,43 @@
+package org.pac4j.core.engine.metrics;
+
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.exception.http.HttpAction;
+import org.pac4j.core.exception.http.RedirectionAction;
+
+/**
+ * The outcomes of the logics.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public enum LogicOutcome {
+    /** Access granted (security logic). */
+    GRANTED,
+    /** 401 error. */
+    UNAUTHORIZED,
+    /** 403 error. */
+    FORBIDDEN,
+    /** Redirection (or automatic form POST). */
+    REDIRECT,
+    /** Any other HTTP action. */
+    OTHER_ACTION,
+    /** An exception was raised. */
+    ERROR;
+
+    /**
+     * Compute the outcome of an HTTP action.
+     *
+     * @param action the HTTP action
+     * @return the outcome
+     */
+    public static LogicOutcome of(final HttpAction action) {
+        if (action instanceof RedirectionAction) {
+            return REDIRECT;
+        } else if (action.getCode() == HttpConstants.UNAUTHORIZED) {
+            return UNAUTHORIZED;
+        } else if (action.getCode() == HttpConstants.FORBIDDEN) {
+            return FORBIDDEN;
+        }
+        return OTHER_ACTION;
+    }
+}
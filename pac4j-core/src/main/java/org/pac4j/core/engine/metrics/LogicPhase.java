@@ -0,0 +1,32 @@
+package org.pac4j.core.engine.metrics;
+
+/**
+ * The timed phases of the logics.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public enum LogicPhase {
+    /** Finding the current clients (security and callback logics). */
+    CLIENT_FINDING,
+    /** Checking the matchers (security logic). */
+    MATCHING,
+    /** Loading the profiles from the session or request (security and logout logics). */
+    PROFILE_LOADING,
+    /** Extracting the credentials from the request (security and callback logics). */
+    CREDENTIALS_EXTRACTION,
+    /** Validating the credentials (security and callback logics). */
+    CREDENTIALS_VALIDATION,
+    /** Creating the user profile from the credentials (security and callback logics). */
+    PROFILE_CREATION,
+    /** Saving the user profile (security and callback logics). */
+    PROFILE_SAVING,
+    /** Checking the authorizers (security logic). */
+    AUTHORIZATION,
+    /** Building the redirection to the identity provider (security logic) or to the originally requested URL (callback logic). */
+    REDIRECTION,
+    /** Removing the profiles and destroying the session (logout logic). */
+    LOCAL_LOGOUT,
+    /** Building the logout action of the identity provider (logout logic). */
+    CENTRAL_LOGOUT
+}
@@ -0,0 +1,16 @@
+package org.pac4j.core.engine.metrics;
+
+/**
+ * The type of logic being measured.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public enum LogicType {
+    /** The security logic. */
+    SECURITY,
+    /** The callback logic. */
+    CALLBACK,
+    /** The logout logic. */
+    LOGOUT
+}
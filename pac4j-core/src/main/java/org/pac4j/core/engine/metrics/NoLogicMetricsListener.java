@@ -0,0 +1,27 @@
+package org.pac4j.core.engine.metrics;
+
+/**
+ * No metrics.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public class NoLogicMetricsListener implements LogicMetricsListener {
+
+    /** Constant <code>INSTANCE</code> */
+    public static final LogicMetricsListener INSTANCE = new NoLogicMetricsListener();
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onPhase(final LogicType type, final LogicPhase phase, final long durationInNanos) {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void onOutcome(final LogicType type, final LogicOutcome outcome, final long durationInNanos) {}
+}
@@ -11,14 +11,18 @@ import org.pac4j.core.matching.matcher.*;
 import org.pac4j.core.matching.matcher.csrf.CsrfTokenGeneratorMatcher;
 import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.ResolvedElements;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
 /**
  * Default way to check the matchers (with default matchers).
  *
+ * The matchers resolved for given names are cached and reused as long as the map of matchers is not updated.
+ *
  * @author Jerome Leleu
  * @since 4.0.0
  */
@@ -50,6 +54,13 @@ public class DefaultMatchingChecker implements MatchingChecker {
     /** Constant <code>CORS_MATCHER</code> */
     protected static final CorsMatcher CORS_MATCHER = new CorsMatcher();
 
+    /** Constant <code>DEFAULT_MATCHER_NAMES_WITH_CSRF_TOKEN</code> */
+    protected static final String DEFAULT_MATCHER_NAMES_WITH_CSRF_TOKEN =
+        DefaultMatchers.SECURITYHEADERS + Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
+
+    /** Constant <code>MAX_RESOLVED_MATCHERS</code> */
+    protected static final int MAX_RESOLVED_MATCHERS = 1000;
+
     static {
         CORS_MATCHER.setAllowOrigin("*");
         CORS_MATCHER.setAllowCredentials(true);
@@ -62,6 +73,8 @@ public class DefaultMatchingChecker implements MatchingChecker {
         CORS_MATCHER.setAllowMethods(methods);
     }
 
+    private final Map<String, ResolvedElements<Matcher>> resolvedMatchers = new ConcurrentHashMap<>();
+
     /** {@inheritDoc} */
     @Override
     public boolean matches(final CallContext ctx, final String matchersValue,
@@ -104,22 +117,19 @@ public class DefaultMatchingChecker implements MatchingChecker {
      */
     protected String computeDefaultMatcherNames(final CallContext ctx, final Iterable<Client> clients,
                                                 final Map<String, Matcher> matchersMap) {
-        String name = DefaultMatchers.SECURITYHEADERS;
         if (ctx.sessionStore().getSessionId(ctx.webContext(), false).isPresent()) {
-            name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-            return name;
+            return DEFAULT_MATCHER_NAMES_WITH_CSRF_TOKEN;
         }
         for (val client : clients) {
             if (client instanceof IndirectClient) {
-                name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-                return name;
+                return DEFAULT_MATCHER_NAMES_WITH_CSRF_TOKEN;
             }
         }
-        return name;
+        return DefaultMatchers.SECURITYHEADERS;
     }
 
     /**
-     * <p>computeMatchersFromNames.</p>
+     * Compute the matchers from their names, reusing the previous resolution of the same names if the map has not been updated.
      *
      * @param matchersValue a {@link String} object
      * @param matchersMap a {@link Map} object
@@ -127,6 +137,27 @@ public class DefaultMatchingChecker implements MatchingChecker {
      */
     protected List<Matcher> computeMatchersFromNames(final String matchersValue, final Map<String, Matcher> matchersMap) {
         assertNotNull("matchersMap", matchersMap);
+        val previous = resolvedMatchers.get(matchersValue);
+        if (previous != null && previous.isValidFor(matchersMap)) {
+            return previous.getElements();
+        }
+        val resolved = new ResolvedElements<>(matchersMap, resolveMatchersFromNames(matchersValue, matchersMap));
+        LOGGER.debug("Resolved matchers for '{}': {}", matchersValue, resolved);
+        if (resolvedMatchers.size() >= MAX_RESOLVED_MATCHERS) {
+            resolvedMatchers.clear();
+        }
+        resolvedMatchers.put(matchersValue, resolved);
+        return resolved.getElements();
+    }
+
+    /**
+     * <p>resolveMatchersFromNames.</p>
+     *
+     * @param matchersValue a {@link String} object
+     * @param matchersMap a {@link Map} object
+     * @return a {@link List} object
+     */
+    protected List<Matcher> resolveMatchersFromNames(final String matchersValue, final Map<String, Matcher> matchersMap) {
         final List<Matcher> matchers = new ArrayList<>();
         final List<String> names = new ArrayList<>(Arrays.asList(matchersValue.split(Pac4jConstants.ELEMENT_SEPARATOR)));
         for (var i = 0; i < names.size(); ) {
@@ -0,0 +1,119 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Stateless CSRF token generator: the token is the HMAC (SHA-256) of the session identifier and of the current time window,
+ * so nothing is saved in the session.
+ *
+ * The token of a time window (<code>ttlInSeconds</code>) remains valid during the next time window
+ * (like the previous token of the {@link DefaultCsrfTokenGenerator}).
+ * Use it along with the {@link org.pac4j.core.authorization.authorizer.HmacCsrfAuthorizer}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Slf4j
+@Getter
+@Setter
+@ToString(exclude = "secret")
+public class HmacCsrfTokenGenerator implements CsrfTokenGenerator {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private String secret;
+
+    // 4 hours
+    private int ttlInSeconds = 4*60*60;
+
+    /**
+     * <p>Constructor for HmacCsrfTokenGenerator.</p>
+     */
+    public HmacCsrfTokenGenerator() {}
+
+    /**
+     * <p>Constructor for HmacCsrfTokenGenerator.</p>
+     *
+     * @param secret the secret key
+     */
+    public HmacCsrfTokenGenerator(final String secret) {
+        this.secret = secret;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String get(final WebContext context, final SessionStore sessionStore) {
+        val sessionId = sessionStore.getSessionId(context, true);
+        CommonHelper.assertTrue(sessionId.isPresent(), "no session identifier for the CSRF token");
+        val token = computeToken(sessionId.get(), currentWindow());
+        LOGGER.debug("computed CSRF token: {} for current URL: {}", token, context.getFullRequestURL());
+        return token;
+    }
+
+    /**
+     * Check that the token is the one of the current or previous time window for the current session.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param token the token to check
+     * @return whether the token is valid
+     */
+    public boolean isValid(final WebContext context, final SessionStore sessionStore, final String token) {
+        val sessionId = sessionStore.getSessionId(context, false);
+        if (token == null || sessionId.isEmpty()) {
+            return false;
+        }
+        val window = currentWindow();
+        val tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+        // both checks are always performed to reduce timing differences
+        val isGoodCurrentToken = MessageDigest.isEqual(computeToken(sessionId.get(), window).getBytes(StandardCharsets.UTF_8),
+            tokenBytes);
+        val isGoodPreviousToken = MessageDigest.isEqual(computeToken(sessionId.get(), window - 1).getBytes(StandardCharsets.UTF_8),
+            tokenBytes);
+        return isGoodCurrentToken | isGoodPreviousToken;
+    }
+
+    /**
+     * Return the current time window.
+     *
+     * @return the current time window
+     */
+    protected long currentWindow() {
+        CommonHelper.assertTrue(ttlInSeconds > 0, "ttlInSeconds must be greater than zero");
+        return System.currentTimeMillis() / (ttlInSeconds * 1000L);
+    }
+
+    /**
+     * Compute the token for a session identifier and a time window.
+     *
+     * @param sessionId the session identifier
+     * @param window the time window
+     * @return the token
+     */
+    protected String computeToken(final String sessionId, final long window) {
+        CommonHelper.assertNotBlank("secret", secret);
+        try {
+            val mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            val hmac = mac.doFinal((sessionId + ":" + window).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac);
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.authorizer.IsAuthenticatedAuthorizer;
+import org.pac4j.core.client.Client;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.WebContext;
@@ -18,10 +19,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.
  *
+ * The profiles read from the session are kept in a request attribute so that the session is read only once per request
+ * and the session is only written if the profiles have changed. They are read again if the session identifier changes
+ * (session renewal or destruction); code writing the profiles directly into the session must call
+ * {@link #invalidateSessionProfiles(WebContext)}.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -98,11 +105,7 @@ public class ProfileManager {
                 profiles.putAll((Map<String, UserProfile>) requestAttribute);
             });
         if (readFromSession) {
-            this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
-                .ifPresent(sessionAttribute -> {
-                    LOGGER.debug("Retrieved profiles (session): {}", sessionAttribute);
-                    profiles.putAll((Map<String, UserProfile>) sessionAttribute);
-                });
+            profiles.putAll(retrieveSessionProfiles());
         }
 
         removeOrRenewExpiredProfiles(profiles, readFromSession);
@@ -110,6 +113,57 @@ public class ProfileManager {
         return profiles;
     }
 
+    /**
+     * Retrieve the profiles from the session, only once per request.
+     *
+     * @return the map of profiles saved in the session
+     */
+    protected Map<String, UserProfile> retrieveSessionProfiles() {
+        val sessionId = sessionStore.getSessionId(context, false).orElse(null);
+        val cachedProfiles = this.context.getRequestAttribute(Pac4jConstants.SESSION_USER_PROFILES);
+        if (cachedProfiles.isPresent() && cachedProfiles.get() instanceof SessionProfiles sessionProfiles
+            && Objects.equals(sessionId, sessionProfiles.sessionId())) {
+            return sessionProfiles.profiles();
+        }
+        final Map<String, UserProfile> profiles = this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
+            .map(sessionAttribute -> (Map<String, UserProfile>) sessionAttribute)
+            .orElse(Collections.emptyMap());
+        LOGGER.debug("Retrieved profiles (session): {}", profiles);
+        forEachClient(profiles.values(),
+            (client, profile) -> client.restoreUserProfile(new CallContext(context, sessionStore), profile));
+        this.context.setRequestAttribute(Pac4jConstants.SESSION_USER_PROFILES, new SessionProfiles(profiles, sessionId));
+        return profiles;
+    }
+
+    /**
+     * Save the profiles in the session if they are different from the ones already read from or saved into the session.
+     *
+     * @param profiles the map of profiles
+     */
+    protected void saveSessionProfiles(final LinkedHashMap<String, UserProfile> profiles) {
+        val cachedProfiles = this.context.getRequestAttribute(Pac4jConstants.SESSION_USER_PROFILES);
+        if (cachedProfiles.isPresent() && cachedProfiles.get() instanceof SessionProfiles sessionProfiles
+            && sessionProfiles.isSameAs(profiles)
+            && Objects.equals(sessionStore.getSessionId(context, false).orElse(null), sessionProfiles.sessionId())) {
+            LOGGER.debug("Profiles unchanged (session): {}", profiles);
+            return;
+        }
+        LOGGER.debug("Saving profiles (session): {}", profiles);
+        this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, profiles);
+        this.context.setRequestAttribute(Pac4jConstants.SESSION_USER_PROFILES,
+            new SessionProfiles(profiles, sessionStore.getSessionId(context, false).orElse(null)));
+    }
+
+    /**
+     * Forget the profiles read from or saved into the session during the current request, so that they are read again
+     * from the session (after a session renewal or when the profiles are written directly into the session).
+     *
+     * @param context the web context
+     */
+    public static void invalidateSessionProfiles(final WebContext context) {
+        context.setRequestAttribute(Pac4jConstants.SESSION_USER_PROFILES, null);
+    }
+
     /**
      * <p>removeOrRenewExpiredProfiles.</p>
      *
@@ -143,6 +197,20 @@ public class ProfileManager {
                 }
                 if(removeEntry)
                     profileIterator.remove();
+            } else if (profile.isRenewalDue() && config != null && profile.getClientName() != null) {
+                val client = config.getClients().findClient(profile.getClientName());
+                if (client.isPresent()) {
+                    try {
+                        val newProfile = client.get().renewUserProfileInBackground(new CallContext(context, sessionStore), profile);
+                        if (newProfile.isPresent()) {
+                            LOGGER.debug("Renewed in background by profile: {}", newProfile);
+                            profilesUpdated = true;
+                            entry.setValue(newProfile.get());
+                        }
+                    } catch (final RuntimeException e) {
+                        logger.error("Unable to renew in background the user profile for key: {}", key, e);
+                    }
+                }
             }
         }
         if (profilesUpdated) {
@@ -155,14 +223,41 @@ public class ProfileManager {
      */
     public void removeProfiles() {
         val sessionExists = sessionStore.getSessionId(context, false).isPresent();
+        if (config != null) {
+            val profiles = new LinkedHashMap<String, UserProfile>();
+            this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES)
+                .ifPresent(requestAttribute -> profiles.putAll((Map<String, UserProfile>) requestAttribute));
+            if (sessionExists) {
+                profiles.putAll(retrieveSessionProfiles());
+            }
+            forEachClient(profiles.values(),
+                (client, profile) -> client.releaseUserProfile(new CallContext(context, sessionStore), profile));
+        }
         if (sessionExists) {
             LOGGER.debug("Removing profiles from session");
-            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
+            saveSessionProfiles(new LinkedHashMap<>());
         }
         LOGGER.debug("Removing profiles from request");
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
     }
 
+    /**
+     * Call an action for each profile having a client (if the config is defined).
+     *
+     * @param profiles the profiles
+     * @param action the action
+     */
+    protected void forEachClient(final Collection<UserProfile> profiles, final BiConsumer<Client, UserProfile> action) {
+        if (config == null || config.getClients() == null) {
+            return;
+        }
+        for (val profile : profiles) {
+            if (profile.getClientName() != null) {
+                config.getClients().findClient(profile.getClientName()).ifPresent(client -> action.accept(client, profile));
+            }
+        }
+    }
+
     /**
      * Save the given user profile (replace the current one if multi profiles are not supported, add it otherwise).
      *
@@ -207,8 +302,7 @@ public class ProfileManager {
      */
     protected void saveAll(LinkedHashMap<String, UserProfile> profiles, final boolean saveInSession) {
         if (saveInSession) {
-            LOGGER.debug("Saving profiles (session): {}", profiles);
-            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, profiles);
+            saveSessionProfiles(profiles);
         }
         LOGGER.debug("Saving profiles (request): {}", profiles);
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, profiles);
@@ -227,4 +321,35 @@ public class ProfileManager {
             throw new TechnicalException(e);
         }
     }
+
+    /**
+     * The profiles read from or saved into the session, along with their hash code to detect profiles updated in place
+     * and the identifier of the session they belong to.
+     *
+     * @param profiles the profiles
+     * @param hash the hash code of the profiles when read or saved
+     * @param sessionId the session identifier (<code>null</code> if there is no session)
+     */
+    protected record SessionProfiles(Map<String, UserProfile> profiles, int hash, String sessionId) {
+
+        /**
+         * <p>Constructor for SessionProfiles.</p>
+         *
+         * @param profiles the profiles
+         * @param sessionId the session identifier
+         */
+        public SessionProfiles(final Map<String, UserProfile> profiles, final String sessionId) {
+            this(profiles, profiles.hashCode(), sessionId);
+        }
+
+        /**
+         * Whether the given profiles are the same as these ones (and have not been updated since).
+         *
+         * @param otherProfiles the other profiles
+         * @return whether they are the same
+         */
+        public boolean isSameAs(final Map<String, UserProfile> otherProfiles) {
+            return hash == otherProfiles.hashCode() && hash == profiles.hashCode() && profiles.equals(otherProfiles);
+        }
+    }
 }
@@ -168,6 +168,16 @@ public interface UserProfile extends Serializable {
      */
     boolean isExpired();
 
+    /**
+     * Whether the profile is not expired yet but should already be renewed in the background
+     * (see {@link org.pac4j.core.client.Client#renewUserProfileInBackground}).
+     *
+     * @return a boolean
+     */
+    default boolean isRenewalDue() {
+        return false;
+    }
+
     /**
      * <p>asPrincipal.</p>
      *
@@ -8,6 +8,11 @@ import org.pac4j.core.util.InitializableObject;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
@@ -16,6 +21,10 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * A loader based on a Spring Resource.
  *
+ * By default, the changes of the resource are checked (and the resource reloaded) by the requesting thread.
+ * With the <code>backgroundRefresh</code> option, they are checked and reloaded on a scheduled thread:
+ * the current value keeps being served while the refresh is running or if it fails.
+ *
  * @author Jerome LELEU
  * @since 6.0.0
  */
@@ -24,6 +33,13 @@ import java.util.concurrent.locks.ReentrantLock;
 public abstract class SpringResourceLoader<M> extends InitializableObject {
     private static final long NO_LAST_MODIFIED = -1;
     private static final long DEFAULT_MINIMUM_DELAY_BETWEEN_CHANGE_DETECTION_IN_MILLISECONDS = 60_000;
+    private static final long MINIMUM_BACKGROUND_REFRESH_DELAY_IN_MILLISECONDS = 1_000;
+
+    private static final ScheduledExecutorService DEFAULT_REFRESH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        val thread = new Thread(r, "pac4j-resource-loader-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final Lock lock = new ReentrantLock();
     private final AtomicBoolean byteArrayHasChanged = new AtomicBoolean(true);
@@ -32,13 +48,33 @@ public abstract class SpringResourceLoader<M> extends InitializableObject {
 
     protected final Resource resource;
 
-    protected M loaded;
+    protected volatile M loaded;
     private volatile long minimumDelayBetweenChangeDetectionInMilliseconds = DEFAULT_MINIMUM_DELAY_BETWEEN_CHANGE_DETECTION_IN_MILLISECONDS;
 
+    private volatile boolean backgroundRefresh;
+    private volatile ScheduledExecutorService refreshScheduler = DEFAULT_REFRESH_SCHEDULER;
+    private volatile boolean hasLoaded;
+    private volatile ScheduledFuture<?> refreshTask;
+
     /** {@inheritDoc} */
     protected final void internalInit(final boolean forceReinit) {
-        internalLoad();
-        hasChanged();
+        doLoad();
+        if (isChangeDetectedOnInit()) {
+            hasChanged();
+        } else {
+            // the changes are checked after the minimum delay (or by the subclass)
+            lastTimeCheckedForChanges.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Whether the last modification of the resource is read right after its initial load (to detect its next changes).
+     * It may be a blocking request (like for a URL resource): a subclass may skip it and check the changes later.
+     *
+     * @return whether the changes are detected on init
+     */
+    protected boolean isChangeDetectedOnInit() {
+        return true;
     }
 
     /**
@@ -47,18 +83,101 @@ public abstract class SpringResourceLoader<M> extends InitializableObject {
      * @return a M object
      */
     public final M load() {
+        if (backgroundRefresh && hasLoaded) {
+            scheduleBackgroundRefresh();
+            return loaded;
+        }
         if (lock.tryLock()) {
             try {
                 if (shouldCheckForChanges() && hasChanged()) {
-                    internalLoad();
+                    doLoad();
                 }
             } finally {
                 lock.unlock();
             }
         }
+        if (backgroundRefresh) {
+            scheduleBackgroundRefresh();
+        }
         return loaded;
     }
 
+    private void doLoad() {
+        try {
+            internalLoad();
+            hasLoaded = true;
+        } catch (final RuntimeException e) {
+            // the resource must be reloaded on the next change detection
+            lastModified.set(NO_LAST_MODIFIED);
+            throw e;
+        }
+    }
+
+    private void scheduleBackgroundRefresh() {
+        // fast path: the refresh is already scheduled
+        if (refreshTask != null) {
+            return;
+        }
+        synchronized (this) {
+            if (refreshTask == null) {
+                val delay = Math.max(minimumDelayBetweenChangeDetectionInMilliseconds, MINIMUM_BACKGROUND_REFRESH_DELAY_IN_MILLISECONDS);
+                // the scheduled task must not prevent a discarded loader from being garbage collected
+                val loaderReference = new WeakReference<SpringResourceLoader<M>>(this);
+                refreshTask = refreshScheduler.scheduleWithFixedDelay(() -> {
+                    val loader = loaderReference.get();
+                    if (loader == null) {
+                        // a failing execution cancels the subsequent ones
+                        throw new IllegalStateException("Resource loader garbage collected: stopping its background refresh");
+                    }
+                    loader.refreshInBackground();
+                }, delay, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Check for changes and reload the resource if it has changed. The current value is kept if the reload fails.
+     */
+    protected void refreshInBackground() {
+        refreshInBackground(false);
+    }
+
+    /**
+     * Reload the resource, whether it has changed or not (like when its changes are detected by other means),
+     * and read its last modification. The current value is kept if the reload fails.
+     */
+    protected void reloadInBackground() {
+        refreshInBackground(true);
+    }
+
+    private void refreshInBackground(final boolean force) {
+        lock.lock();
+        try {
+            if (force) {
+                LOGGER.debug("Reloading resource in background: {}", resource);
+                doLoad();
+                hasChanged();
+            } else if (hasChanged()) {
+                LOGGER.debug("Reloading resource in background: {}", resource);
+                doLoad();
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Cannot reload resource: {}, keeping the current value", resource, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the background refresh of the resource (if it was started).
+     */
+    public synchronized void stopBackgroundRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+    }
+
     /**
      * <p>hasChanged.</p>
      *
@@ -66,6 +185,15 @@ public abstract class SpringResourceLoader<M> extends InitializableObject {
      */
     public boolean hasChanged() {
         lastTimeCheckedForChanges.set(System.currentTimeMillis());
+        return hasResourceChanged();
+    }
+
+    /**
+     * Check whether the resource has changed since the last check.
+     *
+     * @return a boolean
+     */
+    protected boolean hasResourceChanged() {
         if (resource != null) {
             if (resource instanceof ByteArrayResource) {
                 return byteArrayHasChanged.getAndSet(false);
@@ -127,4 +255,44 @@ public abstract class SpringResourceLoader<M> extends InitializableObject {
             "minimumDelayBetweenChangeDetectionInMilliseconds must be greater than or equal to zero");
         this.minimumDelayBetweenChangeDetectionInMilliseconds = minimumDelayBetweenChangeDetectionInMilliseconds;
     }
+
+    /**
+     * <p>Getter for the field <code>backgroundRefresh</code>.</p>
+     *
+     * @return a boolean
+     */
+    public boolean isBackgroundRefresh() {
+        return backgroundRefresh;
+    }
+
+    /**
+     * Define whether the changes are checked and the resource reloaded in the background (instead of by the requesting thread).
+     *
+     * @param backgroundRefresh a boolean
+     */
+    public void setBackgroundRefresh(final boolean backgroundRefresh) {
+        this.backgroundRefresh = backgroundRefresh;
+        if (!backgroundRefresh) {
+            stopBackgroundRefresh();
+        }
+    }
+
+    /**
+     * <p>Getter for the field <code>refreshScheduler</code>.</p>
+     *
+     * @return a {@link ScheduledExecutorService} object
+     */
+    public ScheduledExecutorService getRefreshScheduler() {
+        return refreshScheduler;
+    }
+
+    /**
+     * <p>Setter for the field <code>refreshScheduler</code>.</p>
+     *
+     * @param refreshScheduler a {@link ScheduledExecutorService} object
+     */
+    public void setRefreshScheduler(final ScheduledExecutorService refreshScheduler) {
+        CommonHelper.assertNotNull("refreshScheduler", refreshScheduler);
+        this.refreshScheduler = refreshScheduler;
+    }
 }
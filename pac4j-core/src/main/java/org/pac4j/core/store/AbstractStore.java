@@ -40,6 +40,27 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean setIfAbsent(final K key, final O value) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("value", value);
+        init();
+
+        return internalSetIfAbsent(key, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean replace(final K key, final O expectedValue, final O newValue) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("expectedValue", expectedValue);
+        CommonHelper.assertNotNull("newValue", newValue);
+        init();
+
+        return internalReplace(key, expectedValue, newValue);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void remove(final K key) {
@@ -65,6 +86,37 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
      */
     protected abstract void internalSet(final K key, final O value);
 
+    /**
+     * Set the value unless a value is already associated to the key: not atomic, to be overridden.
+     *
+     * @param key a K object
+     * @param value a O object
+     * @return whether the value has been set
+     */
+    protected boolean internalSetIfAbsent(final K key, final O value) {
+        if (internalGet(key).isPresent()) {
+            return false;
+        }
+        internalSet(key, value);
+        return true;
+    }
+
+    /**
+     * Replace the value if it is equal to the expected value: not atomic, to be overridden.
+     *
+     * @param key a K object
+     * @param expectedValue a O object
+     * @param newValue a O object
+     * @return whether the value has been replaced
+     */
+    protected boolean internalReplace(final K key, final O expectedValue, final O newValue) {
+        if (!internalGet(key).map(expectedValue::equals).orElse(false)) {
+            return false;
+        }
+        internalSet(key, newValue);
+        return true;
+    }
+
     /**
      * <p>internalRemove.</p>
      *
@@ -77,6 +77,18 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
         cache.put(key, value);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected boolean internalSetIfAbsent(final K key, final O value) {
+        return cache.asMap().putIfAbsent(key, value) == null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean internalReplace(final K key, final O expectedValue, final O newValue) {
+        return cache.asMap().replace(key, expectedValue, newValue);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void internalRemove(final K key) {
@@ -26,6 +26,45 @@ public interface Store<K, O> {
      */
     void set(K key, O value);
 
+    /**
+     * Set a value by its key unless a value is already associated to the key.
+     *
+     * This default implementation is not atomic: the stores shared by several nodes must override it
+     * with an atomic operation of the underlying storage.
+     *
+     * @param key the key
+     * @param value the value
+     * @return whether the value has been set
+     * @since 6.5.0
+     */
+    default boolean setIfAbsent(final K key, final O value) {
+        if (get(key).isPresent()) {
+            return false;
+        }
+        set(key, value);
+        return true;
+    }
+
+    /**
+     * Replace the value associated to the key only if it is (still) equal to the expected value.
+     *
+     * This default implementation is not atomic: the stores shared by several nodes must override it
+     * with an atomic operation of the underlying storage.
+     *
+     * @param key the key
+     * @param expectedValue the expected current value
+     * @param newValue the new value
+     * @return whether the value has been replaced
+     * @since 6.5.0
+     */
+    default boolean replace(final K key, final O expectedValue, final O newValue) {
+        if (!get(key).map(expectedValue::equals).orElse(false)) {
+            return false;
+        }
+        set(key, newValue);
+        return true;
+    }
+
     /**
      * Remove the value associated to the key.
      *
@@ -10,7 +10,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * This class gathers all the utilities methods.
@@ -157,6 +161,41 @@ public final class CommonHelper {
         return builder.substring(0, size);
     }
 
+    /**
+     * Compute the SHA-256 digest of a text, encoded in base64url (without padding): typically to key a cache by a token
+     * without storing the token itself.
+     *
+     * @param text the text
+     * @return the encoded digest
+     */
+    public static String sha256Base64Url(final String text) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Wait for the result of a future, rethrowing the runtime exception it has completed with
+     * (the other exceptions are wrapped in a {@link TechnicalException}).
+     *
+     * @param future the future
+     * @param <T> the type of the result
+     * @return the result
+     */
+    public static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new TechnicalException(e.getCause());
+        }
+    }
+
     /**
      * Copy a date.
      *
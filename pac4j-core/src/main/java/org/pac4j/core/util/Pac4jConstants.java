@@ -16,6 +16,10 @@ public interface Pac4jConstants {
     /** Constant <code>USER_PROFILES="pac4jUserProfiles"</code> */
     String USER_PROFILES = "pac4jUserProfiles";
 
+    /* User profiles read from or saved into the session during the current request (request attribute) */
+    /** Constant <code>SESSION_USER_PROFILES="pac4jSessionUserProfiles"</code> */
+    String SESSION_USER_PROFILES = "pac4jSessionUserProfiles";
+
     /* CSRF token name saved in session */
     /** Constant <code>PREVIOUS_CSRF_TOKEN="pac4jPreviousCsrfToken"</code> */
     String PREVIOUS_CSRF_TOKEN = "pac4jPreviousCsrfToken";
@@ -0,0 +1,79 @@
+package org.pac4j.core.util;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable result of the resolution of some names (like <code>"csrfToken,admin"</code>)
+ * against a map of named elements (like the matchers or authorizers of the configuration).
+ *
+ * It remains valid as long as the map is the same and none of its entries has been added, replaced or removed (an identity
+ * snapshot of the entries is kept: a same-size change of the map, even of an unused entry, invalidates the resolution).
+ *
+ * @param <T> the type of the elements
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class ResolvedElements<T> {
+
+    private final Map<String, T> map;
+
+    private final int size;
+
+    private final String[] keys;
+
+    private final Object[] values;
+
+    @Getter
+    @ToString.Include
+    private final List<T> elements;
+
+    /**
+     * <p>Constructor for ResolvedElements.</p>
+     *
+     * @param map the map of named elements used for the resolution
+     * @param elements the resolved elements
+     */
+    public ResolvedElements(final Map<String, T> map, final List<T> elements) {
+        CommonHelper.assertNotNull("map", map);
+        CommonHelper.assertNotNull("elements", elements);
+        this.map = map;
+        this.size = map.size();
+        this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+
+        // an added entry (like one overriding a default element) may change the resolution: all entries are snapshot
+        final List<String> snapshotKeys = new ArrayList<>(size);
+        final List<Object> snapshotValues = new ArrayList<>(size);
+        for (val entry : map.entrySet()) {
+            snapshotKeys.add(entry.getKey());
+            snapshotValues.add(entry.getValue());
+        }
+        this.keys = snapshotKeys.toArray(new String[0]);
+        this.values = snapshotValues.toArray();
+    }
+
+    /**
+     * Whether this resolution is still valid for the given map.
+     *
+     * @param map the current map of named elements
+     * @return whether the resolved elements can be reused
+     */
+    public boolean isValidFor(final Map<String, T> map) {
+        if (map != this.map || map.size() != size || keys.length != size) {
+            return false;
+        }
+        for (var i = 0; i < keys.length; i++) {
+            if (map.get(keys[i]) != values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package org.pac4j.core.authorization.authorizer;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.test.context.MockWebContext;
+import org.pac4j.test.context.session.MockSessionStore;
+import org.pac4j.test.util.TestsConstants;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link HmacCsrfAuthorizer}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class HmacCsrfAuthorizerTests implements TestsConstants {
+
+    private HmacCsrfTokenGenerator generator;
+
+    private HmacCsrfAuthorizer authorizer;
+
+    private SessionStore sessionStore;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        generator = new HmacCsrfTokenGenerator(SALT + SALT);
+        authorizer = new HmacCsrfAuthorizer(generator);
+        sessionStore = new MockSessionStore();
+        token = generator.get(MockWebContext.create(), sessionStore);
+    }
+
+    @Test
+    public void testParameterOk() {
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testHeaderOk() {
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestHeader(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testBadToken() {
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.CSRF_TOKEN, VALUE);
+        assertFalse(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testNoToken() {
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name());
+        assertFalse(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testGetNotChecked() {
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.GET.name());
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+    }
+}
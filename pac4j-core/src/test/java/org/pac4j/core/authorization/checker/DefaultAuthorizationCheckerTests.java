@@ -111,6 +111,18 @@ public final class DefaultAuthorizationCheckerTests implements TestsConstants {
         assertTrue(checker.isAuthorized(null, new MockSessionStore(), profiles, NAME, authorizers, new ArrayList<>()));
     }
 
+    @Test
+    public void testAuthorizerReplacedAfterResolution() {
+        val localChecker = new DefaultAuthorizationChecker();
+        profile.setId(VALUE);
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, new IdAuthorizer());
+        assertTrue(localChecker.isAuthorized(null, new MockSessionStore(), profiles, NAME, authorizers, new ArrayList<>()));
+        assertTrue(localChecker.isAuthorized(null, new MockSessionStore(), profiles, NAME, authorizers, new ArrayList<>()));
+        authorizers.put(NAME, new RequireAnyRoleAuthorizer(ROLE));
+        assertFalse(localChecker.isAuthorized(null, new MockSessionStore(), profiles, NAME, authorizers, new ArrayList<>()));
+    }
+
     @Test
     public void testOneExistingAuthorizerProfileDoesNotMatch() {
         internalTestOneExistingAuthorizerProfileDoesNotMatch(NAME);
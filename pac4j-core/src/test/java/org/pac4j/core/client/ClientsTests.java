@@ -193,6 +193,97 @@ public final class ClientsTests implements TestsConstants {
         assertTrue(fclient.getCallbackUrlResolver() instanceof NoParameterCallbackUrlResolver);
     }
 
+    @Test
+    public void testAddClientAfterInit() {
+        val facebookClient = newFacebookClient();
+        val yahooClient = newYahooClient();
+        val clients = new Clients(CALLBACK_URL, facebookClient);
+        clients.findAllClients();
+        val version = clients.getVersion();
+        clients.addClient(yahooClient);
+        assertTrue(clients.getVersion() > version);
+        assertEquals(yahooClient, clients.findClient("yahooclient").get());
+        assertEquals(CALLBACK_URL, yahooClient.getCallbackUrl());
+        assertEquals(2, clients.findAllClients().size());
+    }
+
+    @Test
+    public void rejectSameNameOnAddClientAfterInit() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.findAllClients();
+        TestsHelper.expectException(() -> clients.addClient(newFacebookClient()),
+            TechnicalException.class, "Duplicate name in clients: FacebookClient");
+        assertEquals(1, clients.findAllClients().size());
+    }
+
+    @Test
+    public void testRemoveClient() {
+        val facebookClient = newFacebookClient();
+        val yahooClient = newYahooClient();
+        val clients = new Clients(CALLBACK_URL, facebookClient, yahooClient);
+        val version = clients.getVersion();
+        assertEquals(facebookClient, clients.removeClient(" FACEBOOKClient").get());
+        assertTrue(clients.getVersion() > version);
+        assertTrue(clients.findClient("FacebookClient").isEmpty());
+        assertEquals(List.of(yahooClient), clients.findAllClients());
+        assertTrue(clients.removeClient("FacebookClient").isEmpty());
+    }
+
+    @Test
+    public void testSameSizeReplacement() {
+        val facebookClient = newFacebookClient();
+        val yahooClient = newYahooClient();
+        val clients = new Clients(CALLBACK_URL, facebookClient);
+        assertEquals(facebookClient, clients.findClient("FacebookClient").get());
+        val version = clients.getVersion();
+        clients.getClients().set(0, yahooClient);
+        assertTrue(clients.getVersion() > version);
+        assertTrue(clients.findClient("FacebookClient").isEmpty());
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+        clients.getClients().remove(yahooClient);
+        clients.getClients().add(facebookClient);
+        assertTrue(clients.findClient("YahooClient").isEmpty());
+        assertEquals(facebookClient, clients.findClient("FacebookClient").get());
+    }
+
+    @Test
+    public void testOriginalListKept() {
+        val facebookClient = newFacebookClient();
+        final List<Client> list = new ArrayList<>();
+        list.add(facebookClient);
+        val clients = new Clients(CALLBACK_URL, list);
+        clients.findAllClients();
+        val yahooClient = newYahooClient();
+        list.add(yahooClient);
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+        clients.addClient(new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile()));
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    public void testSameSizeReplacementInOriginalList() {
+        val facebookClient = newFacebookClient();
+        final List<Client> list = new ArrayList<>();
+        list.add(facebookClient);
+        val clients = new Clients(CALLBACK_URL, list);
+        assertEquals(facebookClient, clients.findClient("FacebookClient").get());
+        val yahooClient = newYahooClient();
+        list.set(0, yahooClient);
+        assertTrue(clients.findClient("FacebookClient").isEmpty());
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+    }
+
+    @Test
+    public void testNoReindexAfterAddAndRemove() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.findAllClients();
+        clients.addClient(newYahooClient());
+        val clientsMap = clients.getClientsMap();
+        clients.removeClient("FacebookClient");
+        clients.findClient("YahooClient");
+        assertSame(clientsMap, clients.getClientsMap());
+    }
+
     @Test
     @Disabled
     public void testPerfFind() {
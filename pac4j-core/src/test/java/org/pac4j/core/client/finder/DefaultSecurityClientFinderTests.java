@@ -225,4 +225,21 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
         val result = finder.find(clients, MockWebContext.create(), EMPTY_STRING);
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    @DisplayName("Should find the new client when the clients are updated")
+    public void testClientAddedAfterResolution() {
+        val client1 =
+            new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        val clients = new Clients(client1);
+        val names = NAME + ELEMENT_SEPARATOR + MY_CLIENT_NAME;
+        assertEquals(1, finder.find(clients, MockWebContext.create(), names).size());
+        val client2 =
+            new MockIndirectClient(MY_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        clients.addClient(client2);
+        val result = finder.find(clients, MockWebContext.create(), names);
+        assertEquals(2, result.size());
+        assertEquals(client1, result.get(0));
+        assertEquals(client2, result.get(1));
+    }
 }
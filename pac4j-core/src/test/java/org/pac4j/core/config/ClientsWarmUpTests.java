@@ -0,0 +1,116 @@
+package org.pac4j.core.config;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.client.DirectClient;
+import org.pac4j.core.client.MockDirectClient;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.test.util.TestsConstants;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ClientsWarmUp}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class ClientsWarmUpTests implements TestsConstants {
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Test
+    public void testAllClientsReady() {
+        val config = new Config(CALLBACK_URL, new MockIndirectClient(NAME), new MockDirectClient(VALUE));
+        val warmUp = new ClientsWarmUp();
+        assertFalse(warmUp.isReady());
+
+        val result = config.warmUp(warmUp);
+
+        assertTrue(result.isReady());
+        assertTrue(warmUp.isReady());
+        assertEquals(2, result.getClientResults().size());
+        assertEquals(WarmUpResult.Status.READY, result.getClientResults().get(NAME).status());
+        assertTrue(((MockIndirectClient) config.getClients().findClient(NAME).get()).isInitialized());
+    }
+
+    @Test
+    public void testFailedClient() {
+        val config = new Config(CALLBACK_URL, new MockIndirectClient(NAME), new SlowClient(FAKE_VALUE, 0, false));
+
+        val result = config.warmUp();
+
+        assertFalse(result.isReady());
+        assertEquals(WarmUpResult.Status.READY, result.getClientResults().get(NAME).status());
+        val failedResult = result.getClientResults().get(FAKE_VALUE);
+        assertEquals(WarmUpResult.Status.FAILED, failedResult.status());
+        assertNotNull(failedResult.error());
+        assertEquals(1, result.getNotReadyClients().size());
+    }
+
+    @Test
+    public void testTimedOutClientReadyLater() throws InterruptedException {
+        val slowClient = new SlowClient(FAKE_VALUE, 500, true);
+        val config = new Config(CALLBACK_URL, new MockIndirectClient(NAME), slowClient);
+        val warmUp = new ClientsWarmUp();
+        warmUp.setClientTimeoutInMilliseconds(100);
+
+        val result = config.warmUp(warmUp);
+
+        assertFalse(result.isReady());
+        assertEquals(WarmUpResult.Status.TIMED_OUT, result.getClientResults().get(FAKE_VALUE).status());
+        assertFalse(warmUp.isReady());
+        for (var i = 0; i < 50 && !slowClient.isInitialized(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(warmUp.isReady());
+    }
+
+    @Test
+    public void testClientsInitializedConcurrently() {
+        val config = new Config(CALLBACK_URL, new SlowClient("c1", 300, true), new SlowClient("c2", 300, true),
+            new SlowClient("c3", 300, true), new SlowClient("c4", 300, true), new SlowClient("c5", 300, true));
+        val warmUp = new ClientsWarmUp();
+        warmUp.setParallelism(2);
+
+        val result = config.warmUp(warmUp);
+
+        assertTrue(result.isReady());
+        assertEquals(5, result.getClientResults().size());
+        assertEquals(2, maxRunning.get());
+    }
+
+    private final class SlowClient extends DirectClient {
+
+        private final long duration;
+
+        private final boolean success;
+
+        private SlowClient(final String name, final long duration, final boolean success) {
+            setName(name);
+            this.duration = duration;
+            this.success = success;
+        }
+
+        @Override
+        protected void internalInit(final boolean forceReinit) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(duration);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            if (success) {
+                setCredentialsExtractorIfUndefined(ctx -> Optional.empty());
+                setAuthenticatorIfUndefined((ctx, cred) -> Optional.of(cred));
+            }
+        }
+    }
+}
@@ -4,13 +4,20 @@ import lombok.val;
 import org.junit.jupiter.api.Test;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.credentials.UsernamePasswordCredentials;
 import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.UserProfile;
+import org.pac4j.test.context.MockWebContext;
+import org.pac4j.test.context.session.MockSessionStore;
 
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,6 +56,35 @@ public class LocalCachingAuthenticatorTests {
         }
     }
 
+    private static class CountingAuthenticator implements Authenticator {
+
+        private final AtomicInteger nbCalls = new AtomicInteger();
+
+        private volatile boolean fail;
+
+        private volatile CallContext lastContext;
+
+        @Override
+        public Optional<Credentials> validate(final CallContext ctx, final Credentials credentials) {
+            nbCalls.incrementAndGet();
+            lastContext = ctx;
+            if (fail) {
+                throw new CredentialsException("fail");
+            }
+            UserProfile profile = new CommonProfile();
+            profile.setId(String.valueOf(nbCalls.get()));
+            credentials.setUserProfile(profile);
+            return Optional.of(credentials);
+        }
+    }
+
+    private static class OtherTokenCredentials extends TokenCredentials {
+
+        OtherTokenCredentials() {
+            super("token");
+        }
+    }
+
     private final Authenticator delegate = new SimpleUPAuthenticator();
 
     private final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("a", "a");
@@ -138,6 +174,166 @@ public class LocalCachingAuthenticatorTests {
         assertFalse(authenticator.isCached(this.credentials));
     }
 
+    @Test
+    public void testTokenCredentialsCached() {
+        val counting = new CountingAuthenticator();
+        val authenticator = new LocalCachingAuthenticator(counting, 10, 10, TimeUnit.SECONDS);
+
+        authenticator.validate(null, new TokenCredentials("token"));
+        val credentials2 = new TokenCredentials("token");
+        authenticator.validate(null, credentials2);
+        assertEquals(1, counting.nbCalls.get());
+        assertEquals("1", credentials2.getUserProfile().getId());
+    }
+
+    @Test
+    public void testConcurrentValidationsCoalesced() throws Exception {
+        val started = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val nbCalls = new AtomicInteger();
+        final Authenticator blocking = (ctx, credentials) -> {
+            nbCalls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            val profile = new CommonProfile();
+            profile.setId("jle");
+            credentials.setUserProfile(profile);
+            return Optional.of(credentials);
+        };
+        val authenticator = new LocalCachingAuthenticator(blocking, 10, 10, TimeUnit.SECONDS);
+        authenticator.init();
+
+        val executor = Executors.newFixedThreadPool(2);
+        try {
+            val credentials1 = new TokenCredentials("token");
+            val credentials2 = new TokenCredentials("token");
+            val future1 = executor.submit(() -> authenticator.validate(null, credentials1));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            val future2 = executor.submit(() -> authenticator.validate(null, credentials2));
+            Thread.sleep(200);
+            release.countDown();
+            future1.get(5, TimeUnit.SECONDS);
+            future2.get(5, TimeUnit.SECONDS);
+            assertEquals(1, nbCalls.get());
+            assertEquals("jle", credentials1.getUserProfile().getId());
+            assertEquals("jle", credentials2.getUserProfile().getId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureCached() {
+        val counting = new CountingAuthenticator();
+        counting.fail = true;
+        val authenticator = new LocalCachingAuthenticator(counting, 10, 10, TimeUnit.SECONDS);
+        authenticator.setFailureTimeout(10);
+
+        val e1 = assertThrows(CredentialsException.class, () -> authenticator.validate(null, new TokenCredentials("token")));
+        val e2 = assertThrows(CredentialsException.class, () -> authenticator.validate(null, new TokenCredentials("token")));
+        assertEquals(1, counting.nbCalls.get());
+        assertNotSame(e1, e2);
+        assertEquals("fail", e2.getMessage());
+        assertFalse(authenticator.isCached(new TokenCredentials("token")));
+
+        authenticator.removeFromCache(new TokenCredentials("token"));
+        counting.fail = false;
+        authenticator.validate(null, new TokenCredentials("token"));
+        assertEquals(2, counting.nbCalls.get());
+        assertTrue(authenticator.isCached(new TokenCredentials("token")));
+    }
+
+    @Test
+    public void testNoCachingWithoutSerializer() {
+        val counting = new CountingAuthenticator();
+        val authenticator = new LocalCachingAuthenticator(counting, 10, 10, TimeUnit.SECONDS);
+        authenticator.setSerializer(null);
+
+        val credentials = new OtherTokenCredentials();
+        authenticator.validate(null, credentials);
+        assertNotNull(credentials.getUserProfile());
+        authenticator.validate(null, new OtherTokenCredentials());
+        assertEquals(2, counting.nbCalls.get());
+        assertFalse(authenticator.isCached(new OtherTokenCredentials()));
+    }
+
+    @Test
+    public void testFailureNotCachedByDefault() {
+        val counting = new CountingAuthenticator();
+        counting.fail = true;
+        val authenticator = new LocalCachingAuthenticator(counting, 10, 10, TimeUnit.SECONDS);
+
+        assertThrows(CredentialsException.class, () -> authenticator.validate(null, new TokenCredentials("token")));
+        assertThrows(CredentialsException.class, () -> authenticator.validate(null, new TokenCredentials("token")));
+        assertEquals(2, counting.nbCalls.get());
+    }
+
+    @Test
+    public void testRefreshAhead() throws InterruptedException {
+        val counting = new CountingAuthenticator();
+        val authenticator = new LocalCachingAuthenticator(counting, 10, 10, TimeUnit.SECONDS);
+        authenticator.setRefreshAfter(1);
+        authenticator.setRefreshExecutor(Runnable::run);
+
+        authenticator.validate(null, new TokenCredentials("token"));
+        authenticator.validate(null, new TokenCredentials("token"));
+        assertEquals(1, counting.nbCalls.get());
+
+        Thread.sleep(1100);
+        val credentials = new TokenCredentials("token");
+        authenticator.validate(new CallContext(MockWebContext.create(), new MockSessionStore()), credentials);
+        assertEquals("1", credentials.getUserProfile().getId());
+        assertEquals(2, counting.nbCalls.get());
+        // the request context is not used after the request
+        assertNull(counting.lastContext);
+
+        val credentials2 = new TokenCredentials("token");
+        authenticator.validate(null, credentials2);
+        assertEquals("2", credentials2.getUserProfile().getId());
+        assertEquals(2, counting.nbCalls.get());
+    }
+
+    @Test
+    public void testRefreshAheadRevokes() throws InterruptedException {
+        val counting = new CountingAuthenticator();
+        val authenticator = new LocalCachingAuthenticator(counting, 10, 10, TimeUnit.SECONDS);
+        authenticator.setRefreshAfter(1);
+        authenticator.setRefreshExecutor(Runnable::run);
+
+        authenticator.validate(null, new TokenCredentials("token"));
+        Thread.sleep(1100);
+        counting.fail = true;
+        authenticator.validate(null, new TokenCredentials("token"));
+        assertFalse(authenticator.isCached(new TokenCredentials("token")));
+    }
+
+    @Test
+    public void testRefreshAfterLowerThanTimeout() {
+        val authenticator = new LocalCachingAuthenticator(delegate, 10, 10, TimeUnit.SECONDS);
+        assertThrows(TechnicalException.class, () -> authenticator.setRefreshAfter(10));
+        authenticator.setRefreshAfter(5);
+        assertThrows(TechnicalException.class, () -> authenticator.setTimeout(5));
+        authenticator.setTimeout(6);
+        assertEquals(6, authenticator.getTimeout());
+    }
+
+    @Test
+    public void testCacheKeyIsCopy() {
+        val authenticator = new LocalCachingAuthenticator(delegate, 10, 10, TimeUnit.SECONDS);
+        val tokenCredentials = new TokenCredentials("token");
+        tokenCredentials.setUserProfile(new CommonProfile());
+        val tokenKey = authenticator.newCacheKey(tokenCredentials);
+        assertNotSame(tokenCredentials, tokenKey);
+        assertEquals(new TokenCredentials("token"), tokenKey);
+        val key = authenticator.newCacheKey(credentials);
+        assertNotSame(credentials, key);
+        assertEquals(credentials, key);
+    }
+
     private static class ThrowingAuthenticator implements Authenticator {
 
         @Override
@@ -13,6 +13,10 @@ import org.pac4j.core.client.finder.DefaultCallbackClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.engine.metrics.InMemoryLogicMetricsListener;
+import org.pac4j.core.engine.metrics.LogicOutcome;
+import org.pac4j.core.engine.metrics.LogicPhase;
+import org.pac4j.core.engine.metrics.LogicType;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.exception.http.HttpAction;
@@ -136,6 +140,23 @@ public final class DefaultCallbackLogicTests implements TestsConstants {
         assertEquals(Pac4jConstants.DEFAULT_URL_VALUE, ((FoundAction) action).getLocation());
     }
 
+    @Test
+    public void testCallbackMetrics() {
+        val metrics = new InMemoryLogicMetricsListener();
+        logic.setMetricsListener(metrics);
+        context.addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, NAME);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        call();
+        assertEquals(302, action.getCode());
+        for (val phase : new LogicPhase[] {LogicPhase.CLIENT_FINDING, LogicPhase.CREDENTIALS_EXTRACTION, LogicPhase.CREDENTIALS_VALIDATION,
+            LogicPhase.PROFILE_CREATION, LogicPhase.PROFILE_SAVING, LogicPhase.REDIRECTION}) {
+            assertEquals(1, metrics.getCount(LogicType.CALLBACK, phase));
+        }
+        assertEquals(1, metrics.getCount(LogicType.CALLBACK, LogicOutcome.REDIRECT));
+        assertEquals(0, metrics.getCount(LogicType.SECURITY, LogicOutcome.REDIRECT));
+    }
+
     @Test
     public void testCallbackWithOriginallyRequestedUrl() {
         internalTestCallbackWithOriginallyRequestedUrl(302);
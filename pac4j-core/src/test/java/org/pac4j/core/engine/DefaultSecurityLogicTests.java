@@ -9,6 +9,10 @@ import org.pac4j.core.config.Config;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.engine.metrics.InMemoryLogicMetricsListener;
+import org.pac4j.core.engine.metrics.LogicOutcome;
+import org.pac4j.core.engine.metrics.LogicPhase;
+import org.pac4j.core.engine.metrics.LogicType;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.exception.http.HttpAction;
@@ -187,6 +191,60 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertEquals(403, action.getCode());
     }
 
+    @Test
+    public void testMetricsAlreadyAuthenticatedNotAuthorized() {
+        val metrics = new InMemoryLogicMetricsListener();
+        logic.setMetricsListener(metrics);
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, new CommonProfile());
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addAuthorizer(NAME, (context, store, prof) -> false);
+        call();
+        assertEquals(403, action.getCode());
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.CLIENT_FINDING));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.MATCHING));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.PROFILE_LOADING));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.AUTHORIZATION));
+        assertEquals(0, metrics.getCount(LogicType.SECURITY, LogicPhase.CREDENTIALS_EXTRACTION));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicOutcome.FORBIDDEN));
+        assertEquals(0, metrics.getCount(LogicType.SECURITY, LogicOutcome.GRANTED));
+    }
+
+    @Test
+    public void testMetricsDirectClientGranted() {
+        val metrics = new InMemoryLogicMetricsListener();
+        logic.setMetricsListener(metrics);
+        val profile = new CommonProfile();
+        profile.setId(NAME);
+        final DirectClient directClient = new MockDirectClient(NAME, Optional.of(new MockCredentials()), profile);
+        config.setClients(new Clients(CALLBACK_URL, directClient));
+        clients = NAME;
+        call();
+        assertEquals(1, nbCall);
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.CREDENTIALS_EXTRACTION));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.CREDENTIALS_VALIDATION));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.PROFILE_CREATION));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicPhase.PROFILE_SAVING));
+        assertEquals(2, metrics.getCount(LogicType.SECURITY, LogicPhase.PROFILE_LOADING));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicOutcome.GRANTED));
+    }
+
+    @Test
+    public void testMetricsDirectClientThrowsRequiresHttpAction() {
+        val metrics = new InMemoryLogicMetricsListener();
+        logic.setMetricsListener(metrics);
+        final DirectClient directClient = new MockDirectClient(NAME, () -> { throw new StatusAction(400); }, new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, directClient));
+        clients = NAME;
+        call();
+        assertEquals(400, action.getCode());
+        assertEquals(0, metrics.getCount(LogicType.SECURITY, LogicPhase.CREDENTIALS_EXTRACTION));
+        assertEquals(1, metrics.getCount(LogicType.SECURITY, LogicOutcome.OTHER_ACTION));
+    }
+
     @Test
     public void testAuthorizerThrowsRequiresHttpAction() {
         val profile = new CommonProfile();
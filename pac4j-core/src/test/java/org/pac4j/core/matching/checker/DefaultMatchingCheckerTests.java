@@ -119,6 +119,28 @@ public final class DefaultMatchingCheckerTests implements TestsConstants {
             NAME + Pac4jConstants.ELEMENT_SEPARATOR + VALUE, matchers, new ArrayList<>()));
     }
 
+    @Test
+    public void testMatcherReplacedAfterResolution() {
+        val localChecker = new DefaultMatchingChecker();
+        final Map<String, Matcher> matchers = new HashMap<>();
+        matchers.put(NAME, new NullContextMatcher());
+        val ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+        assertTrue(localChecker.matches(ctx, NAME, matchers, new ArrayList<>()));
+        assertTrue(localChecker.matches(ctx, NAME, matchers, new ArrayList<>()));
+        matchers.put(NAME, new AlwaysFalseMatcher());
+        assertFalse(localChecker.matches(ctx, NAME, matchers, new ArrayList<>()));
+    }
+
+    @Test
+    public void testDefaultMatcherOverriddenAfterResolution() {
+        val localChecker = new DefaultMatchingChecker();
+        final Map<String, Matcher> matchers = new HashMap<>();
+        val ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+        assertTrue(localChecker.matches(ctx, DefaultMatchers.GET, matchers, new ArrayList<>()));
+        matchers.put(DefaultMatchers.GET, new AlwaysFalseMatcher());
+        assertFalse(localChecker.matches(ctx, DefaultMatchers.GET, matchers, new ArrayList<>()));
+    }
+
     @Test
     public void testDefaultGetMatcher() {
         final Map<String, Matcher> matchers = new HashMap<>();
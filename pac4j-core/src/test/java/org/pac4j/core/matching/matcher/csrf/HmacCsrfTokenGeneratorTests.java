@@ -0,0 +1,94 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.test.context.MockWebContext;
+import org.pac4j.test.context.session.MockSessionStore;
+import org.pac4j.test.util.TestsConstants;
+import org.pac4j.test.util.TestsHelper;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+
+/**
+ * Tests {@link HmacCsrfTokenGenerator}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class HmacCsrfTokenGeneratorTests implements TestsConstants {
+
+    private long window;
+
+    private HmacCsrfTokenGenerator generator;
+
+    @BeforeEach
+    public void setUp() {
+        window = 1000;
+        generator = new HmacCsrfTokenGenerator(SALT + SALT) {
+            @Override
+            protected long currentWindow() {
+                return window;
+            }
+        };
+    }
+
+    @Test
+    public void testNoSessionWrite() {
+        final WebContext context = MockWebContext.create();
+        final SessionStore sessionStore = Mockito.spy(new MockSessionStore());
+        val token = generator.get(context, sessionStore);
+        assertNotNull(token);
+        assertEquals(token, generator.get(context, sessionStore));
+        assertTrue(generator.isValid(context, sessionStore, token));
+        Mockito.verify(sessionStore, Mockito.never()).set(any(), any(), any());
+    }
+
+    @Test
+    public void testPreviousWindow() {
+        final WebContext context = MockWebContext.create();
+        final SessionStore sessionStore = new MockSessionStore();
+        val token = generator.get(context, sessionStore);
+        window++;
+        val newToken = generator.get(context, sessionStore);
+        assertNotEquals(token, newToken);
+        assertTrue(generator.isValid(context, sessionStore, token));
+        assertTrue(generator.isValid(context, sessionStore, newToken));
+        window++;
+        assertFalse(generator.isValid(context, sessionStore, token));
+        assertTrue(generator.isValid(context, sessionStore, newToken));
+    }
+
+    @Test
+    public void testOtherSession() {
+        final WebContext context = MockWebContext.create();
+        val token = generator.get(context, new MockSessionStore());
+        final SessionStore otherSessionStore = Mockito.spy(new MockSessionStore());
+        Mockito.doReturn(Optional.of(ID)).when(otherSessionStore).getSessionId(any(), anyBoolean());
+        assertFalse(generator.isValid(context, otherSessionStore, token));
+        assertFalse(generator.isValid(context, new MockSessionStore(), token));
+    }
+
+    @Test
+    public void testOtherSecret() {
+        final WebContext context = MockWebContext.create();
+        final SessionStore sessionStore = new MockSessionStore();
+        val token = generator.get(context, sessionStore);
+        assertFalse(new HmacCsrfTokenGenerator(KEY).isValid(context, sessionStore, token));
+        assertFalse(generator.isValid(context, sessionStore, null));
+    }
+
+    @Test
+    public void testNoSecret() {
+        TestsHelper.expectException(() -> new HmacCsrfTokenGenerator().get(MockWebContext.create(), new MockSessionStore()),
+            TechnicalException.class, "secret cannot be blank");
+    }
+}
@@ -113,6 +113,51 @@ public final class ProfileManagerTests {
         assertEquals(profile2, profiles.get(CLIENT1));
     }
 
+    @Test
+    public void testRestoreAndReleaseProfilesByTheirClient() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        val client1 = Mockito.mock(BaseClient.class);
+        Mockito.when(client1.getName()).thenReturn(CLIENT1);
+        profileManager.setConfig(new Config(client1));
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertEquals(profile1, profileManager.getProfile().get());
+        // the profiles are restored once, when they are read from the session
+        Mockito.verify(client1, Mockito.times(1)).restoreUserProfile(any(), eq(profile1));
+
+        profileManager.removeProfiles();
+        Mockito.verify(client1).releaseUserProfile(any(), eq(profile1));
+        assertFalse(profileManager.getProfile().isPresent());
+    }
+
+    @Test
+    public void testGetOneProfileRenewedInBackgroundFromSession() {
+        profile1 = Mockito.mock(CommonProfile.class);
+        Mockito.when(profile1.getId()).thenReturn(ID1);
+        Mockito.when(profile1.getClientName()).thenReturn(CLIENT1);
+        Mockito.when(profile1.isRenewalDue()).thenReturn(true);
+        profiles.put(CLIENT1, profile1);
+        val client1 = Mockito.mock(BaseClient.class);
+        Mockito.when(client1.getName()).thenReturn(CLIENT1);
+        profileManager.setConfig(new Config(client1));
+        Mockito.when(client1.renewUserProfileInBackground(any(), eq(profile1))).thenReturn(Optional.empty());
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        // the renewal is in progress: the current profile is kept
+        assertEquals(profile1, profileManager.getProfile().get());
+        Mockito.verify(client1, Mockito.never()).renewUserProfile(any(), any());
+
+        Mockito.when(client1.renewUserProfileInBackground(any(), eq(profile1))).thenReturn(Optional.of(profile2));
+        val newContext = MockWebContext.create();
+        sessionStore = new MockSessionStore();
+        sessionStore.set(newContext, Pac4jConstants.USER_PROFILES, profiles);
+        profileManager = new ProfileManager(newContext, sessionStore);
+        profileManager.setConfig(new Config(client1));
+        assertEquals(profile2, profileManager.getProfile().get());
+        Map<String, UserProfile> profiles =
+            (LinkedHashMap<String, UserProfile>) sessionStore.get(newContext, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(profile2, profiles.get(CLIENT1));
+    }
+
     @Test
     public void testGetOneRenewedProfileFromSessionButNoConfig() {
         profile1 = Mockito.mock(CommonProfile.class);
@@ -319,4 +364,58 @@ public final class ProfileManagerTests {
         assertEquals(AnonymousProfile.INSTANCE, profileManager.getProfiles().get(0));
         assertFalse(profileManager.isAuthenticated());
     }
+
+    @Test
+    public void testSessionReadOncePerRequest() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        val spiedStore = Mockito.spy(sessionStore);
+        profileManager = new ProfileManager(context, spiedStore);
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertTrue(profileManager.isAuthenticated());
+        assertEquals(profile1, new ProfileManager(context, spiedStore).getProfiles().get(0));
+        Mockito.verify(spiedStore, Mockito.times(1)).get(context, Pac4jConstants.USER_PROFILES);
+
+        profileManager.save(true, profile2, true);
+        assertEquals(List.of(profile1, profile2), profileManager.getProfiles());
+        profileManager.removeProfiles();
+        assertTrue(profileManager.getProfiles().isEmpty());
+        assertTrue(new ProfileManager(MockWebContext.create(), sessionStore).getProfiles().isEmpty());
+        Mockito.verify(spiedStore, Mockito.times(1)).get(context, Pac4jConstants.USER_PROFILES);
+    }
+
+    @Test
+    public void testNoSessionWriteIfUnchanged() {
+        val spiedStore = Mockito.spy(sessionStore);
+        profileManager = new ProfileManager(context, spiedStore);
+        profileManager.save(true, profile1, false);
+        profileManager.save(true, profile1, false);
+        Mockito.verify(spiedStore, Mockito.times(1)).set(eq(context), eq(Pac4jConstants.USER_PROFILES), any());
+
+        profile1.addRole("admin");
+        profileManager.save(true, profile1, false);
+        Mockito.verify(spiedStore, Mockito.times(2)).set(eq(context), eq(Pac4jConstants.USER_PROFILES), any());
+    }
+
+    @Test
+    public void testSessionProfilesReadAgainWhenSessionChanges() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(List.of(profile1), profileManager.getProfiles());
+        // no more session: the profiles are read again
+        sessionStore.destroySession(context);
+        assertTrue(profileManager.getProfiles().isEmpty());
+    }
+
+    @Test
+    public void testInvalidateSessionProfiles() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(List.of(profile1), profileManager.getProfiles());
+        val newProfiles = new LinkedHashMap<String, UserProfile>();
+        newProfiles.put(CLIENT2, profile2);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, newProfiles);
+        ProfileManager.invalidateSessionProfiles(context);
+        assertEquals(List.of(profile2), profileManager.getProfiles());
+    }
 }
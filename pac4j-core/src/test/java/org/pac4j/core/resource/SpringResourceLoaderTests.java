@@ -6,8 +6,13 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.test.util.TestsConstants;
 import org.springframework.core.io.ClassPathResource;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests {@link SpringResourceLoader}.
@@ -52,10 +57,79 @@ public class SpringResourceLoaderTests implements TestsConstants {
         assertEquals(3, loader.getHasChangedCallCount());
     }
 
+    @Test
+    public void testBackgroundRefreshDoesNotCheckChangesOnRequests() {
+        val scheduler = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any());
+        val loader = new MockSpringResourceLoader();
+        loader.setMinimumDelayBetweenChangeDetectionInMilliseconds(0);
+        loader.setRefreshScheduler(scheduler);
+        loader.setBackgroundRefresh(true);
+        loader.load();
+        loader.load();
+        loader.load();
+        assertEquals("0", loader.getLoaded());
+        assertEquals(1, loader.getHasChangedCallCount());
+        verify(scheduler, times(1)).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(),
+            eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testBackgroundRefreshReloads() {
+        val loader = new MockSpringResourceLoader();
+        loader.setRefreshScheduler(mock(ScheduledExecutorService.class));
+        loader.setBackgroundRefresh(true);
+        loader.load();
+        loader.changed = true;
+        loader.refreshInBackground();
+        assertEquals("1", loader.load());
+    }
+
+    @Test
+    public void testBackgroundRefreshKeepsCurrentValueOnFailure() {
+        val loader = new MockSpringResourceLoader();
+        loader.setRefreshScheduler(mock(ScheduledExecutorService.class));
+        loader.setBackgroundRefresh(true);
+        loader.load();
+        loader.changed = true;
+        loader.failing = true;
+        loader.refreshInBackground();
+        assertEquals("0", loader.load());
+        loader.failing = false;
+        loader.refreshInBackground();
+        assertEquals("2", loader.load());
+    }
+
+    @Test
+    public void testChangesNotDetectedOnInit() {
+        val loader = new MockSpringResourceLoader();
+        loader.changeDetectedOnInit = false;
+        loader.init();
+        loader.load();
+        assertEquals("0", loader.getLoaded());
+        assertEquals(-1, loader.getLastModified());
+        assertEquals(0, loader.getHasChangedCallCount());
+    }
+
+    @Test
+    public void testReloadInBackgroundWithoutChange() {
+        val loader = new MockSpringResourceLoader();
+        loader.load();
+        loader.reloadInBackground();
+        assertEquals("1", loader.getLoaded());
+        assertTrue(loader.getLastModified() > 0);
+        loader.failing = true;
+        loader.reloadInBackground();
+        assertEquals("1", loader.getLoaded());
+    }
+
     private static class MockSpringResourceLoader extends SpringResourceLoader<String> {
 
         private int seq = 0;
         private int hasChangedCallCount = 0;
+        private boolean changed;
+        private boolean failing;
+        private boolean changeDetectedOnInit = true;
 
         public MockSpringResourceLoader() {
             super(new ClassPathResource("testFile.txt"));
@@ -63,13 +137,22 @@ public class SpringResourceLoaderTests implements TestsConstants {
 
         @Override
         protected void internalLoad() {
-            this.loaded = Pac4jConstants.EMPTY_STRING + seq++;
+            val value = Pac4jConstants.EMPTY_STRING + seq++;
+            if (failing) {
+                throw new IllegalStateException("Cannot load: " + value);
+            }
+            this.loaded = value;
+        }
+
+        @Override
+        protected boolean isChangeDetectedOnInit() {
+            return changeDetectedOnInit;
         }
 
         @Override
         public boolean hasChanged() {
             hasChangedCallCount++;
-            return super.hasChanged();
+            return super.hasChanged() || changed;
         }
 
         public String getLoaded() {
@@ -8,6 +8,7 @@ import org.pac4j.test.util.TestsConstants;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test a store.
@@ -50,6 +51,29 @@ public abstract class AbstractStoreTests<S extends Store> implements TestsConsta
         assertFalse(store.get(KEY).isPresent());
     }
 
+    @Test
+    public void testSetIfAbsent() {
+        val store = buildStore();
+        assertTrue(store.setIfAbsent(KEY, VALUE));
+        assertFalse(store.setIfAbsent(KEY, NAME));
+        assertEquals(VALUE, store.get(KEY).get());
+        store.remove(KEY);
+        assertTrue(store.setIfAbsent(KEY, NAME));
+        assertEquals(NAME, store.get(KEY).get());
+    }
+
+    @Test
+    public void testReplace() {
+        val store = buildStore();
+        assertFalse(store.replace(KEY, VALUE, NAME));
+        assertFalse(store.get(KEY).isPresent());
+        store.set(KEY, VALUE);
+        assertFalse(store.replace(KEY, NAME, VALUE));
+        assertTrue(store.replace(KEY, VALUE, NAME));
+        assertEquals(NAME, store.get(KEY).get());
+        assertFalse(store.replace(KEY, VALUE, NAME));
+    }
+
     @Test
     public void testMissingObject() {
         val store = buildStore();
@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -232,4 +234,20 @@ public final class CommonHelperTests {
             CommonHelper.getConstructor("this.class.does.not.Exist");
         });
     }
+
+    @Test
+    public void testSha256Base64Url() {
+        assertEquals("LPJNul-wow4m6DsqxbninhsWHlwfp0JecwQzYpOLmCQ", CommonHelper.sha256Base64Url("hello"));
+    }
+
+    @Test
+    public void testJoin() {
+        assertEquals("value", CommonHelper.join(CompletableFuture.completedFuture("value")));
+        val runtimeException = new IllegalStateException();
+        assertSame(runtimeException, assertThrows(IllegalStateException.class,
+            () -> CommonHelper.join(CompletableFuture.failedFuture(runtimeException))));
+        val exception = new IOException();
+        assertSame(exception, assertThrows(TechnicalException.class,
+            () -> CommonHelper.join(CompletableFuture.failedFuture(exception))).getCause());
+    }
 }
@@ -0,0 +1,73 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.pac4j.test.util.TestsConstants;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ResolvedElements}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class ResolvedElementsTests implements TestsConstants {
+
+    private static final Object DEFAULT_ELEMENT = new Object();
+
+    @Test
+    public void testValidForSameMap() {
+        val element = new Object();
+        final Map<String, Object> map = new HashMap<>();
+        map.put(NAME, element);
+        val resolved = new ResolvedElements<>(map, List.of(element, DEFAULT_ELEMENT));
+        assertEquals(List.of(element, DEFAULT_ELEMENT), resolved.getElements());
+        assertTrue(resolved.isValidFor(map));
+        assertFalse(resolved.isValidFor(new HashMap<>(map)));
+    }
+
+    @Test
+    public void testInvalidWhenEntryReplaced() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(NAME, new Object());
+        val resolved = new ResolvedElements<>(map, List.of(map.get(NAME)));
+        map.put(NAME, new Object());
+        assertFalse(resolved.isValidFor(map));
+    }
+
+    @Test
+    public void testInvalidWhenEntryAdded() {
+        final Map<String, Object> map = new HashMap<>();
+        val resolved = new ResolvedElements<>(map, List.of(DEFAULT_ELEMENT));
+        map.put(VALUE, new Object());
+        assertFalse(resolved.isValidFor(map));
+    }
+
+    @Test
+    public void testInvalidWhenSameSizeChange() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(NAME, new Object());
+        map.put(VALUE, new Object());
+        val resolved = new ResolvedElements<>(map, List.of(map.get(NAME), DEFAULT_ELEMENT));
+        assertTrue(resolved.isValidFor(map));
+        // an entry removed and another one (like one overriding a default element) added
+        map.remove(VALUE);
+        map.put(KEY, new Object());
+        assertFalse(resolved.isValidFor(map));
+    }
+
+    @Test
+    public void testInvalidWhenUnusedEntryReplaced() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(NAME, new Object());
+        map.put(VALUE, new Object());
+        val resolved = new ResolvedElements<>(map, List.of(map.get(NAME)));
+        map.put(VALUE, new Object());
+        assertFalse(resolved.isValidFor(map));
+    }
+}
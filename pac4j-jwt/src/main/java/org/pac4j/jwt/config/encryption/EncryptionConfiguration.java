@@ -23,6 +23,15 @@ public interface EncryptionConfiguration {
      */
     boolean supports(JWEAlgorithm algorithm, EncryptionMethod method);
 
+    /**
+     * The identifier of the key (<code>kid</code>) of this encryption configuration, if any.
+     *
+     * @return the key identifier
+     */
+    default String getKeyId() {
+        return null;
+    }
+
     /**
      * Encrypt a JWT.
      *
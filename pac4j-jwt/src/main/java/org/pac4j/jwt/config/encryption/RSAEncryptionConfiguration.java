@@ -86,6 +86,12 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
         return new RSAEncrypter(this.publicKey);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected Object getDecryptionKey() {
+        return this.privateKey;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected JWEDecrypter buildDecrypter() {
@@ -114,6 +114,12 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected Object getDecryptionKey() {
+        return this.secret;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected JWEDecrypter buildDecrypter() {
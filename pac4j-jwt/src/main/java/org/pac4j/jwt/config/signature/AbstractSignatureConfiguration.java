@@ -1,8 +1,11 @@
 package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
 
 /**
@@ -16,4 +19,48 @@ import org.pac4j.core.util.InitializableObject;
 public abstract class AbstractSignatureConfiguration extends InitializableObject implements SignatureConfiguration {
 
     protected JWSAlgorithm algorithm = JWSAlgorithm.HS256;
+
+    protected String keyId;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile CachedVerifier cachedVerifier;
+
+    /**
+     * Return the verifier for the given key: it is built only once per key as the verifiers are thread-safe.
+     *
+     * @param key the current verification key
+     * @return the verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected JWSVerifier getVerifier(final Object key) throws JOSEException {
+        val cached = this.cachedVerifier;
+        if (cached != null && cached.key() == key) {
+            return cached.verifier();
+        }
+        val verifier = buildVerifier();
+        this.cachedVerifier = new CachedVerifier(key, verifier);
+        return verifier;
+    }
+
+    /**
+     * Build the verifier for the current key.
+     *
+     * @return the verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        throw new TechnicalException("No verifier defined for: " + getClass().getName());
+    }
+
+    /**
+     * Build the header of the signed JWT.
+     *
+     * @return the header
+     */
+    protected JWSHeader buildHeader() {
+        return new JWSHeader.Builder(algorithm).keyID(keyId).build();
+    }
+
+    private record CachedVerifier(Object key, JWSVerifier verifier) {}
 }
@@ -2,7 +2,6 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.RSASSASigner;
@@ -86,7 +85,7 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
 
         try {
             JWSSigner signer = new RSASSASigner(this.privateKey);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
+            val signedJWT = new SignedJWT(buildHeader(), claims);
             signedJWT.sign(signer);
             return signedJWT;
         } catch (final JOSEException e) {
@@ -100,8 +99,13 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
         init();
         CommonHelper.assertNotNull("publicKey", publicKey);
 
-        JWSVerifier verifier = new RSASSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return jwt.verify(getVerifier(this.publicKey));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        return new RSASSAVerifier(this.publicKey);
     }
 
     /**
@@ -2,7 +2,6 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.MACSigner;
@@ -99,7 +98,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
         try {
             JWSSigner signer = new MACSigner(this.secret);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
+            val signedJWT = new SignedJWT(buildHeader(), claims);
             signedJWT.sign(signer);
             return signedJWT;
         } catch (final JOSEException e) {
@@ -112,8 +111,13 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
     public boolean verify(final SignedJWT jwt) throws JOSEException {
         init();
 
-        JWSVerifier verifier = new MACVerifier(this.secret);
-        return jwt.verify(verifier);
+        return jwt.verify(getVerifier(this.secret));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        return new MACVerifier(this.secret);
     }
 
     /**
@@ -21,6 +21,15 @@ public interface SignatureConfiguration {
      */
     boolean supports(JWSAlgorithm algorithm);
 
+    /**
+     * The identifier of the key (<code>kid</code>) of this signature configuration, if any.
+     *
+     * @return the key identifier
+     */
+    default String getKeyId() {
+        return null;
+    }
+
     /**
      * Generate a signed JWT based on claims.
      *
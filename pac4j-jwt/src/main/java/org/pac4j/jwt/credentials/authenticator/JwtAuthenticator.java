@@ -1,7 +1,11 @@
 package org.pac4j.jwt.credentials.authenticator;
 
+import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jwt.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -18,6 +22,8 @@ import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.definition.ProfileDefinitionAware;
 import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.generator.ValueGenerator;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
@@ -29,6 +35,8 @@ import org.slf4j.LoggerFactory;
 
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.pac4j.core.util.CommonHelper.assertNotBlank;
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
@@ -68,6 +76,36 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
     private ValueGenerator identifierGenerator;
 
+    /**
+     * The store of the claims of the already verified JWT, <code>null</code> to disable the cache. A new profile is built
+     * from the cached claims for each request. It must not be shared with authenticators having different configurations.
+     * <p>
+     * The entries are keyed by a SHA-256 digest of the JWT and of a fingerprint of the signature and encryption configurations
+     * (the updates through the setters and the classes and key identifiers of the configurations): a JWT verified with
+     * a removed or replaced configuration is verified again. Changes inside a configuration object (like a new secret set
+     * on the same <code>SecretSignatureConfiguration</code>) are not detected: the already verified JWT are still accepted
+     * until their cache entries expire (at most <code>maxVerifiedTokenTtlInSeconds</code>).
+     */
+    private Store<String, VerifiedJwtClaims> verifiedTokenStore;
+
+    /** The maximum time (in seconds) a verified JWT is cached, even if it expires later. */
+    private int maxVerifiedTokenTtlInSeconds = 300;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final AtomicInteger configurationVersion = new AtomicInteger();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private volatile KeyIdIndex<EncryptionConfiguration> encryptionIndex;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private volatile KeyIdIndex<SignatureConfiguration> signatureIndex;
+
     /**
      * <p>Constructor for JwtAuthenticator.</p>
      */
@@ -176,6 +214,17 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
             }
         }
 
+        String cacheKey = null;
+        if (verifiedTokenStore != null) {
+            cacheKey = computeCacheKey(token);
+            val claims = findVerifiedClaims(cacheKey);
+            if (claims != null) {
+                logger.debug("JWT already verified -> profile built from the cached claims");
+                createJwtProfile(ctx, credentials, claims);
+                return Optional.of(credentials);
+            }
+        }
+
         try {
             // Parse the token
             var jwt = JWTParser.parse(token);
@@ -206,7 +255,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
                     val header = encryptedJWT.getHeader();
                     val algorithm = header.getAlgorithm();
                     val method = header.getEncryptionMethod();
-                    for (val config : encryptionConfigurations) {
+                    for (val config : findEncryptionConfigurations(header.getKeyID(), algorithm, method)) {
                         if (config.supports(algorithm, method)) {
                             logger.debug("Using encryption configuration: {}", config);
                             try {
@@ -237,8 +286,9 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
                     var verified = false;
                     var found = false;
-                    val algorithm = signedJWT.getHeader().getAlgorithm();
-                    for (val config : signatureConfigurations) {
+                    val header = signedJWT.getHeader();
+                    val algorithm = header.getAlgorithm();
+                    for (val config : findSignatureConfigurations(header.getKeyID(), algorithm)) {
                         if (config.supports(algorithm)) {
                             logger.debug("Using signature configuration: {}", config);
                             try {
@@ -263,6 +313,10 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
             createJwtProfile(ctx, credentials, jwt);
 
+            if (cacheKey != null && credentials.getUserProfile() != null) {
+                cacheVerifiedClaims(cacheKey, jwt.getJWTClaimsSet());
+            }
+
         } catch (final ParseException e) {
             throw new CredentialsException("Cannot decrypt / verify JWT", e);
         }
@@ -270,6 +324,121 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
         return Optional.of(credentials);
     }
 
+    /**
+     * Compute the key of a JWT in the store of the verified JWT.
+     *
+     * @param token the JWT
+     * @return the cache key
+     */
+    protected String computeCacheKey(final String token) {
+        return CommonHelper.sha256Base64Url(computeConfigurationFingerprint() + token);
+    }
+
+    /**
+     * Compute a fingerprint of the current signature and encryption configurations (the same on all the nodes
+     * configured in the same way).
+     *
+     * @return the fingerprint
+     */
+    protected String computeConfigurationFingerprint() {
+        val fingerprint = new StringBuilder().append(configurationVersion.get()).append('|');
+        for (val signatureConfiguration : signatureConfigurations) {
+            fingerprint.append(signatureConfiguration.getClass().getName()).append(':')
+                .append(signatureConfiguration.getKeyId()).append(',');
+        }
+        fingerprint.append('|');
+        for (val encryptionConfiguration : encryptionConfigurations) {
+            fingerprint.append(encryptionConfiguration.getClass().getName()).append(':')
+                .append(encryptionConfiguration.getKeyId()).append(',');
+        }
+        return fingerprint.append('|').toString();
+    }
+
+    /**
+     * Find the claims of an already verified JWT, if it has not expired.
+     *
+     * @param cacheKey the cache key of the JWT
+     * @return the claims or <code>null</code>
+     */
+    protected JWTClaimsSet findVerifiedClaims(final String cacheKey) {
+        val verifiedClaims = verifiedTokenStore.get(cacheKey);
+        if (verifiedClaims.isEmpty()) {
+            return null;
+        }
+        val tokenExpirationTime = verifiedClaims.get().getTokenExpirationTime();
+        val now = System.currentTimeMillis();
+        if (verifiedClaims.get().getCacheExpirationTime() <= now
+            || (tokenExpirationTime > 0 && this.expirationTime != null && tokenExpirationTime > this.expirationTime.getTime())) {
+            verifiedTokenStore.remove(cacheKey);
+            return null;
+        }
+        return verifiedClaims.get().getClaims();
+    }
+
+    /**
+     * Cache the claims of a verified JWT until it expires (at most <code>maxVerifiedTokenTtlInSeconds</code>).
+     *
+     * @param cacheKey the cache key of the JWT
+     * @param claims the verified claims
+     */
+    protected void cacheVerifiedClaims(final String cacheKey, final JWTClaimsSet claims) {
+        if (maxVerifiedTokenTtlInSeconds <= 0) {
+            return;
+        }
+        var cacheExpirationTime = System.currentTimeMillis() + maxVerifiedTokenTtlInSeconds * 1000L;
+        long expiration = 0;
+        val tokenExpirationTime = claims.getExpirationTime();
+        if (tokenExpirationTime != null) {
+            expiration = tokenExpirationTime.getTime();
+            cacheExpirationTime = Math.min(cacheExpirationTime, expiration);
+        }
+        verifiedTokenStore.set(cacheKey, new VerifiedJwtClaims(claims, expiration, cacheExpirationTime));
+    }
+
+    /**
+     * Find the encryption configurations to try for a JWT: the ones with the same key identifier
+     * if the <code>kid</code> of the JWT matches some of them, all the encryption configurations otherwise.
+     *
+     * @param keyId the key identifier of the JWT
+     * @param algorithm the algorithm of the JWT
+     * @param method the encryption method of the JWT
+     * @return the encryption configurations
+     */
+    protected List<EncryptionConfiguration> findEncryptionConfigurations(final String keyId, final JWEAlgorithm algorithm,
+                                                                         final EncryptionMethod method) {
+        var index = this.encryptionIndex;
+        if (index == null || !index.isValidFor(encryptionConfigurations, EncryptionConfiguration::getKeyId)) {
+            index = KeyIdIndex.of(encryptionConfigurations, EncryptionConfiguration::getKeyId);
+            this.encryptionIndex = index;
+        }
+        val configurations = index.find(keyId);
+        if (configurations != null && configurations.stream().anyMatch(c -> c.supports(algorithm, method))) {
+            return configurations;
+        }
+        return encryptionConfigurations;
+    }
+
+    /**
+     * Find the signature configurations to try for a JWT: the ones with the same key identifier
+     * if the <code>kid</code> of the JWT matches some of them, all the signature configurations otherwise.
+     *
+     * @param keyId the key identifier of the JWT
+     * @param algorithm the algorithm of the JWT
+     * @return the signature configurations
+     */
+    protected List<SignatureConfiguration> findSignatureConfigurations(final String keyId, final JWSAlgorithm algorithm) {
+        var index = this.signatureIndex;
+        if (index == null || !index.isValidFor(signatureConfigurations, SignatureConfiguration::getKeyId)) {
+            index = KeyIdIndex.of(signatureConfigurations, SignatureConfiguration::getKeyId);
+            this.signatureIndex = index;
+        }
+        val configurations = index.find(keyId);
+        if (configurations != null && configurations.stream().anyMatch(c -> c.supports(algorithm))) {
+            return configurations;
+        }
+        return signatureConfigurations;
+    }
+
     /**
      * <p>createJwtProfile.</p>
      *
@@ -278,9 +447,19 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
      * @param jwt a {@link JWT} object
      * @throws ParseException if any.
      */
-    @SuppressWarnings("unchecked")
     protected void createJwtProfile(final CallContext ctx, final TokenCredentials credentials, final JWT jwt) throws ParseException {
-        val claimSet = jwt.getJWTClaimsSet();
+        createJwtProfile(ctx, credentials, jwt.getJWTClaimsSet());
+    }
+
+    /**
+     * Create the user profile from the claims of a verified JWT.
+     *
+     * @param ctx the context
+     * @param credentials the credentials
+     * @param claimSet the claims
+     */
+    @SuppressWarnings("unchecked")
+    protected void createJwtProfile(final CallContext ctx, final TokenCredentials credentials, final JWTClaimsSet claimSet) {
         var subject = claimSet.getSubject();
         if (subject == null) {
             if (identifierGenerator != null) {
@@ -342,6 +521,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addSignatureConfiguration(final SignatureConfiguration signatureConfiguration) {
         assertNotNull("signatureConfiguration", signatureConfiguration);
         signatureConfigurations.add(signatureConfiguration);
+        configurationVersion.incrementAndGet();
     }
 
     /**
@@ -352,6 +532,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void setSignatureConfigurations(final List<SignatureConfiguration> signatureConfigurations) {
         assertNotNull("signatureConfigurations", signatureConfigurations);
         this.signatureConfigurations = signatureConfigurations;
+        configurationVersion.incrementAndGet();
     }
 
     /**
@@ -371,6 +552,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
         assertNotNull("encryptionConfiguration", encryptionConfiguration);
         encryptionConfigurations.add(encryptionConfiguration);
+        configurationVersion.incrementAndGet();
     }
 
     /**
@@ -381,6 +563,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void setEncryptionConfigurations(final List<EncryptionConfiguration> encryptionConfigurations) {
         assertNotNull("encryptionConfigurations", encryptionConfigurations);
         this.encryptionConfigurations = encryptionConfigurations;
+        configurationVersion.incrementAndGet();
     }
 
     /**
@@ -400,4 +583,51 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public Date getExpirationTime() {
         return new Date(expirationTime.getTime());
     }
+
+    /**
+     * The configurations indexed by key identifier, valid as long as the list of configurations holds the same configurations
+     * (with the same key identifiers) in the same order.
+     *
+     * @param configurations the indexed list of configurations
+     * @param snapshot the configurations at indexing time
+     * @param keyIds the key identifiers of the configurations at indexing time
+     * @param configurationsByKeyId the configurations by key identifier
+     * @param <T> the type of configurations
+     */
+    private record KeyIdIndex<T>(List<T> configurations, Object[] snapshot, String[] keyIds,
+                                 Map<String, List<T>> configurationsByKeyId) {
+
+        static <T> KeyIdIndex<T> of(final List<T> configurations, final Function<T, String> keyIdFunction) {
+            final Map<String, List<T>> configurationsByKeyId = new HashMap<>();
+            val snapshot = configurations.toArray();
+            val keyIds = new String[snapshot.length];
+            var i = 0;
+            for (val configuration : configurations) {
+                val keyId = keyIdFunction.apply(configuration);
+                keyIds[i++] = keyId;
+                if (keyId != null) {
+                    configurationsByKeyId.computeIfAbsent(keyId, k -> new ArrayList<>()).add(configuration);
+                }
+            }
+            return new KeyIdIndex<>(configurations, snapshot, keyIds, configurationsByKeyId);
+        }
+
+        boolean isValidFor(final List<T> configurations, final Function<T, String> keyIdFunction) {
+            if (configurations != this.configurations || configurations.size() != snapshot.length) {
+                return false;
+            }
+            var i = 0;
+            for (val configuration : configurations) {
+                if (configuration != snapshot[i] || !Objects.equals(keyIdFunction.apply(configuration), keyIds[i])) {
+                    return false;
+                }
+                i++;
+            }
+            return true;
+        }
+
+        List<T> find(final String keyId) {
+            return keyId != null ? configurationsByKeyId.get(keyId) : null;
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package org.pac4j.jwt.credentials.authenticator;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The claims of an already verified JWT, cached by the {@link JwtAuthenticator} which builds a new profile from them
+ * for each request.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@ToString
+public class VerifiedJwtClaims implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2706583612869727193L;
+
+    private final JWTClaimsSet claims;
+
+    /** The expiration time of the JWT (in milliseconds), <code>0</code> if the JWT does not expire. */
+    private final long tokenExpirationTime;
+
+    /** The time (in milliseconds) after which this cache entry must not be used anymore. */
+    private final long cacheExpirationTime;
+
+    /**
+     * <p>Constructor for VerifiedJwtClaims.</p>
+     *
+     * @param claims the verified claims
+     * @param tokenExpirationTime the expiration time of the JWT
+     * @param cacheExpirationTime the expiration time of the cache entry
+     */
+    public VerifiedJwtClaims(final JWTClaimsSet claims, final long tokenExpirationTime, final long cacheExpirationTime) {
+        this.claims = claims;
+        this.tokenExpirationTime = tokenExpirationTime;
+        this.cacheExpirationTime = cacheExpirationTime;
+    }
+}
@@ -1,10 +1,14 @@
 package org.pac4j.jwt;
 
 import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 import org.pac4j.core.credentials.TokenCredentials;
@@ -15,6 +19,7 @@ import org.pac4j.core.profile.Color;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.store.AbstractStore;
 import org.pac4j.test.util.TestsHelper;
 import org.pac4j.core.util.generator.StaticValueGenerator;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
@@ -24,6 +29,7 @@ import org.pac4j.jwt.config.signature.ECSignatureConfiguration;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
+import org.pac4j.jwt.credentials.authenticator.VerifiedJwtClaims;
 import org.pac4j.jwt.profile.JwtGenerator;
 import org.pac4j.jwt.profile.JwtProfile;
 import org.pac4j.oauth.profile.facebook.FacebookProfile;
@@ -35,6 +41,7 @@ import org.pac4j.test.util.TestsConstants;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -450,6 +457,226 @@ public final class JwtTests implements TestsConstants {
         assertNotNull(g1);
     }
 
+    @Test
+    public void testKeyIdSelectsSignatureConfiguration() {
+        final SignatureConfiguration otherConfiguration = new SecretSignatureConfiguration(MAC_SECRET) {
+            @Override
+            public boolean verify(final SignedJWT jwt) {
+                throw new TechnicalException("Unexpected signature configuration");
+            }
+        };
+        ((SecretSignatureConfiguration) otherConfiguration).setKeyId("key1");
+        val signatureConfiguration = new SecretSignatureConfiguration(KEY2);
+        signatureConfiguration.setKeyId("key2");
+        val generator = new JwtGenerator(signatureConfiguration);
+        val profile = createProfile();
+        val token = generator.generate(profile);
+        val jwtAuthenticator = new JwtAuthenticator();
+        jwtAuthenticator.addSignatureConfiguration(otherConfiguration);
+        jwtAuthenticator.addSignatureConfiguration(signatureConfiguration);
+        assertToken(profile, token, jwtAuthenticator);
+    }
+
+    @Test
+    public void testUnknownKeyIdTriesAllSignatureConfigurations() {
+        val signatureConfiguration = new SecretSignatureConfiguration(KEY2);
+        signatureConfiguration.setKeyId("rotatedKey");
+        val generator = new JwtGenerator(signatureConfiguration);
+        val profile = createProfile();
+        val token = generator.generate(profile);
+        val jwtAuthenticator = new JwtAuthenticator();
+        val knownConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        knownConfiguration.setKeyId("knownKey");
+        jwtAuthenticator.addSignatureConfiguration(knownConfiguration);
+        jwtAuthenticator.addSignatureConfiguration(new SecretSignatureConfiguration(KEY2));
+        assertToken(profile, token, jwtAuthenticator);
+    }
+
+    @Test
+    public void testReplacedKeyIsNotUsedAnymore() {
+        val signatureConfiguration = new SecretSignatureConfiguration(KEY2);
+        signatureConfiguration.setKeyId("key");
+        val token = new JwtGenerator(signatureConfiguration).generate(createProfile());
+        val jwtAuthenticator = new JwtAuthenticator();
+        jwtAuthenticator.addSignatureConfiguration(signatureConfiguration);
+        assertNotNull(jwtAuthenticator.validateToken(token));
+        // same size, same key identifier but another key
+        val newConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        newConfiguration.setKeyId("key");
+        jwtAuthenticator.getSignatureConfigurations().remove(signatureConfiguration);
+        jwtAuthenticator.getSignatureConfigurations().add(newConfiguration);
+        assertNull(jwtAuthenticator.validateToken(token));
+    }
+
+    @Test
+    public void testKeyIdSelectsEncryptionConfiguration() {
+        final EncryptionConfiguration otherConfiguration = new SecretEncryptionConfiguration(KEY2) {
+            @Override
+            public void decrypt(final EncryptedJWT encryptedJWT) throws JOSEException {
+                throw new TechnicalException("Unexpected encryption configuration");
+            }
+        };
+        ((SecretEncryptionConfiguration) otherConfiguration).setKeyId("enc1");
+        val encryptionConfiguration = new SecretEncryptionConfiguration(MAC_SECRET);
+        encryptionConfiguration.setKeyId("enc2");
+        val signatureConfiguration = new SecretSignatureConfiguration(KEY2);
+        val generator = new JwtGenerator(signatureConfiguration, encryptionConfiguration);
+        val profile = createProfile();
+        val token = generator.generate(profile);
+        val jwtAuthenticator = new JwtAuthenticator();
+        jwtAuthenticator.addSignatureConfiguration(signatureConfiguration);
+        jwtAuthenticator.addEncryptionConfiguration(otherConfiguration);
+        jwtAuthenticator.addEncryptionConfiguration(encryptionConfiguration);
+        assertToken(profile, token, jwtAuthenticator);
+    }
+
+    @Test
+    public void testVerifierIsReused() {
+        val nbVerifiers = new AtomicInteger();
+        val signatureConfiguration = new SecretSignatureConfiguration(KEY2) {
+            @Override
+            protected JWSVerifier buildVerifier() throws JOSEException {
+                nbVerifiers.incrementAndGet();
+                return super.buildVerifier();
+            }
+        };
+        val generator = new JwtGenerator(signatureConfiguration);
+        val profile = createProfile();
+        val jwtAuthenticator = new JwtAuthenticator(signatureConfiguration);
+        assertToken(profile, generator.generate(profile), jwtAuthenticator);
+        assertToken(profile, generator.generate(profile), jwtAuthenticator);
+        assertEquals(1, nbVerifiers.get());
+        signatureConfiguration.setSecret(MAC_SECRET);
+        assertToken(profile, generator.generate(profile), jwtAuthenticator);
+        assertEquals(2, nbVerifiers.get());
+    }
+
+    @Test
+    public void testVerifiedTokenCache() {
+        val nbVerifications = new AtomicInteger();
+        val signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET) {
+            @Override
+            public boolean verify(final SignedJWT jwt) throws JOSEException {
+                nbVerifications.incrementAndGet();
+                return super.verify(jwt);
+            }
+        };
+        val generator = new JwtGenerator(signatureConfiguration);
+        val tomorrow = tomorrow();
+        generator.setExpirationTime(tomorrow);
+        val profile = createProfile();
+        val token = generator.generate(profile);
+        val jwtAuthenticator = new JwtAuthenticator(signatureConfiguration);
+        val store = new MapStore<String, VerifiedJwtClaims>();
+        jwtAuthenticator.setVerifiedTokenStore(store);
+        assertToken(profile, token, jwtAuthenticator);
+        assertToken(profile, token, jwtAuthenticator);
+        assertEquals(1, nbVerifications.get());
+        assertEquals(1, store.map.size());
+        assertEquals(tomorrow.getTime() / 1000, store.map.values().iterator().next().getTokenExpirationTime() / 1000);
+
+        jwtAuthenticator.setExpirationTime(new Date());
+        val credentials = new TokenCredentials(token);
+        jwtAuthenticator.validate(null, credentials);
+        assertNull(credentials.getUserProfile());
+        assertEquals(2, nbVerifications.get());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheFollowsConfigurationChanges() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        val token = generator.generate(createProfile());
+        val jwtAuthenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        jwtAuthenticator.setVerifiedTokenStore(new MapStore<>());
+        assertNotNull(jwtAuthenticator.validateToken(token));
+
+        // the key is rotated: the cached verification is not used anymore
+        jwtAuthenticator.setSignatureConfigurations(new ArrayList<>(List.of(new SecretSignatureConfiguration(KEY2))));
+        assertNull(jwtAuthenticator.validateToken(token));
+    }
+
+    @Test
+    public void testVerifiedTokenCacheBuildsNewProfiles() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        val token = generator.generate(createProfile());
+        val jwtAuthenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        jwtAuthenticator.setVerifiedTokenStore(new MapStore<>());
+        val profile1 = jwtAuthenticator.validateToken(token);
+        profile1.addRole("admin");
+        val profile2 = jwtAuthenticator.validateToken(token);
+        assertNotSame(profile1, profile2);
+        assertEquals(ID, profile2.getId());
+        assertTrue(profile2.getRoles().isEmpty());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheGeneratesIdentifiers() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        val token = generator.generate(Map.of(NAME, VALUE));
+        val jwtAuthenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        jwtAuthenticator.setVerifiedTokenStore(new MapStore<>());
+        val nbIds = new AtomicInteger();
+        jwtAuthenticator.setIdentifierGenerator(ctx -> "id" + nbIds.incrementAndGet());
+        assertEquals("id1", jwtAuthenticator.validateToken(token).getId());
+        assertEquals("id2", jwtAuthenticator.validateToken(token).getId());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheDisabledWithoutTtl() {
+        val nbVerifications = new AtomicInteger();
+        val signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET) {
+            @Override
+            public boolean verify(final SignedJWT jwt) throws JOSEException {
+                nbVerifications.incrementAndGet();
+                return super.verify(jwt);
+            }
+        };
+        val generator = new JwtGenerator(signatureConfiguration);
+        val profile = createProfile();
+        val token = generator.generate(profile);
+        val jwtAuthenticator = new JwtAuthenticator(signatureConfiguration);
+        val store = new MapStore<String, VerifiedJwtClaims>();
+        jwtAuthenticator.setVerifiedTokenStore(store);
+        jwtAuthenticator.setMaxVerifiedTokenTtlInSeconds(0);
+        assertToken(profile, token, jwtAuthenticator);
+        assertToken(profile, token, jwtAuthenticator);
+        assertEquals(2, nbVerifications.get());
+        assertTrue(store.map.isEmpty());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheNotUsedForInvalidToken() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(KEY2));
+        val profile = createProfile();
+        val token = generator.generate(profile);
+        val jwtAuthenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        val store = new MapStore<String, VerifiedJwtClaims>();
+        jwtAuthenticator.setVerifiedTokenStore(store);
+        TestsHelper.expectException(() -> jwtAuthenticator.validate(null, new TokenCredentials(token)), CredentialsException.class,
+            "JWT verification failed: " + token);
+        assertTrue(store.map.isEmpty());
+    }
+
+    private static final class MapStore<K, O> extends AbstractStore<K, O> {
+
+        private final Map<K, O> map = new HashMap<>();
+
+        @Override
+        protected Optional<O> internalGet(final K key) {
+            return Optional.ofNullable(map.get(key));
+        }
+
+        @Override
+        protected void internalSet(final K key, final O value) {
+            map.put(key, value);
+        }
+
+        @Override
+        protected void internalRemove(final K key) {
+            map.remove(key);
+        }
+    }
+
     private ECSignatureConfiguration buildECSignatureConfiguration() throws NoSuchAlgorithmException {
         val keyGen = KeyPairGenerator.getInstance("EC");
         val keyPair = keyGen.generateKeyPair();
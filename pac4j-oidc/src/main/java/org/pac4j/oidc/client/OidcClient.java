@@ -1,10 +1,13 @@
 package org.pac4j.oidc.client;
 
+import com.nimbusds.oauth2.sdk.token.RefreshToken;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.val;
 import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
@@ -16,6 +19,7 @@ import org.pac4j.oidc.logout.processor.OidcLogoutProcessor;
 import org.pac4j.oidc.profile.OidcProfile;
 import org.pac4j.oidc.profile.creator.OidcProfileCreator;
 import org.pac4j.oidc.redirect.OidcRedirectionActionBuilder;
+import org.pac4j.oidc.util.AuthenticationState;
 
 import java.util.Optional;
 
@@ -36,6 +40,11 @@ public class OidcClient extends IndirectClient {
     @Getter
     private OidcConfiguration configuration;
 
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private TokenRefreshCoordinator tokenRefreshCoordinator = new TokenRefreshCoordinator();
+
     /**
      * <p>Constructor for OidcClient.</p>
      */
@@ -79,6 +88,10 @@ public class OidcClient extends IndirectClient {
 
         configuration.init(this.getClass().getSimpleName(), forceReinit);
 
+        if (configuration.getTokenVault() != null) {
+            assertNotNull("tokenVault.store", configuration.getTokenVault().getStore());
+        }
+
         val federation = configuration.getFederation();
         if (federation.getEntityId() == null) {
             federation.setEntityId(callbackUrl);
@@ -91,21 +104,94 @@ public class OidcClient extends IndirectClient {
         val oidcProfile = (OidcProfile) profile;
         val refreshToken = oidcProfile.getRefreshToken();
         if (refreshToken != null) {
-            val credentials = new OidcCredentials();
-            credentials.setRefreshTokenObject(refreshToken);
-            val authenticator = (OidcAuthenticator)getAuthenticator();
-            authenticator.refresh(credentials);
-            credentials.setRefreshedCredentials(true);
-
-            // Create a profile if the refresh grant was successful
-            if (credentials.getAccessToken() != null) {
-                return getUserProfile(ctx, credentials);
-            }
+            return tokenRefreshCoordinator.refresh(refreshToken.getValue(), this::refreshCredentials,
+                credentials -> buildRenewedProfile(ctx, oidcProfile, credentials));
         }
 
         return Optional.empty();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Optional<UserProfile> renewUserProfileInBackground(final CallContext ctx, final UserProfile profile) {
+        val oidcProfile = (OidcProfile) profile;
+        val refreshToken = oidcProfile.getRefreshToken();
+        if (refreshToken != null) {
+            return tokenRefreshCoordinator.refreshInBackground(refreshToken.getValue(), this::refreshCredentials,
+                credentials -> buildRenewedProfile(ctx, oidcProfile, credentials));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Perform the refresh token grant.
+     *
+     * @param refreshToken the refresh token
+     * @return the refreshed credentials
+     */
+    protected OidcCredentials refreshCredentials(final String refreshToken) {
+        val credentials = new OidcCredentials();
+        credentials.setRefreshTokenObject(new RefreshToken(refreshToken));
+        val authenticator = (OidcAuthenticator)getAuthenticator();
+        authenticator.refresh(credentials);
+        credentials.setRefreshedCredentials(true);
+        return credentials;
+    }
+
+    private Optional<UserProfile> buildRenewedProfile(final CallContext ctx, final OidcProfile previousProfile,
+                                                      final OidcCredentials credentials) {
+        // Create a profile if the refresh grant was successful
+        if (credentials != null && credentials.getAccessToken() != null) {
+            val profile = getUserProfile(ctx, credentials);
+            val tokenVault = configuration.getTokenVault();
+            if (tokenVault != null && profile.isPresent() && profile.get() instanceof OidcProfile renewedProfile) {
+                tokenVault.renew(previousProfile, renewedProfile);
+            }
+            return profile;
+        }
+        return Optional.empty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void restoreUserProfile(final CallContext ctx, final UserProfile profile) {
+        val tokenVault = configuration.getTokenVault();
+        if (tokenVault != null && profile instanceof OidcProfile oidcProfile) {
+            tokenVault.attach(oidcProfile);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void releaseUserProfile(final CallContext ctx, final UserProfile profile) {
+        val tokenVault = configuration.getTokenVault();
+        if (tokenVault != null && profile instanceof OidcProfile oidcProfile) {
+            // resolve the tokens first: the ID token is still needed for the central logout
+            oidcProfile.getIdTokenString();
+            tokenVault.remove(oidcProfile);
+        }
+    }
+
+    /**
+     * <p>getAuthenticationStateAttributeName.</p>
+     *
+     * @return the name of the attribute of the authentication state
+     */
+    public String getAuthenticationStateAttributeName() {
+        return getName() + "$authenticationState";
+    }
+
+    /**
+     * Return the authentication state retrieved at callback (when an <code>authenticationStateStore</code> is defined).
+     *
+     * @param context the web context
+     * @return the authentication state, if any
+     */
+    public Optional<AuthenticationState> findAuthenticationState(final WebContext context) {
+        return context.getRequestAttribute(getAuthenticationStateAttributeName(), AuthenticationState.class);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void notifySessionRenewal(final CallContext ctx, final String oldSessionId) {
@@ -0,0 +1,169 @@
+package org.pac4j.oidc.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oidc.credentials.OidcCredentials;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Coordinates the refresh token grants: only one grant runs at a time for a given refresh token,
+ * the concurrent requests (like the parallel calls of a SPA when the tokens expire) wait for its result.
+ * The renewed profile is also built once per grant (by the first request reading its result) and shared.
+ *
+ * The result of a successful grant is kept for a short time (<code>resultRetentionInMilliseconds</code>)
+ * for the requests which still hold the previous (possibly rotated) refresh token.
+ *
+ * The grants can also be run in the background, before the tokens expire: their result is then returned
+ * to the requests asking for it, in the same way.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Slf4j
+public class TokenRefreshCoordinator {
+
+    private static final long DEFAULT_RESULT_RETENTION_IN_MILLISECONDS = 30_000;
+
+    private static final Executor DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        val thread = new Thread(r, "pac4j-oidc-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Refresh> refreshes = new ConcurrentHashMap<>();
+
+    @Getter
+    @Setter
+    private long resultRetentionInMilliseconds = DEFAULT_RESULT_RETENTION_IN_MILLISECONDS;
+
+    @Getter
+    private Executor executor = DEFAULT_EXECUTOR;
+
+    /**
+     * Refresh the tokens or wait for the refresh already running for the same refresh token.
+     *
+     * @param refreshToken the refresh token
+     * @param grant the refresh token grant
+     * @param profileBuilder the builder of the renewed profile from the refreshed credentials
+     * @return the renewed profile
+     */
+    public Optional<UserProfile> refresh(final String refreshToken, final Function<String, OidcCredentials> grant,
+                                         final Function<OidcCredentials, Optional<UserProfile>> profileBuilder) {
+        purgeExpiredRefreshes();
+        val refresh = new Refresh(System.currentTimeMillis());
+        val existingRefresh = refreshes.putIfAbsent(refreshToken, refresh);
+        if (existingRefresh != null) {
+            LOGGER.debug("Waiting for the refresh already in progress");
+            return existingRefresh.renewedProfile(profileBuilder);
+        }
+        run(refreshToken, refresh, grant);
+        return refresh.renewedProfile(profileBuilder);
+    }
+
+    /**
+     * Start the refresh of the tokens in the background if it is not already done.
+     *
+     * @param refreshToken the refresh token
+     * @param grant the refresh token grant
+     * @param profileBuilder the builder of the renewed profile from the refreshed credentials
+     * @return the renewed profile if the refresh has completed successfully, empty otherwise
+     */
+    public Optional<UserProfile> refreshInBackground(final String refreshToken, final Function<String, OidcCredentials> grant,
+                                                     final Function<OidcCredentials, Optional<UserProfile>> profileBuilder) {
+        purgeExpiredRefreshes();
+        val existingRefresh = refreshes.get(refreshToken);
+        if (existingRefresh != null) {
+            val credentials = existingRefresh.credentials();
+            // kept for the retention time: the requests still holding the previous tokens read the same renewed profile
+            if (credentials.isDone() && !credentials.isCompletedExceptionally()) {
+                return existingRefresh.renewedProfile(profileBuilder);
+            }
+            return Optional.empty();
+        }
+        val refresh = new Refresh(System.currentTimeMillis());
+        if (refreshes.putIfAbsent(refreshToken, refresh) == null) {
+            try {
+                LOGGER.debug("Starting the refresh in background");
+                executor.execute(() -> run(refreshToken, refresh, grant));
+            } catch (final RejectedExecutionException e) {
+                LOGGER.warn("Cannot refresh the tokens in background", e);
+                refreshes.remove(refreshToken, refresh);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void run(final String refreshToken, final Refresh refresh, final Function<String, OidcCredentials> grant) {
+        try {
+            val credentials = grant.apply(refreshToken);
+            if (credentials == null || credentials.getAccessToken() == null) {
+                // nothing to share: the next requests will try again
+                refreshes.remove(refreshToken, refresh);
+            }
+            refresh.credentials().complete(credentials);
+        } catch (final RuntimeException e) {
+            refreshes.remove(refreshToken, refresh);
+            refresh.credentials().completeExceptionally(e);
+        }
+    }
+
+    private void purgeExpiredRefreshes() {
+        if (refreshes.isEmpty()) {
+            return;
+        }
+        val limit = System.currentTimeMillis() - resultRetentionInMilliseconds;
+        refreshes.entrySet().removeIf(entry -> entry.getValue().credentials().isDone() && entry.getValue().startTime() < limit);
+    }
+
+    /**
+     * <p>Setter for the field <code>executor</code>.</p>
+     *
+     * @param executor the executor of the background refreshes
+     */
+    public void setExecutor(final Executor executor) {
+        CommonHelper.assertNotNull("executor", executor);
+        this.executor = executor;
+    }
+
+    private record Refresh(CompletableFuture<OidcCredentials> credentials, CompletableFuture<Optional<UserProfile>> profile,
+                           AtomicBoolean profileBuilt, long startTime) {
+
+        private Refresh(final long startTime) {
+            this(new CompletableFuture<>(), new CompletableFuture<>(), new AtomicBoolean(), startTime);
+        }
+
+        private Optional<UserProfile> renewedProfile(final Function<OidcCredentials, Optional<UserProfile>> profileBuilder) {
+            val refreshedCredentials = CommonHelper.join(credentials);
+            if (profileBuilt.compareAndSet(false, true)) {
+                try {
+                    val renewedProfile = profileBuilder.apply(refreshedCredentials);
+                    profile.complete(renewedProfile);
+                    return renewedProfile;
+                } catch (final RuntimeException e) {
+                    profile.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            try {
+                return CommonHelper.join(profile);
+            } catch (final RuntimeException e) {
+                // the shared profile could not be built: each request builds its own from the refreshed credentials
+                LOGGER.debug("Building the renewed profile again", e);
+                return profileBuilder.apply(refreshedCredentials);
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.nimbusds.oauth2.sdk.ParseException;
 import com.nimbusds.oauth2.sdk.ResponseType;
 import com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod;
 import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.http.HTTPRequestSender;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import com.nimbusds.oauth2.sdk.pkce.CodeChallengeMethod;
 import com.nimbusds.openid.connect.sdk.OIDCResponseTypeValue;
 import lombok.*;
@@ -16,6 +18,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.pac4j.core.client.config.BaseClientConfiguration;
 import org.pac4j.core.config.properties.JwksProperties;
 import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.generator.RandomValueGenerator;
 import org.pac4j.core.util.generator.ValueGenerator;
 import org.pac4j.oidc.client.OidcClient;
@@ -23,9 +26,15 @@ import org.pac4j.oidc.config.method.ClientSecretJwtClientAuthnMethodConfig;
 import org.pac4j.oidc.config.method.IPrivateKeyJwtClientAuthnMethodConfig;
 import org.pac4j.oidc.exceptions.OidcConfigurationException;
 import org.pac4j.oidc.federation.config.OidcFederationProperties;
+import org.pac4j.oidc.http.PooledHttpRequestSender;
+import org.pac4j.oidc.metadata.CachingDocumentRetriever;
 import org.pac4j.oidc.metadata.IOidcOpMetadataResolver;
 import org.pac4j.oidc.metadata.OidcFederationOpMetadataResolver;
 import org.pac4j.oidc.metadata.OidcOpMetadataResolver;
+import org.pac4j.oidc.profile.OidcTokenVault;
+import org.pac4j.oidc.profile.creator.CachedUserInfo;
+import org.pac4j.oidc.util.AuthenticationStateStore;
+import org.pac4j.oidc.util.CookieAuthenticationStateStore;
 import org.pac4j.oidc.util.SessionStoreValueRetriever;
 import org.pac4j.oidc.util.ValueRetriever;
 
@@ -139,6 +148,31 @@ public class OidcConfiguration extends BaseClientConfiguration {
      */
     public static final int DEFAULT_TOKEN_EXPIRATION_ADVANCE = 0;
 
+    /**
+     * Constant <code>DEFAULT_JWKS_CACHE_TIME_TO_LIVE=300</code>
+     */
+    public static final int DEFAULT_JWKS_CACHE_TIME_TO_LIVE = 300;
+
+    /**
+     * Constant <code>DEFAULT_JWKS_REFRESH_AHEAD_TIME=30</code>
+     */
+    public static final int DEFAULT_JWKS_REFRESH_AHEAD_TIME = 30;
+
+    /**
+     * Constant <code>DEFAULT_JWKS_RATE_LIMIT_INTERVAL=30</code>
+     */
+    public static final int DEFAULT_JWKS_RATE_LIMIT_INTERVAL = 30;
+
+    /**
+     * Constant <code>DEFAULT_JWKS_OUTAGE_TOLERANCE=3600</code>
+     */
+    public static final int DEFAULT_JWKS_OUTAGE_TOLERANCE = 3600;
+
+    /**
+     * Constant <code>DEFAULT_USER_INFO_CACHE_MAX_TTL=300</code>
+     */
+    public static final int DEFAULT_USER_INFO_CACHE_MAX_TTL = 300;
+
     private OidcFederationProperties federation = new OidcFederationProperties();
 
     private JwksProperties rpJwks = new JwksProperties();
@@ -196,6 +230,22 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private ResourceRetriever resourceRetriever;
 
+    /* directory where the last retrieved OP documents (discovery document, JWKS) are saved to be reused after a restart:
+       enables the conditional requests of the CachingDocumentRetriever */
+    private String metadataCacheDirectory;
+
+    /* time to live (in seconds) of the cached JWKS of the OP */
+    private int jwksCacheTimeToLive = DEFAULT_JWKS_CACHE_TIME_TO_LIVE;
+
+    /* time (in seconds) before the expiration of the cached JWKS when it is refreshed in the background, 0 to disable */
+    private int jwksRefreshAheadTime = DEFAULT_JWKS_REFRESH_AHEAD_TIME;
+
+    /* minimum interval (in seconds) between two JWKS retrievals (for unknown keys), 0 to disable the rate limiting */
+    private int jwksRateLimitInterval = DEFAULT_JWKS_RATE_LIMIT_INTERVAL;
+
+    /* time (in seconds) the last JWKS is still used when the OP is unreachable, 0 to disable */
+    private int jwksOutageTolerance = DEFAULT_JWKS_OUTAGE_TOLERANCE;
+
     private ResponseType responseType = AUTHORIZATION_CODE_FLOWS.get(0);
 
     private String responseMode;
@@ -218,6 +268,9 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private ValueRetriever valueRetriever = new SessionStoreValueRetriever();
 
+    /* saves the state, nonce and code verifier as one entry per authorization request (one session attribute per value if null) */
+    private AuthenticationStateStore authenticationStateStore;
+
     /* checks if sessions expire with token expiration (see also `tokenExpirationAdvance`) */
     private boolean expireSessionWithToken = true;
 
@@ -226,6 +279,12 @@ public class OidcConfiguration extends BaseClientConfiguration {
      */
     private int tokenExpirationAdvance = DEFAULT_TOKEN_EXPIRATION_ADVANCE;
 
+    /**
+     * time period (in seconds) before the expiration of an access token (minus the `tokenExpirationAdvance`)
+     * during which it is refreshed in the background, 0 to disable
+     */
+    private int proactiveTokenRefreshTime;
+
     private boolean allowUnsignedIdTokens;
 
     /**
@@ -240,8 +299,20 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private SSLSocketFactory sslSocketFactory;
 
+    /* sender of the back-channel requests (token, user info, PAR), a new connection per request when null */
+    private HTTPRequestSender httpRequestSender;
+
     private boolean callUserInfoEndpoint = true;
 
+    /* cache of the UserInfo claims per access token for the bearer calls, disabled when null */
+    private Store<String, CachedUserInfo> userInfoStore;
+
+    /* maximum time to live (in seconds) of the cached UserInfo claims */
+    private int userInfoCacheMaxTtl = DEFAULT_USER_INFO_CACHE_MAX_TTL;
+
+    /* server-side vault of the tokens of the profiles (which only keep a handle), disabled when null */
+    private OidcTokenVault tokenVault;
+
     private HostnameVerifier hostnameVerifier;
 
     protected IOidcOpMetadataResolver opMetadataResolver;
@@ -286,9 +357,21 @@ public class OidcConfiguration extends BaseClientConfiguration {
                 + "this is a bad practice even if you have increased the header response size for the RP/OP");
         }
 
+        if (authenticationStateStore != null && useNonce && useNonceOnRefresh) {
+            throw new OidcConfigurationException("The nonce cannot be checked on refresh with an authenticationStateStore: "
+                + "disable the useNonceOnRefresh setting");
+        }
+        if (authenticationStateStore instanceof CookieAuthenticationStateStore cookieAuthenticationStateStore) {
+            cookieAuthenticationStateStore.checkSecret();
+        }
+
+        if (httpRequestSender instanceof PooledHttpRequestSender) {
+            PooledHttpRequestSender.checkConfiguration(this);
+        }
+
         if (forceReinit || getResourceRetriever() == null) {
             try {
-                setResourceRetriever(new OidcResourceRetriever());
+                setResourceRetriever(metadataCacheDirectory != null ? new CachingDocumentRetriever(this) : new OidcResourceRetriever());
             } catch (final Exception e) {
                 throw new OidcConfigurationException("SSLFactory loaded fail, please check your configuration");
             }
@@ -421,6 +504,21 @@ public class OidcConfiguration extends BaseClientConfiguration {
         request.setHostnameVerifier(hostnameVerifier);
     }
 
+    /**
+     * Configure and send a back-channel request to the OP, with the <code>httpRequestSender</code> if defined.
+     *
+     * @param request a {@link HTTPRequest} object
+     * @return the response
+     * @throws IOException if the request fails
+     */
+    public HTTPResponse sendHttpRequest(final HTTPRequest request) throws IOException {
+        configureHttpRequest(request);
+        if (httpRequestSender != null) {
+            return request.send(httpRequestSender);
+        }
+        return request.send();
+    }
+
     /**
      * Use {@code getResourceRetriever()}
      */
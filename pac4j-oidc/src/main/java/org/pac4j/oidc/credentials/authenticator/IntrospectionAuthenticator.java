@@ -0,0 +1,239 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.oauth2.sdk.TokenIntrospectionRequest;
+import com.nimbusds.oauth2.sdk.TokenIntrospectionResponse;
+import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.profile.ProfileHelper;
+import org.pac4j.core.profile.definition.ProfileDefinitionAware;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.exceptions.OidcConfigurationException;
+import org.pac4j.oidc.exceptions.OidcException;
+import org.pac4j.oidc.profile.OidcProfile;
+import org.pac4j.oidc.profile.OidcProfileDefinition;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates the access tokens against the introspection endpoint of the OP (RFC 7662), typically behind a
+ * <code>HeaderClient</code> reading the bearer tokens.
+ *
+ * The introspection endpoint and the client authentication are the ones of the (initialized) OIDC configuration.
+ * The results (active or inactive) can be cached in a <code>store</code> until the token expires,
+ * and the concurrent introspections of the same token are coalesced into a single request.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString
+@Slf4j
+public class IntrospectionAuthenticator extends ProfileDefinitionAware implements Authenticator {
+
+    /**
+     * Constant <code>DEFAULT_MAX_CACHE_TTL=300</code>
+     */
+    public static final int DEFAULT_MAX_CACHE_TTL = 300;
+
+    /**
+     * Constant <code>DEFAULT_INACTIVE_TOKEN_CACHE_TTL=30</code>
+     */
+    public static final int DEFAULT_INACTIVE_TOKEN_CACHE_TTL = 30;
+
+    private OidcConfiguration configuration;
+
+    /* the introspection results, keyed by the digest of the token */
+    private Store<String, IntrospectionResult> store;
+
+    /* the maximum time (in seconds) an active result is cached */
+    private int maxCacheTtl = DEFAULT_MAX_CACHE_TTL;
+
+    /* the time (in seconds) an inactive result is cached */
+    private int inactiveTokenCacheTtl = DEFAULT_INACTIVE_TOKEN_CACHE_TTL;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final Map<String, CompletableFuture<IntrospectionResult>> introspections = new ConcurrentHashMap<>();
+
+    /**
+     * <p>Constructor for IntrospectionAuthenticator.</p>
+     */
+    public IntrospectionAuthenticator() {}
+
+    /**
+     * <p>Constructor for IntrospectionAuthenticator.</p>
+     *
+     * @param configuration the OIDC configuration
+     */
+    public IntrospectionAuthenticator(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("configuration", configuration);
+        setProfileDefinitionIfUndefined(new OidcProfileDefinition());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Credentials> validate(final CallContext ctx, final Credentials cred) {
+        init();
+
+        val credentials = (TokenCredentials) cred;
+        val token = credentials.getToken();
+        if (StringUtils.isBlank(token)) {
+            LOGGER.info("Empty token");
+            return Optional.empty();
+        }
+
+        val result = introspect(token);
+        if (!result.isActive()) {
+            LOGGER.debug("Inactive token");
+            return Optional.empty();
+        }
+
+        credentials.setUserProfile(buildProfile(token, result));
+        return Optional.of(credentials);
+    }
+
+    /**
+     * Introspect the token: from the cache, by waiting for the introspection already in progress for this token
+     * or by calling the introspection endpoint.
+     *
+     * @param token the access token
+     * @return the introspection result
+     */
+    protected IntrospectionResult introspect(final String token) {
+        val key = computeCacheKey(token);
+        if (store != null) {
+            val cachedResult = store.get(key);
+            if (cachedResult.isPresent()) {
+                if (cachedResult.get().getExpirationTime() > System.currentTimeMillis()) {
+                    LOGGER.debug("Introspection result found in cache");
+                    return cachedResult.get();
+                }
+                store.remove(key);
+            }
+        }
+
+        val introspection = new CompletableFuture<IntrospectionResult>();
+        val existingIntrospection = introspections.putIfAbsent(key, introspection);
+        if (existingIntrospection != null) {
+            LOGGER.debug("Waiting for the introspection already in progress");
+            return CommonHelper.join(existingIntrospection);
+        }
+        final IntrospectionResult result;
+        try {
+            result = callIntrospectionEndpoint(token);
+        } catch (final RuntimeException e) {
+            introspections.remove(key, introspection);
+            introspection.completeExceptionally(e);
+            throw e;
+        }
+        // the result is stored and the introspection removed atomically: a new request finds either one or the other
+        introspections.compute(key, (k, current) -> {
+            if (store != null && result.getExpirationTime() > System.currentTimeMillis()) {
+                store.set(key, result);
+            }
+            return current == introspection ? null : current;
+        });
+        introspection.complete(result);
+        return result;
+    }
+
+    /**
+     * Call the introspection endpoint of the OP.
+     *
+     * @param token the access token
+     * @return the introspection result
+     */
+    protected IntrospectionResult callIntrospectionEndpoint(final String token) {
+        val metadataResolver = configuration.getOpMetadataResolver();
+        val endpoint = metadataResolver.load().getIntrospectionEndpointURI();
+        if (endpoint == null) {
+            throw new OidcConfigurationException("No introspection endpoint defined in the OP metadata");
+        }
+        try {
+            val request = new TokenIntrospectionRequest(endpoint, metadataResolver.getClientAuthenticationTokenEndpoint(),
+                new BearerAccessToken(token));
+            val httpResponse = configuration.sendHttpRequest(request.toHTTPRequest());
+            LOGGER.debug("Introspection response: status={}", httpResponse.getStatusCode());
+
+            val response = TokenIntrospectionResponse.parse(httpResponse);
+            if (!response.indicatesSuccess()) {
+                throw new OidcException("Bad introspection response, error=" + response.toErrorResponse().getErrorObject());
+            }
+            val successResponse = response.toSuccessResponse();
+            val now = System.currentTimeMillis();
+            if (!successResponse.isActive()) {
+                return new IntrospectionResult(false, null, now + inactiveTokenCacheTtl * 1000L);
+            }
+            var expirationTime = now + maxCacheTtl * 1000L;
+            val tokenExpiration = successResponse.getExpirationTime();
+            if (tokenExpiration != null) {
+                expirationTime = Math.min(expirationTime, tokenExpiration.getTime());
+            }
+            return new IntrospectionResult(true, successResponse.toJSONObject().toJSONString(), expirationTime);
+        } catch (final IOException | ParseException e) {
+            throw new OidcException(e);
+        }
+    }
+
+    /**
+     * Build the user profile from the introspection claims.
+     *
+     * @param token the access token
+     * @param result the introspection result
+     * @return the user profile
+     */
+    protected OidcProfile buildProfile(final String token, final IntrospectionResult result) {
+        final JWTClaimsSet claimsSet;
+        try {
+            claimsSet = JWTClaimsSet.parse(result.getClaims());
+        } catch (final java.text.ParseException e) {
+            throw new OidcException(e);
+        }
+        val profile = (OidcProfile) getProfileDefinition().newProfile();
+        profile.setAccessToken(new BearerAccessToken(token));
+        val subject = claimsSet.getSubject();
+        val id = StringUtils.isNotBlank(subject) ? subject : (String) claimsSet.getClaim("username");
+        if (StringUtils.isNotBlank(id)) {
+            profile.setId(ProfileHelper.sanitizeIdentifier(id));
+        }
+        getProfileDefinition().convertAndAdd(profile, claimsSet.getClaims(), null);
+        LOGGER.debug("profile: {}", profile);
+        return profile;
+    }
+
+    /**
+     * Compute the cache key of a token (the token itself is not stored).
+     *
+     * @param token the access token
+     * @return the cache key
+     */
+    protected String computeCacheKey(final String token) {
+        return CommonHelper.sha256Base64Url(token);
+    }
+}
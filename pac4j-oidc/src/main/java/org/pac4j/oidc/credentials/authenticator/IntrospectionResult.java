@@ -0,0 +1,43 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The result of the introspection of an access token, cached by the {@link IntrospectionAuthenticator}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@ToString
+public class IntrospectionResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2580443514736406227L;
+
+    /** Whether the token is active. */
+    private final boolean active;
+
+    /** The introspection claims (JSON), <code>null</code> for an inactive token. */
+    private final String claims;
+
+    /** When this result expires (in milliseconds): the token expiration, bounded by the cache TTL of the authenticator. */
+    private final long expirationTime;
+
+    /**
+     * <p>Constructor for IntrospectionResult.</p>
+     *
+     * @param active whether the token is active
+     * @param claims the introspection claims (JSON)
+     * @param expirationTime the expiration time of the cache entry
+     */
+    public IntrospectionResult(final boolean active, final String claims, final long expirationTime) {
+        this.active = active;
+        this.claims = claims;
+        this.expirationTime = expirationTime;
+    }
+}
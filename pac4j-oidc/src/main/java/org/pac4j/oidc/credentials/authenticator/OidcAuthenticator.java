@@ -15,6 +15,7 @@ import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
 import org.pac4j.oidc.exceptions.OidcException;
 import org.pac4j.oidc.exceptions.OidcTokenException;
+import org.pac4j.oidc.util.AuthenticationState;
 
 import java.io.IOException;
 import java.net.URI;
@@ -58,8 +59,16 @@ public class OidcAuthenticator implements Authenticator {
             if (code != null) {
                 try {
                     val computedCallbackUrl = client.computeFinalCallbackUrl(ctx.webContext());
-                    var verifier = (CodeVerifier) configuration.getValueRetriever()
-                        .retrieve(ctx, client.getCodeVerifierSessionAttributeName(), client).orElse(null);
+                    final CodeVerifier verifier;
+                    if (configuration.getAuthenticationStateStore() != null) {
+                        verifier = client.findAuthenticationState(ctx.webContext())
+                            .map(AuthenticationState::getCodeVerifier)
+                            .map(CodeVerifier::new)
+                            .orElse(null);
+                    } else {
+                        verifier = (CodeVerifier) configuration.getValueRetriever()
+                            .retrieve(ctx, client.getCodeVerifierSessionAttributeName(), client).orElse(null);
+                    }
                     // Token request
                     val request = createTokenRequest(new AuthorizationCodeGrant(code, new URI(computedCallbackUrl), verifier));
                     executeTokenRequest(request, credentials);
@@ -109,9 +118,7 @@ public class OidcAuthenticator implements Authenticator {
 
     private void executeTokenRequest(Request request, OidcCredentials credentials) throws IOException, ParseException {
         val tokenHttpRequest = request.toHTTPRequest();
-        configuration.configureHttpRequest(tokenHttpRequest);
-
-        val httpResponse = tokenHttpRequest.send();
+        val httpResponse = configuration.sendHttpRequest(tokenHttpRequest);
         LOGGER.debug("Token response: status={}, content={}", httpResponse.getStatusCode(), httpResponse.getBody());
 
         val response = OIDCTokenResponseParser.parse(httpResponse);
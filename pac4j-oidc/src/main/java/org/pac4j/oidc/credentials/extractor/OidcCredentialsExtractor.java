@@ -141,7 +141,21 @@ public class OidcCredentialsExtractor implements CredentialsExtractor {
                                                       "'");
             }
 
-            if (configuration.isWithState()) {
+            val authenticationStateStore = configuration.getAuthenticationStateStore();
+            if (authenticationStateStore != null) {
+                val responseState = successResponse.getState();
+                if (configuration.isWithState() && responseState == null) {
+                    throw new OidcMissingStateParameterException("Missing state parameter");
+                }
+                // retrieved by the state returned by the OP, so it validates the state for CSRF mitigation
+                val authenticationState = authenticationStateStore
+                    .remove(ctx, client, configuration.isWithState() ? responseState.getValue() : null)
+                    .orElseThrow(() -> new OidcMissingSessionStateException("State cannot be determined"));
+                ctx.webContext().setRequestAttribute(client.getAuthenticationStateAttributeName(), authenticationState);
+                if (!configuration.isWithState()) {
+                    OidcRedirectionActionBuilder.ANNOUNCE_WITH_STATE_DISABLED.announce();
+                }
+            } else if (configuration.isWithState()) {
                 // Validate state for CSRF mitigation
                 val requestState = (State) configuration.getValueRetriever()
                     .retrieve(ctx, client.getStateSessionAttributeName(), client)
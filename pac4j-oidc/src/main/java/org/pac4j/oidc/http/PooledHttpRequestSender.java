@@ -0,0 +1,322 @@
+package org.pac4j.oidc.http;
+
+import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.http.HTTPRequestSender;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+import com.nimbusds.oauth2.sdk.http.ReadOnlyHTTPRequest;
+import com.nimbusds.oauth2.sdk.http.ReadOnlyHTTPResponse;
+import lombok.Getter;
+import lombok.val;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oidc.config.OidcConfiguration;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A sender of the back-channel requests to the OP (token, user info, PAR...) based on a shared {@link HttpClient}:
+ * the connections are pooled and kept alive, and HTTP/2 is used (and multiplexed) when the OP supports it.
+ *
+ * It collects the latency of the requests per endpoint and the number of requests in progress.
+ *
+ * The connect timeout and the SSL settings belong to the {@link HttpClient}: the read timeout of a request is applied
+ * (along with its connect timeout as the {@link HttpClient} has no per-request connect timeout) but a request with its own
+ * SSL socket factory or hostname verifier is rejected. Redirections are not followed (like for the default sender).
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public class PooledHttpRequestSender implements HTTPRequestSender {
+
+    /** The headers which cannot be set on a {@link HttpRequest}: they are managed by the {@link HttpClient}. */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    @Getter
+    private final HttpClient httpClient;
+
+    private final Map<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+
+    private final LongAccumulator maxInFlightRequests = new LongAccumulator(Math::max, 0);
+
+    /**
+     * <p>Constructor for PooledHttpRequestSender.</p>
+     */
+    public PooledHttpRequestSender() {
+        this(HttpConstants.DEFAULT_CONNECT_TIMEOUT, null);
+    }
+
+    /**
+     * <p>Constructor for PooledHttpRequestSender.</p>
+     *
+     * @param configuration the OIDC configuration (connect timeout), which must not define an SSL socket factory
+     *                      or a hostname verifier
+     * @param sslContext the SSL context (<code>null</code> for the default one)
+     */
+    public PooledHttpRequestSender(final OidcConfiguration configuration, final SSLContext sslContext) {
+        this(configuration.getConnectTimeout(), sslContext);
+        checkConfiguration(configuration);
+    }
+
+    /**
+     * <p>Constructor for PooledHttpRequestSender.</p>
+     *
+     * @param connectTimeout the connect timeout in milliseconds
+     * @param sslContext the SSL context (<code>null</code> for the default one)
+     */
+    public PooledHttpRequestSender(final int connectTimeout, final SSLContext sslContext) {
+        this(buildHttpClient(connectTimeout, sslContext));
+    }
+
+    /**
+     * <p>Constructor for PooledHttpRequestSender.</p>
+     *
+     * @param httpClient the HTTP client
+     */
+    public PooledHttpRequestSender(final HttpClient httpClient) {
+        CommonHelper.assertNotNull("httpClient", httpClient);
+        this.httpClient = httpClient;
+    }
+
+    private static HttpClient buildHttpClient(final int connectTimeout, final SSLContext sslContext) {
+        val builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NEVER);
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Check that the OIDC configuration does not define SSL settings, which cannot be applied to the {@link HttpClient}.
+     *
+     * @param configuration the OIDC configuration
+     */
+    public static void checkConfiguration(final OidcConfiguration configuration) {
+        if (configuration.getSslSocketFactory() != null || configuration.getHostnameVerifier() != null) {
+            throw new TechnicalException("The sslSocketFactory and hostnameVerifier settings cannot be applied by the "
+                + "PooledHttpRequestSender: use its SSLContext instead");
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ReadOnlyHTTPResponse send(final ReadOnlyHTTPRequest request) throws IOException {
+        if (request instanceof HTTPRequest httpRequest
+            && (httpRequest.getSSLSocketFactory() != null || httpRequest.getHostnameVerifier() != null)) {
+            throw new TechnicalException("A request with its own SSL socket factory or hostname verifier cannot be sent by the "
+                + "PooledHttpRequestSender: " + request.getURI());
+        }
+        val endpointMetrics = metrics.computeIfAbsent(endpointOf(request.getURI()), k -> new EndpointMetrics());
+        maxInFlightRequests.accumulate(inFlightRequests.incrementAndGet());
+        val start = System.nanoTime();
+        try {
+            val response = httpClient.send(buildRequest(request), HttpResponse.BodyHandlers.ofString());
+            endpointMetrics.record(System.nanoTime() - start, response.version() == HttpClient.Version.HTTP_2, false);
+            return buildResponse(response);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            endpointMetrics.record(System.nanoTime() - start, false, true);
+            throw new InterruptedIOException("Request interrupted: " + request.getURI());
+        } catch (final IOException | RuntimeException e) {
+            endpointMetrics.record(System.nanoTime() - start, false, true);
+            throw e;
+        } finally {
+            inFlightRequests.decrementAndGet();
+        }
+    }
+
+    /**
+     * Build the request of the {@link HttpClient}.
+     *
+     * @param request the Nimbus request
+     * @return the request
+     */
+    protected HttpRequest buildRequest(final ReadOnlyHTTPRequest request) {
+        val body = request.getBody();
+        val builder = HttpRequest.newBuilder(request.getURI())
+            .method(request.getMethod().name(),
+                body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        if (request.getReadTimeout() > 0) {
+            // the request timeout includes the connection
+            builder.timeout(Duration.ofMillis(request.getReadTimeout() + Math.max(request.getConnectTimeout(), 0)));
+        }
+        for (val header : request.getHeaderMap().entrySet()) {
+            if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                for (val value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build the Nimbus response.
+     *
+     * @param response the response of the {@link HttpClient}
+     * @return the Nimbus response
+     * @throws IOException if the response cannot be converted
+     */
+    protected HTTPResponse buildResponse(final HttpResponse<String> response) throws IOException {
+        val httpResponse = new HTTPResponse(response.statusCode());
+        for (val header : response.headers().map().entrySet()) {
+            if (!header.getKey().startsWith(":")) {
+                httpResponse.setHeader(header.getKey(), header.getValue().toArray(new String[0]));
+            }
+        }
+        val contentType = response.headers().firstValue(HttpConstants.CONTENT_TYPE_HEADER);
+        if (contentType.isPresent()) {
+            try {
+                httpResponse.setContentType(contentType.get());
+            } catch (final ParseException e) {
+                throw new IOException("Invalid content type: " + contentType.get(), e);
+            }
+        }
+        httpResponse.setBody(response.body());
+        return httpResponse;
+    }
+
+    private static String endpointOf(final URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority() + (uri.getRawPath() != null ? uri.getRawPath() : "");
+    }
+
+    /**
+     * Return the metrics per endpoint (scheme, host, port and path of the URL).
+     *
+     * @return the metrics per endpoint
+     */
+    public Map<String, EndpointMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Return the number of requests in progress.
+     *
+     * @return the number of requests in progress
+     */
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    /**
+     * Return the maximum number of requests in progress at the same time.
+     *
+     * @return the maximum number of requests in progress
+     */
+    public long getMaxInFlightRequests() {
+        return maxInFlightRequests.get();
+    }
+
+    /**
+     * Reset all the metrics.
+     */
+    public void resetMetrics() {
+        metrics.clear();
+        maxInFlightRequests.reset();
+    }
+
+    /**
+     * The metrics of an endpoint.
+     */
+    public static class EndpointMetrics {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder http2Count = new LongAdder();
+
+        private final LongAdder totalDuration = new LongAdder();
+
+        private final LongAccumulator maxDuration = new LongAccumulator(Math::max, 0);
+
+        void record(final long durationInNanos, final boolean http2, final boolean error) {
+            count.increment();
+            if (error) {
+                errors.increment();
+            }
+            if (http2) {
+                http2Count.increment();
+            }
+            totalDuration.add(durationInNanos);
+            maxDuration.accumulate(durationInNanos);
+        }
+
+        /**
+         * Return the number of requests.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Return the number of requests which failed without any response (connection error, timeout...).
+         *
+         * @return the count
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * Return the number of responses received over HTTP/2.
+         *
+         * @return the count
+         */
+        public long getHttp2Count() {
+            return http2Count.sum();
+        }
+
+        /**
+         * Return the total duration of the requests.
+         *
+         * @return the total duration in nanoseconds
+         */
+        public long getTotalDuration() {
+            return totalDuration.sum();
+        }
+
+        /**
+         * Return the maximum duration of a request.
+         *
+         * @return the maximum duration in nanoseconds
+         */
+        public long getMaxDuration() {
+            return maxDuration.get();
+        }
+
+        /**
+         * Return the average duration of the requests.
+         *
+         * @return the average duration in nanoseconds
+         */
+        public long getAverageDuration() {
+            val n = count.sum();
+            return n > 0 ? totalDuration.sum() / n : 0;
+        }
+    }
+}
@@ -35,7 +35,7 @@ public class AzureAdOpMetadataResolver extends OidcOpMetadataResolver {
 
     @Override
     protected TokenValidator createTokenValidator() {
-        return new AzureAdTokenValidator(configuration, this.loaded);
+        return new AzureAdTokenValidator(configuration, this.loaded, findReusableJwkSource(this.loaded));
     }
     
     @Override
@@ -0,0 +1,370 @@
+package org.pac4j.oidc.metadata;
+
+import com.nimbusds.jose.util.IOUtils;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.oidc.config.OidcConfiguration;
+
+import javax.net.ssl.HttpsURLConnection;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A retriever of the OP documents (discovery document, JWKS...) which keeps the last retrieved documents
+ * with their validators (<code>ETag</code> and <code>Last-Modified</code> headers) to send conditional requests
+ * (<code>If-None-Match</code> and <code>If-Modified-Since</code> headers): when the document has not changed (304 response),
+ * the kept document is reused.
+ *
+ * It is the resource retriever of the OIDC configuration when a cache directory is defined (<code>metadataCacheDirectory</code>):
+ * the documents are also saved on disk so that their validators can be reused after a restart. A document saved on disk
+ * is always revalidated before being served, it is only served as is if the OP cannot be reached (connection or timeout
+ * error, not an HTTP error status) and if it has been validated less than <code>maxStaleInSeconds</code> ago.
+ * At most <code>maxDocuments</code> documents are kept in memory.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Slf4j
+public class CachingDocumentRetriever implements ResourceRetriever {
+
+    private static final String CONTENT_EXTENSION = ".json";
+
+    private static final String VALIDATORS_EXTENSION = ".properties";
+
+    private static final String URL_PROPERTY = "url";
+
+    private static final String CONTENT_TYPE_PROPERTY = "contentType";
+
+    private static final String ETAG_PROPERTY = "etag";
+
+    private static final String LAST_MODIFIED_PROPERTY = "lastModified";
+
+    private static final String VALIDATION_TIME_PROPERTY = "validationTime";
+
+    /** The default maximum number of documents kept in memory. */
+    public static final int DEFAULT_MAX_DOCUMENTS = 100;
+
+    /** The default maximum age (in seconds) of a document served when the OP cannot be reached. */
+    public static final int DEFAULT_MAX_STALE_IN_SECONDS = 3600;
+
+    private final OidcConfiguration configuration;
+
+    private volatile int maxDocuments = DEFAULT_MAX_DOCUMENTS;
+
+    private volatile int maxStaleInSeconds = DEFAULT_MAX_STALE_IN_SECONDS;
+
+    private final Map<String, CachedDocument> documents = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedDocument> eldest) {
+            return size() > maxDocuments;
+        }
+    });
+
+    /**
+     * <p>Constructor for CachingDocumentRetriever.</p>
+     *
+     * @param configuration the OIDC configuration (timeouts, SSL settings and cache directory)
+     */
+    public CachingDocumentRetriever(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Resource retrieveResource(final URL url) throws IOException {
+        try {
+            val result = retrieveDocument(url);
+            return new Resource(result.content(), result.contentType());
+        } catch (final IOException e) {
+            // the OP cannot be reached: the last retrieved document is used (for a while)
+            val storedDocument = findFallbackDocument(url, e);
+            if (storedDocument != null) {
+                LOGGER.warn("Cannot retrieve the document: {}, using the last retrieved one", url, e);
+                return new Resource(storedDocument.content(), storedDocument.contentType());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieve a document with a conditional request if it has already been retrieved (in memory or on disk).
+     *
+     * @param url the URL of the document
+     * @return the retrieved document and whether it has been modified since the last retrieval
+     * @throws IOException if the document cannot be retrieved
+     */
+    public DocumentResult retrieveDocument(final URL url) throws IOException {
+        val key = url.toString();
+        val cached = findStoredDocument(url);
+
+        val connection = (HttpURLConnection) url.openConnection();
+        try {
+            customizeConnection(connection);
+            if (cached != null) {
+                if (cached.etag() != null) {
+                    connection.setRequestProperty("If-None-Match", cached.etag());
+                }
+                if (cached.lastModified() != null) {
+                    connection.setRequestProperty("If-Modified-Since", cached.lastModified());
+                }
+            }
+
+            val status = connection.getResponseCode();
+            if (status == HttpConstants.NOT_MODIFIED && cached != null) {
+                LOGGER.debug("Document not modified: {}", url);
+                val revalidated = new CachedDocument(cached.content(), cached.contentType(), cached.etag(), cached.lastModified(),
+                    System.currentTimeMillis());
+                documents.put(key, revalidated);
+                storeDocument(url, revalidated);
+                return new DocumentResult(cached.content(), cached.contentType(), false);
+            } else if (status < HttpConstants.OK || status >= HttpURLConnection.HTTP_MULT_CHOICE) {
+                throw new IOException("Unexpected HTTP status: " + status + " for: " + url);
+            }
+
+            final String content;
+            try (InputStream in = connection.getInputStream()) {
+                content = IOUtils.readInputStreamToString(in, StandardCharsets.UTF_8);
+            }
+            val document = new CachedDocument(content, connection.getContentType(), connection.getHeaderField("ETag"),
+                connection.getHeaderField("Last-Modified"), System.currentTimeMillis());
+            documents.put(key, document);
+            storeDocument(url, document);
+            return new DocumentResult(content, document.contentType(), true);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Find the last retrieved document (not revalidated), in memory or on disk.
+     *
+     * @param url the URL of the document
+     * @return the document or <code>null</code>
+     */
+    public CachedDocument findStoredDocument(final URL url) {
+        val key = url.toString();
+        val cached = documents.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        val directory = getCacheDirectory();
+        if (directory == null) {
+            return null;
+        }
+        val name = fileName(url);
+        val contentFile = directory.resolve(name + CONTENT_EXTENSION);
+        val validatorsFile = directory.resolve(name + VALIDATORS_EXTENSION);
+        if (!Files.isRegularFile(contentFile) || !Files.isRegularFile(validatorsFile)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(validatorsFile)) {
+            val properties = new Properties();
+            properties.load(in);
+            if (!key.equals(properties.getProperty(URL_PROPERTY))) {
+                return null;
+            }
+            val document = new CachedDocument(Files.readString(contentFile, StandardCharsets.UTF_8),
+                properties.getProperty(CONTENT_TYPE_PROPERTY), properties.getProperty(ETAG_PROPERTY),
+                properties.getProperty(LAST_MODIFIED_PROPERTY),
+                Long.parseLong(properties.getProperty(VALIDATION_TIME_PROPERTY, "0")));
+            val previous = documents.putIfAbsent(key, document);
+            LOGGER.info("Document: {} loaded from the cache directory: {}", url, directory);
+            return previous != null ? previous : document;
+        } catch (final IOException | NumberFormatException e) {
+            LOGGER.warn("Cannot read the cached document for: {}", url, e);
+            return null;
+        }
+    }
+
+    /**
+     * Find the last retrieved document to serve when the OP cannot be reached: never for an HTTP error status
+     * (the OP may have removed a compromised key) nor after <code>maxStaleInSeconds</code>.
+     *
+     * @param url the URL of the document
+     * @param e the retrieval error
+     * @return the document or <code>null</code>
+     */
+    public CachedDocument findFallbackDocument(final URL url, final IOException e) {
+        if (!isConnectionError(e)) {
+            return null;
+        }
+        return findRecentStoredDocument(url);
+    }
+
+    /**
+     * Find the last retrieved document (in memory or on disk) if it has been validated less than
+     * <code>maxStaleInSeconds</code> ago.
+     *
+     * @param url the URL of the document
+     * @return the document or <code>null</code>
+     */
+    public CachedDocument findRecentStoredDocument(final URL url) {
+        val stored = findStoredDocument(url);
+        if (stored != null && System.currentTimeMillis() - stored.validationTime() > maxStaleInSeconds * 1000L) {
+            LOGGER.warn("The last retrieved document: {} is too old to be used", url);
+            return null;
+        }
+        return stored;
+    }
+
+    /**
+     * Whether the retrieval error is a connection or timeout error.
+     *
+     * @param e the retrieval error
+     * @return whether the OP cannot be reached
+     */
+    protected boolean isConnectionError(final IOException e) {
+        return e instanceof SocketException || e instanceof SocketTimeoutException || e instanceof UnknownHostException;
+    }
+
+    /**
+     * Save a document on disk (if a cache directory is defined).
+     *
+     * @param url the URL of the document
+     * @param document the document
+     */
+    protected void storeDocument(final URL url, final CachedDocument document) {
+        val directory = getCacheDirectory();
+        if (directory == null) {
+            return;
+        }
+        val name = fileName(url);
+        val properties = new Properties();
+        properties.setProperty(URL_PROPERTY, url.toString());
+        if (document.contentType() != null) {
+            properties.setProperty(CONTENT_TYPE_PROPERTY, document.contentType());
+        }
+        if (document.etag() != null) {
+            properties.setProperty(ETAG_PROPERTY, document.etag());
+        }
+        if (document.lastModified() != null) {
+            properties.setProperty(LAST_MODIFIED_PROPERTY, document.lastModified());
+        }
+        properties.setProperty(VALIDATION_TIME_PROPERTY, String.valueOf(document.validationTime()));
+        try {
+            Files.createDirectories(directory);
+            // write temporary files and move them so that a concurrent reader never sees a partial document
+            val contentFile = Files.createTempFile(directory, name, CONTENT_EXTENSION);
+            Files.writeString(contentFile, document.content(), StandardCharsets.UTF_8);
+            val validatorsFile = Files.createTempFile(directory, name, VALIDATORS_EXTENSION);
+            try (OutputStream out = Files.newOutputStream(validatorsFile)) {
+                properties.store(out, null);
+            }
+            Files.move(contentFile, directory.resolve(name + CONTENT_EXTENSION), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            Files.move(validatorsFile, directory.resolve(name + VALIDATORS_EXTENSION), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot save the document: {} into the cache directory: {}", url, directory, e);
+        }
+    }
+
+    /**
+     * Customize the connection (timeouts and SSL settings).
+     *
+     * @param connection the connection
+     */
+    protected void customizeConnection(final HttpURLConnection connection) {
+        connection.setConnectTimeout(configuration.getConnectTimeout());
+        connection.setReadTimeout(configuration.getReadTimeout());
+        if (connection instanceof HttpsURLConnection httpsConnection) {
+            if (configuration.getSslSocketFactory() != null) {
+                httpsConnection.setSSLSocketFactory(configuration.getSslSocketFactory());
+            }
+            if (configuration.getHostnameVerifier() != null) {
+                httpsConnection.setHostnameVerifier(configuration.getHostnameVerifier());
+            }
+        }
+    }
+
+    /**
+     * <p>Getter for the field <code>maxDocuments</code>.</p>
+     *
+     * @return the maximum number of documents kept in memory
+     */
+    public int getMaxDocuments() {
+        return maxDocuments;
+    }
+
+    /**
+     * <p>Setter for the field <code>maxDocuments</code>.</p>
+     *
+     * @param maxDocuments the maximum number of documents kept in memory
+     */
+    public void setMaxDocuments(final int maxDocuments) {
+        this.maxDocuments = maxDocuments;
+    }
+
+    /**
+     * <p>Getter for the field <code>maxStaleInSeconds</code>.</p>
+     *
+     * @return the maximum age (in seconds) of a document served when the OP cannot be reached
+     */
+    public int getMaxStaleInSeconds() {
+        return maxStaleInSeconds;
+    }
+
+    /**
+     * <p>Setter for the field <code>maxStaleInSeconds</code>.</p>
+     *
+     * @param maxStaleInSeconds the maximum age (in seconds) of a document served when the OP cannot be reached
+     */
+    public void setMaxStaleInSeconds(final int maxStaleInSeconds) {
+        this.maxStaleInSeconds = maxStaleInSeconds;
+    }
+
+    private Path getCacheDirectory() {
+        val directory = configuration.getMetadataCacheDirectory();
+        return directory != null ? Paths.get(directory) : null;
+    }
+
+    private static String fileName(final URL url) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256").digest(url.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A retrieved document with its validators.
+     *
+     * @param content the content
+     * @param contentType the content type
+     * @param etag the <code>ETag</code> header
+     * @param lastModified the <code>Last-Modified</code> header
+     * @param validationTime when the document was last retrieved or revalidated (in milliseconds)
+     */
+    public record CachedDocument(String content, String contentType, String etag, String lastModified, long validationTime) {}
+
+    /**
+     * The result of a document retrieval.
+     *
+     * @param content the content of the document
+     * @param contentType the content type of the document
+     * @param modified whether the document has been modified since the last retrieval
+     */
+    public record DocumentResult(String content, String contentType, boolean modified) {}
+}
@@ -50,6 +50,7 @@ public class OidcFederationOpMetadataResolver extends InitializableObject implem
 
     private final OidcConfiguration configuration;
 
+    @Getter
     private final FederationChainResolver federationChainResolver = new FederationChainResolver();
     private final FederationClientRegister federationClientRegister = new FederationClientRegister();
 
@@ -130,6 +131,10 @@ public class OidcFederationOpMetadataResolver extends InitializableObject implem
     }
 
     protected TokenValidator createTokenValidator() {
+        val currentTokenValidator = this.tokenValidator;
+        if (currentTokenValidator != null && currentTokenValidator.canReuseJwkSourceFor(this.metadata)) {
+            return new TokenValidator(this.configuration, this.metadata, currentTokenValidator.getJwkSource());
+        }
         return new TokenValidator(this.configuration, this.metadata);
     }
 
@@ -1,5 +1,7 @@
 package org.pac4j.oidc.metadata;
 
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jose.util.IOUtils;
 import com.nimbusds.oauth2.sdk.ParseException;
 import com.nimbusds.oauth2.sdk.auth.ClientAuthentication;
@@ -41,6 +43,14 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
     @Getter
     protected TokenValidator tokenValidator;
 
+    private volatile CachingDocumentRetriever documentRetriever;
+
+    private volatile String pendingDocument;
+
+    private volatile boolean justRetrieved;
+
+    private volatile boolean revalidateInBackground;
+
     /**
      * <p>Constructor for OidcOpMetadataResolver.</p>
      *
@@ -74,7 +84,11 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
             loaded.getPushedAuthorizationRequestEndpointURI());
         this.clientAuthPar.buildClientAuthentication();
 
+        val previousTokenValidator = this.tokenValidator;
         this.tokenValidator = createTokenValidator();
+        if (previousTokenValidator != null && previousTokenValidator.getJwkSource() != this.tokenValidator.getJwkSource()) {
+            previousTokenValidator.closeJwkSource();
+        }
     }
 
     /**
@@ -84,6 +98,15 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
      */
     protected OIDCProviderMetadata retrieveMetadata() {
         LOGGER.info("Retrieving OP metadata: {}", resource);
+        if (resource instanceof UrlResource && configuration.getResourceRetriever() instanceof CachingDocumentRetriever retriever) {
+            try {
+                val metadata = retrieveDocument(retriever, resource.getURL());
+                this.documentRetriever = retriever;
+                return OIDCProviderMetadata.parse(metadata);
+            } catch (final IOException | ParseException e) {
+                throw new OidcException("Error getting OP metadata", e);
+            }
+        }
         try (val in = SpringResourceHelper.getResourceInputStream(
             resource,
             null,
@@ -99,8 +122,86 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
         }
     }
 
+    private String retrieveDocument(final CachingDocumentRetriever retriever, final URL url) throws IOException {
+        // the document already downloaded by the change detection
+        val pending = this.pendingDocument;
+        if (pending != null) {
+            this.pendingDocument = null;
+            return pending;
+        }
+        // on startup, the last saved document is used right away and revalidated in the background (background refresh only)
+        if (this.loaded == null && isBackgroundRefresh()) {
+            val stored = retriever.findRecentStoredDocument(url);
+            if (stored != null) {
+                this.revalidateInBackground = true;
+                return stored.content();
+            }
+        }
+        try {
+            val content = retriever.retrieveDocument(url).content();
+            this.justRetrieved = true;
+            return content;
+        } catch (final IOException e) {
+            // on startup, the last saved document is used if the OP cannot be reached
+            val stored = this.loaded == null ? retriever.findFallbackDocument(url, e) : null;
+            if (stored != null) {
+                LOGGER.warn("Cannot retrieve the OP metadata: {}, using the last saved ones", url, e);
+                return stored.content();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Check the changes of the OP metadata with a conditional request: the metadata are only downloaded
+     * (and parsed on reload) if they have changed.
+     *
+     * @return whether the OP metadata have changed
+     */
+    @Override
+    protected boolean hasResourceChanged() {
+        val retriever = this.documentRetriever;
+        if (retriever == null) {
+            return super.hasResourceChanged();
+        }
+        if (justRetrieved) {
+            justRetrieved = false;
+            return false;
+        }
+        if (revalidateInBackground && isBackgroundRefresh()) {
+            revalidateInBackground = false;
+            getRefreshScheduler().execute(this::refreshInBackground);
+            return false;
+        }
+        try {
+            val result = retriever.retrieveDocument(resource.getURL());
+            if (result.modified()) {
+                this.pendingDocument = result.content();
+                return true;
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot check the changes of the OP metadata: {}, keeping the current ones", resource, e);
+        }
+        return false;
+    }
+
     protected TokenValidator createTokenValidator() {
-        return new TokenValidator(configuration, this.loaded);
+        return new TokenValidator(configuration, this.loaded, findReusableJwkSource(this.loaded));
+    }
+
+    /**
+     * Find the source of the OP keys of the current token validator if it can be reused with the new metadata
+     * (to keep the cached keys between the metadata reloads).
+     *
+     * @param metadata the new OP metadata
+     * @return the JWK source or <code>null</code>
+     */
+    protected JWKSource<SecurityContext> findReusableJwkSource(final OIDCProviderMetadata metadata) {
+        val currentTokenValidator = this.tokenValidator;
+        if (currentTokenValidator != null && currentTokenValidator.canReuseJwkSourceFor(metadata)) {
+            return currentTokenValidator.getJwkSource();
+        }
+        return null;
     }
 
     public ClientAuthentication getClientAuthenticationTokenEndpoint() {
@@ -0,0 +1,190 @@
+package org.pac4j.oidc.metadata.chain;
+
+import com.nimbusds.openid.connect.sdk.federation.entities.EntityID;
+import com.nimbusds.openid.connect.sdk.federation.entities.EntityStatement;
+import com.nimbusds.openid.connect.sdk.federation.trust.EntityStatementRetriever;
+import com.nimbusds.openid.connect.sdk.federation.trust.ResolveException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An entity statement retriever which caches the entity configurations and the subordinate statements until they expire
+ * and which coalesces the concurrent fetches of the same statement.
+ *
+ * When an entity configuration is fetched, the entity configurations of its authority hints and the subordinate
+ * statements they issue about it are prefetched in parallel: the trust chains are still built from the leaf
+ * to the trust anchors, but the superiors are already retrieved (or being retrieved) when they are needed.
+ *
+ * The signatures of the statements are still checked for each trust chain validation.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Slf4j
+public class CachingEntityStatementRetriever implements EntityStatementRetriever {
+
+    private static final Executor DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        val thread = new Thread(r, "pac4j-oidc-federation-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Getter
+    private final EntityStatementRetriever delegate;
+
+    private final Map<String, CompletableFuture<EntityStatement>> statements = new ConcurrentHashMap<>();
+
+    @Getter
+    private Executor executor = DEFAULT_EXECUTOR;
+
+    /**
+     * <p>Constructor for CachingEntityStatementRetriever.</p>
+     *
+     * @param delegate the retriever fetching the statements
+     */
+    public CachingEntityStatementRetriever(final EntityStatementRetriever delegate) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        this.delegate = delegate;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public EntityStatement fetchEntityConfiguration(final EntityID target) throws ResolveException {
+        return await(fetchEntityConfigurationAsync(target));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public EntityStatement fetchEntityStatement(final URI federationAPIEndpoint, final EntityID issuer, final EntityID subject)
+        throws ResolveException {
+        return await(fetchEntityStatementAsync(federationAPIEndpoint, issuer, subject));
+    }
+
+    private CompletableFuture<EntityStatement> fetchEntityConfigurationAsync(final EntityID target) {
+        return fetch("configuration|" + target.getValue(), () -> {
+            val statement = delegate.fetchEntityConfiguration(target);
+            prefetchSuperiors(statement);
+            return statement;
+        });
+    }
+
+    private CompletableFuture<EntityStatement> fetchEntityStatementAsync(final URI federationAPIEndpoint, final EntityID issuer,
+                                                                         final EntityID subject) {
+        return fetch("statement|" + federationAPIEndpoint + "|" + issuer.getValue() + "|" + subject.getValue(),
+            () -> delegate.fetchEntityStatement(federationAPIEndpoint, issuer, subject));
+    }
+
+    private CompletableFuture<EntityStatement> fetch(final String key, final Fetch fetch) {
+        val existingStatement = statements.get(key);
+        if (existingStatement != null && !isExpired(existingStatement)) {
+            return existingStatement;
+        }
+        if (existingStatement != null) {
+            statements.remove(key, existingStatement);
+        }
+        val statement = new CompletableFuture<EntityStatement>();
+        val previousStatement = statements.putIfAbsent(key, statement);
+        if (previousStatement != null) {
+            return previousStatement;
+        }
+        try {
+            LOGGER.debug("Fetching: {}", key);
+            statement.complete(fetch.get());
+        } catch (final ResolveException | RuntimeException e) {
+            // not cached: the next resolution will try again
+            statements.remove(key, statement);
+            statement.completeExceptionally(e);
+        }
+        return statement;
+    }
+
+    private void prefetchSuperiors(final EntityStatement statement) {
+        val authorityHints = statement.getClaimsSet().getAuthorityHints();
+        if (authorityHints == null || authorityHints.isEmpty()) {
+            return;
+        }
+        val subject = statement.getEntityID();
+        for (val authority : authorityHints) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        val authorityConfiguration = await(fetchEntityConfigurationAsync(authority));
+                        val federationEntityMetadata = authorityConfiguration.getClaimsSet().getFederationEntityMetadata();
+                        if (federationEntityMetadata != null && federationEntityMetadata.getFederationFetchEndpointURI() != null) {
+                            await(fetchEntityStatementAsync(federationEntityMetadata.getFederationFetchEndpointURI(), authority,
+                                subject));
+                        }
+                    } catch (final ResolveException | RuntimeException e) {
+                        LOGGER.debug("Cannot prefetch the superior: {} of: {}", authority, subject, e);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                LOGGER.debug("Cannot prefetch the superior: {}", authority, e);
+            }
+        }
+    }
+
+    private static boolean isExpired(final CompletableFuture<EntityStatement> statement) {
+        if (!statement.isDone()) {
+            return false;
+        }
+        if (statement.isCompletedExceptionally()) {
+            return true;
+        }
+        val expirationTime = statement.join().getClaimsSet().getExpirationTime();
+        return expirationTime == null || expirationTime.getTime() <= System.currentTimeMillis();
+    }
+
+    private static EntityStatement await(final CompletableFuture<EntityStatement> statement) throws ResolveException {
+        try {
+            return CommonHelper.join(statement);
+        } catch (final TechnicalException e) {
+            if (e.getCause() instanceof ResolveException resolveException) {
+                throw resolveException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove all the cached statements.
+     */
+    public void clear() {
+        statements.clear();
+    }
+
+    /**
+     * Return the number of cached statements.
+     *
+     * @return the number of cached statements
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * <p>Setter for the field <code>executor</code>.</p>
+     *
+     * @param executor the executor of the prefetches
+     */
+    public void setExecutor(final Executor executor) {
+        CommonHelper.assertNotNull("executor", executor);
+        this.executor = executor;
+    }
+
+    @FunctionalInterface
+    private interface Fetch {
+        EntityStatement get() throws ResolveException;
+    }
+}
@@ -5,6 +5,7 @@ import com.nimbusds.openid.connect.sdk.federation.entities.EntityID;
 import com.nimbusds.openid.connect.sdk.federation.entities.EntityType;
 import com.nimbusds.openid.connect.sdk.federation.policy.language.PolicyViolationException;
 import com.nimbusds.openid.connect.sdk.federation.trust.*;
+import com.nimbusds.openid.connect.sdk.federation.trust.constraints.TrustChainConstraints;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import lombok.Getter;
 import lombok.Setter;
@@ -39,6 +40,9 @@ public class FederationChainResolver {
 
     private long expiryMargin = 2 * 60 * 1000L;
 
+    /* the retriever of the entity statements, kept between resolutions for its cache */
+    private volatile EntityStatementRetriever entityStatementRetriever;
+
     public ResolutionResult resolve(final OidcConfiguration configuration) {
         val entityId = configuration.getFederation().getEntityId();
         LOGGER.info("Resolving federation chain for RP: {}", entityId);
@@ -46,7 +50,8 @@ public class FederationChainResolver {
         val anchors = loadTrustAnchors(configuration);
         LOGGER.debug("Loaded {} trust anchor(s)", anchors.size());
 
-        val resolver = new TrustChainResolver(anchors, configuration.getConnectTimeout(), configuration.getReadTimeout());
+        val resolver = new TrustChainResolver(anchors, TrustChainConstraints.NO_CONSTRAINTS,
+            getOrCreateEntityStatementRetriever(configuration));
 
         val targetIssuer = new EntityID(configuration.getFederation().getTargetOp());
         LOGGER.debug("OP target issuer: {}", targetIssuer);
@@ -75,6 +80,27 @@ public class FederationChainResolver {
         return opResolution;
     }
 
+    /**
+     * Return the retriever of the entity statements: by default, the statements are cached until they expire
+     * and the superiors are fetched in parallel.
+     *
+     * @param configuration the OIDC configuration
+     * @return the retriever of the entity statements
+     */
+    protected synchronized EntityStatementRetriever getOrCreateEntityStatementRetriever(final OidcConfiguration configuration) {
+        if (entityStatementRetriever == null) {
+            val httpRequestSender = configuration.getHttpRequestSender();
+            final EntityStatementRetriever delegate;
+            if (httpRequestSender != null) {
+                delegate = new DefaultEntityStatementRetriever(httpRequestSender);
+            } else {
+                delegate = new DefaultEntityStatementRetriever(configuration.getConnectTimeout(), configuration.getReadTimeout());
+            }
+            entityStatementRetriever = new CachingEntityStatementRetriever(delegate);
+        }
+        return entityStatementRetriever;
+    }
+
     protected TrustChain resolve(final TrustChainResolver resolver, final EntityMetadataValidator validator, final EntityID entityID) {
         TrustChainSet resolvedChains;
         try {
@@ -80,8 +80,7 @@ public class FederationClientRegister {
             val request = new HTTPRequest(HTTPRequest.Method.POST, registrationEndpoint);
             request.setContentType("application/jose");
             request.setBody(entityConfig);
-            configuration.configureHttpRequest(request);
-            val response = request.send();
+            val response = configuration.sendHttpRequest(request);
             val code = response.getStatusCode();
             val error = response.getStatusMessage();
             val content = response.getContent();
@@ -36,6 +36,12 @@ public class OidcProfile extends AbstractJwtProfile {
     @Serial
     private static final long serialVersionUID = -52855988661742374L;
 
+    @ToString.Exclude
+    private transient OidcTokenVault tokenVault;
+
+    @ToString.Exclude
+    private transient VaultedTokens vaultedTokens;
+
     @Override
     @JsonIgnore
     public String getFirstName() {
@@ -152,7 +158,7 @@ public class OidcProfile extends AbstractJwtProfile {
     @JsonIgnore
     public AccessToken getAccessToken() {
         try {
-            val accessTokenObject = getAttribute(OidcProfileDefinition.ACCESS_TOKEN);
+            val accessTokenObject = getTokenAttribute(OidcProfileDefinition.ACCESS_TOKEN);
             if (accessTokenObject != null) {
                 val accessTokenBase64 = accessTokenObject.toString();
                 val base64Decoded = new String(Base64.getDecoder().decode(accessTokenBase64), StandardCharsets.UTF_8);
@@ -167,7 +173,7 @@ public class OidcProfile extends AbstractJwtProfile {
 
     @JsonIgnore
     public String getIdTokenString() {
-        return (String) getAttribute(OidcProfileDefinition.ID_TOKEN);
+        return (String) getTokenAttribute(OidcProfileDefinition.ID_TOKEN);
     }
 
     public void setIdTokenString(final String idToken) {
@@ -190,7 +196,7 @@ public class OidcProfile extends AbstractJwtProfile {
     @JsonIgnore
     public RefreshToken getRefreshToken() {
         try {
-            val refreshTokenObject = getAttribute(OidcProfileDefinition.REFRESH_TOKEN);
+            val refreshTokenObject = getTokenAttribute(OidcProfileDefinition.REFRESH_TOKEN);
             if (refreshTokenObject != null) {
                 return new RefreshToken(refreshTokenObject.toString());
             }
@@ -211,6 +217,44 @@ public class OidcProfile extends AbstractJwtProfile {
         removeAttribute(OidcProfileDefinition.ID_TOKEN);
         removeAttribute(OidcProfileDefinition.ACCESS_TOKEN);
         removeAttribute(OidcProfileDefinition.REFRESH_TOKEN);
+        removeAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE);
+        vaultedTokens = null;
+    }
+
+    /**
+     * Return a token attribute, resolved from the {@link OidcTokenVault} if the profile only holds its handle.
+     *
+     * @param name the name of the token attribute
+     * @return the token attribute
+     */
+    protected Object getTokenAttribute(final String name) {
+        val value = getAttribute(name);
+        if (value != null) {
+            return value;
+        }
+        if (vaultedTokens == null) {
+            val handle = (String) getAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE);
+            if (handle == null) {
+                return null;
+            }
+            vaultedTokens = tokenVault != null ? tokenVault.load(handle).orElse(null) : null;
+            if (vaultedTokens == null) {
+                return null;
+            }
+        }
+        return vaultedTokens.getToken(name);
+    }
+
+    void setTokenVault(final OidcTokenVault tokenVault) {
+        this.tokenVault = tokenVault;
+    }
+
+    VaultedTokens getVaultedTokens() {
+        return vaultedTokens;
+    }
+
+    void setVaultedTokens(final VaultedTokens vaultedTokens) {
+        this.vaultedTokens = vaultedTokens;
     }
 
     @JsonIgnore
@@ -231,6 +275,20 @@ public class OidcProfile extends AbstractJwtProfile {
         addAttribute(OidcProfileDefinition.TOKEN_EXPIRATION_ADVANCE, tokenExpirationAdvance);
     }
 
+    @JsonIgnore
+    public int getProactiveRefreshTime() {
+        val proactiveRefreshTime = getAttribute(OidcProfileDefinition.PROACTIVE_REFRESH_TIME);
+        if (proactiveRefreshTime instanceof Number number) {
+            return number.intValue();
+        }
+        return 0;
+    }
+
+    @JsonIgnore
+    public void setProactiveRefreshTime(final int proactiveRefreshTime) {
+        addAttribute(OidcProfileDefinition.PROACTIVE_REFRESH_TIME, proactiveRefreshTime);
+    }
+
     @JsonIgnore
     public Date getExpiration() {
         return getAttributeAsDate(OidcProfileDefinition.EXPIRATION);
@@ -254,4 +312,24 @@ public class OidcProfile extends AbstractJwtProfile {
         return expiration != null
             && expiration.toInstant().isBefore(Instant.now().plusSeconds(tokenExpirationAdvance));
     }
+
+    /**
+     * Whether the tokens should be refreshed in the background: less than <code>proactiveRefreshTime</code> seconds
+     * before the profile expires.
+     *
+     * @return a boolean
+     */
+    @JsonIgnore
+    @Override
+    public boolean isRenewalDue() {
+        val proactiveRefreshTime = getProactiveRefreshTime();
+        val tokenExpirationAdvance = getTokenExpirationAdvance();
+        if (proactiveRefreshTime <= 0 || tokenExpirationAdvance < 0) {
+            return false;
+        }
+        val expiration = getExpiration();
+        return expiration != null
+            && expiration.toInstant().isBefore(Instant.now().plusSeconds((long) tokenExpirationAdvance + proactiveRefreshTime))
+            && getTokenAttribute(OidcProfileDefinition.REFRESH_TOKEN) != null;
+    }
 }
@@ -70,8 +70,12 @@ public class OidcProfileDefinition extends CommonProfileDefinition {
     // Custom secondary attributes
     /** Constant <code>TOKEN_EXPIRATION_ADVANCE="token_expiration_advance"</code> */
     public static final String TOKEN_EXPIRATION_ADVANCE = "token_expiration_advance";
+    /** Constant <code>PROACTIVE_REFRESH_TIME="proactive_refresh_time"</code> */
+    public static final String PROACTIVE_REFRESH_TIME = "proactive_refresh_time";
     /** Constant <code>EXPIRATION="expiration"</code> */
     public static final String EXPIRATION               = "expiration";
+    /** Constant <code>TOKEN_VAULT_HANDLE="token_vault_handle"</code> */
+    public static final String TOKEN_VAULT_HANDLE       = "token_vault_handle";
 
     /**
      * <p>Constructor for OidcProfileDefinition.</p>
@@ -109,6 +113,7 @@ public class OidcProfileDefinition extends CommonProfileDefinition {
 
         // custom attributes
         secondary(TOKEN_EXPIRATION_ADVANCE, Converters.INTEGER);
+        secondary(PROACTIVE_REFRESH_TIME, Converters.INTEGER);
         secondary(EXPIRATION, Converters.DATE_TZ_RFC822);
     }
 
@@ -0,0 +1,125 @@
+package org.pac4j.oidc.profile;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+
+/**
+ * A server-side vault of the OIDC tokens: the access, ID and refresh tokens are saved in a {@link Store}
+ * and the {@link OidcProfile} only keeps an opaque handle, so the profiles saved in the web sessions remain small.
+ *
+ * The tokens are resolved lazily by the profile getters, the vault being attached to the profile by its client
+ * (at creation and when the profile is read from the web session). The tokens of a renewed profile replace the previous ones
+ * under the same handle and they are removed at logout. The store should still expire its entries
+ * (at least after the maximum lifetime of the sessions).
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString(exclude = "store")
+@Slf4j
+public class OidcTokenVault {
+
+    private static final int HANDLE_SIZE = 32;
+
+    private Store<String, VaultedTokens> store;
+
+    /**
+     * <p>Constructor for OidcTokenVault.</p>
+     */
+    public OidcTokenVault() {}
+
+    /**
+     * <p>Constructor for OidcTokenVault.</p>
+     *
+     * @param store the store of the tokens
+     */
+    public OidcTokenVault(final Store<String, VaultedTokens> store) {
+        this.store = store;
+    }
+
+    /**
+     * Move the tokens of a profile into the vault: the profile only keeps the handle.
+     *
+     * @param profile the OIDC profile
+     */
+    public void save(final OidcProfile profile) {
+        val tokens = new VaultedTokens((String) profile.getAttribute(OidcProfileDefinition.ACCESS_TOKEN),
+            profile.getIdTokenString(), (String) profile.getAttribute(OidcProfileDefinition.REFRESH_TOKEN));
+        val handle = CommonHelper.randomString(HANDLE_SIZE);
+        store.set(handle, tokens);
+        profile.removeAttribute(OidcProfileDefinition.ACCESS_TOKEN);
+        profile.removeAttribute(OidcProfileDefinition.ID_TOKEN);
+        profile.removeAttribute(OidcProfileDefinition.REFRESH_TOKEN);
+        profile.addAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE, handle);
+        profile.setTokenVault(this);
+        profile.setVaultedTokens(tokens);
+    }
+
+    /**
+     * Move the tokens of a renewed profile under the handle of the previous profile: the previous tokens are replaced
+     * (instead of being left in the store) and the requests still holding the previous profile resolve the renewed tokens.
+     *
+     * @param previousProfile the previous OIDC profile
+     * @param profile the renewed OIDC profile (already saved in the vault)
+     */
+    public void renew(final OidcProfile previousProfile, final OidcProfile profile) {
+        val previousHandle = (String) previousProfile.getAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE);
+        val handle = (String) profile.getAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE);
+        if (previousHandle == null || handle == null || previousHandle.equals(handle)) {
+            return;
+        }
+        var tokens = profile.getVaultedTokens();
+        if (tokens == null) {
+            tokens = store.get(handle).orElse(null);
+        }
+        if (tokens != null) {
+            store.set(previousHandle, tokens);
+            store.remove(handle);
+            profile.addAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE, previousHandle);
+        }
+    }
+
+    /**
+     * Attach this vault to a profile so that it can resolve its tokens (like when it is read from the web session).
+     *
+     * @param profile the OIDC profile
+     */
+    public void attach(final OidcProfile profile) {
+        profile.setTokenVault(this);
+    }
+
+    /**
+     * Load the tokens for a handle.
+     *
+     * @param handle the handle
+     * @return the tokens, if any
+     */
+    public Optional<VaultedTokens> load(final String handle) {
+        val tokens = store.get(handle);
+        if (tokens.isEmpty()) {
+            LOGGER.debug("No tokens in the vault for the handle");
+        }
+        return tokens;
+    }
+
+    /**
+     * Remove the tokens of a profile from the vault (the tokens already resolved by the profile remain available).
+     *
+     * @param profile the OIDC profile
+     */
+    public void remove(final OidcProfile profile) {
+        val handle = (String) profile.getAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE);
+        if (handle != null) {
+            store.remove(handle);
+        }
+    }
+}
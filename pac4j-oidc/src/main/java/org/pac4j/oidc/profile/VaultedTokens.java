@@ -0,0 +1,56 @@
+package org.pac4j.oidc.profile;
+
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The tokens of an {@link OidcProfile} kept server-side by an {@link OidcTokenVault}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+public class VaultedTokens implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2304416337094573214L;
+
+    /** The access token (as saved in the profile attribute). */
+    private final String accessToken;
+
+    /** The ID token. */
+    private final String idToken;
+
+    /** The refresh token. */
+    private final String refreshToken;
+
+    /**
+     * <p>Constructor for VaultedTokens.</p>
+     *
+     * @param accessToken the access token
+     * @param idToken the ID token
+     * @param refreshToken the refresh token
+     */
+    public VaultedTokens(final String accessToken, final String idToken, final String refreshToken) {
+        this.accessToken = accessToken;
+        this.idToken = idToken;
+        this.refreshToken = refreshToken;
+    }
+
+    /**
+     * Return the token saved for a profile attribute.
+     *
+     * @param name the name of the profile attribute
+     * @return the token
+     */
+    public String getToken(final String name) {
+        return switch (name) {
+            case OidcProfileDefinition.ACCESS_TOKEN -> accessToken;
+            case OidcProfileDefinition.ID_TOKEN -> idToken;
+            case OidcProfileDefinition.REFRESH_TOKEN -> refreshToken;
+            default -> null;
+        };
+    }
+}
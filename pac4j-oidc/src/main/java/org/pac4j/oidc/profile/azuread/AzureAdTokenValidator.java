@@ -1,6 +1,8 @@
 package org.pac4j.oidc.profile.azuread;
 
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.oauth2.sdk.id.ClientID;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import com.nimbusds.openid.connect.sdk.validators.IDTokenValidator;
@@ -28,6 +30,18 @@ public class AzureAdTokenValidator extends TokenValidator {
         super(configuration, metadata);
     }
 
+    /**
+     * <p>Constructor for AzureAdTokenValidator.</p>
+     *
+     * @param configuration a {@link OidcConfiguration} object
+     * @param metadata a {@link OIDCProviderMetadata} object
+     * @param jwkSource the source of the OP keys to reuse
+     */
+    public AzureAdTokenValidator(final OidcConfiguration configuration, final OIDCProviderMetadata metadata,
+                                 final JWKSource<SecurityContext> jwkSource) {
+        super(configuration, metadata, jwkSource);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected IDTokenValidator createRSAIdTokenValidator(final JWSAlgorithm jwsAlgorithm, final ClientID clientID) {
@@ -0,0 +1,38 @@
+package org.pac4j.oidc.profile.creator;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The claims returned by the UserInfo endpoint for an access token, cached by the {@link OidcProfileCreator}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@ToString
+public class CachedUserInfo implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 3317402196835741585L;
+
+    /** The UserInfo claims (JSON). */
+    private final String claims;
+
+    /** When these claims are stale (in milliseconds): after the maximum TTL or at the expiration of a JWT access token. */
+    private final long expirationTime;
+
+    /**
+     * <p>Constructor for CachedUserInfo.</p>
+     *
+     * @param claims the UserInfo claims (JSON)
+     * @param expirationTime the expiration time of the cache entry
+     */
+    public CachedUserInfo(final String claims, final long expirationTime) {
+        this.claims = claims;
+        this.expirationTime = expirationTime;
+    }
+}
@@ -20,6 +20,7 @@ import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.creator.ProfileCreator;
 import org.pac4j.core.profile.definition.ProfileDefinitionAware;
 import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.config.OidcConfiguration;
@@ -29,6 +30,7 @@ import org.pac4j.oidc.exceptions.OidcException;
 import org.pac4j.oidc.exceptions.UserInfoErrorResponseException;
 import org.pac4j.oidc.profile.OidcProfile;
 import org.pac4j.oidc.profile.OidcProfileDefinition;
+import org.pac4j.oidc.util.AuthenticationState;
 
 import java.io.IOException;
 import java.net.URI;
@@ -121,7 +123,7 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
             // in idToken in this case
             val skipRefreshedNonce = refreshedCredentials && !configuration.isUseNonceOnRefresh();
             if (configuration.isUseNonce() && !skipRefreshedNonce) {
-                nonce = new Nonce((String) ctx.sessionStore().get(ctx.webContext(), client.getNonceSessionAttributeName()).orElse(null));
+                nonce = findNonce(ctx);
             } else {
                 nonce = null;
             }
@@ -143,7 +145,11 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
             if (configuration.isCallUserInfoEndpoint()) {
                 final var uri = configuration.getOpMetadataResolver().load().getUserInfoEndpointURI();
                 try {
-                    callUserInfoEndpoint(uri, accessToken, profile);
+                    if (!regularOidcFlow && configuration.getUserInfoStore() != null) {
+                        callUserInfoEndpointWithCache(accessToken, profile);
+                    } else {
+                        callUserInfoEndpoint(uri, accessToken, profile);
+                    }
                 } catch (final UserInfoErrorResponseException e) {
                     // bearer call -> no profile returned
                     if (!regularOidcFlow) {
@@ -170,6 +176,14 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
 
             // session expiration with token behavior
             profile.setTokenExpirationAdvance(configuration.getTokenExpirationAdvance());
+            if (configuration.getProactiveTokenRefreshTime() > 0) {
+                profile.setProactiveRefreshTime(computeProactiveRefreshTime(profile));
+            }
+
+            // the profile of a bearer call is not saved in the web session
+            if (regularOidcFlow && configuration.getTokenVault() != null) {
+                configuration.getTokenVault().save(profile);
+            }
 
             return Optional.of(profile);
         } catch (final IOException | ParseException | JOSEException | BadJOSEException | java.text.ParseException e) {
@@ -178,13 +192,70 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
     }
 
     public void callUserInfoEndpoint(final URI userInfoEndpointUri, final AccessToken accessToken, final UserProfile profile)
+        throws IOException, ParseException, java.text.ParseException, UserInfoErrorResponseException {
+        val userInfoClaimsSet = retrieveUserInfoClaims(accessToken);
+        if (userInfoClaimsSet != null) {
+            addUserInfoClaims(userInfoClaimsSet, profile);
+        }
+    }
+
+    /**
+     * Find the nonce sent in the authentication request.
+     *
+     * @param ctx the context
+     * @return the nonce
+     */
+    protected Nonce findNonce(final CallContext ctx) {
+        if (configuration.getAuthenticationStateStore() != null) {
+            // the authentication state only exists at callback (useNonceOnRefresh is rejected with a store)
+            return client.findAuthenticationState(ctx.webContext()).map(AuthenticationState::getNonce).map(Nonce::new).orElse(null);
+        }
+        return new Nonce((String) ctx.sessionStore().get(ctx.webContext(), client.getNonceSessionAttributeName()).orElse(null));
+    }
+
+    /**
+     * Add the UserInfo claims to the profile, using the cached claims for the access token if they exist.
+     *
+     * @param accessToken the access token
+     * @param profile the user profile
+     */
+    protected void callUserInfoEndpointWithCache(final AccessToken accessToken, final UserProfile profile)
+        throws IOException, ParseException, java.text.ParseException, UserInfoErrorResponseException {
+        if (accessToken == null) {
+            return;
+        }
+        val store = configuration.getUserInfoStore();
+        val cacheKey = computeUserInfoCacheKey(accessToken.getValue());
+        val cachedUserInfo = store.get(cacheKey);
+        if (cachedUserInfo.isPresent()) {
+            if (cachedUserInfo.get().getExpirationTime() > System.currentTimeMillis()) {
+                LOGGER.debug("UserInfo claims found in cache");
+                addUserInfoClaims(JWTClaimsSet.parse(cachedUserInfo.get().getClaims()), profile);
+                return;
+            }
+            store.remove(cacheKey);
+        }
+
+        val userInfoClaimsSet = retrieveUserInfoClaims(accessToken);
+        if (userInfoClaimsSet != null) {
+            store.set(cacheKey, new CachedUserInfo(userInfoClaimsSet.toString(), computeUserInfoCacheExpirationTime(accessToken)));
+            addUserInfoClaims(userInfoClaimsSet, profile);
+        }
+    }
+
+    /**
+     * Call the UserInfo endpoint.
+     *
+     * @param accessToken the access token
+     * @return the UserInfo claims (or <code>null</code> if there is no UserInfo endpoint or no claims)
+     */
+    protected JWTClaimsSet retrieveUserInfoClaims(final AccessToken accessToken)
         throws IOException, ParseException, java.text.ParseException, UserInfoErrorResponseException {
         val opMetadata = configuration.getOpMetadataResolver().load();
         if (opMetadata.getUserInfoEndpointURI() != null && accessToken != null) {
             Request userInfoRequest = new UserInfoRequest(opMetadata.getUserInfoEndpointURI(), accessToken);
             val userInfoHttpRequest = userInfoRequest.toHTTPRequest();
-            configuration.configureHttpRequest(userInfoHttpRequest);
-            val httpResponse = userInfoHttpRequest.send();
+            val httpResponse = configuration.sendHttpRequest(userInfoHttpRequest);
             LOGGER.debug("User info response: status={}, content={}", httpResponse.getStatusCode(),
                 httpResponse.getContent());
 
@@ -202,17 +273,76 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
                 } else {
                     userInfoClaimsSet = userInfoSuccessResponse.getUserInfoJWT().getJWTClaimsSet();
                 }
-                if (userInfoClaimsSet != null) {
-                    final String subject = userInfoClaimsSet.getSubject();
-                    if (StringUtils.isBlank(profile.getId()) && StringUtils.isNotBlank(subject)) {
-                        profile.setId(ProfileHelper.sanitizeIdentifier(subject));
-                    }
-                    getProfileDefinition().convertAndAdd(profile, userInfoClaimsSet.getClaims(), null);
-                } else {
+                if (userInfoClaimsSet == null) {
                     LOGGER.warn("Cannot retrieve claims from user info");
                 }
+                return userInfoClaimsSet;
+            }
+        }
+        return null;
+    }
+
+    private void addUserInfoClaims(final JWTClaimsSet userInfoClaimsSet, final UserProfile profile) {
+        final String subject = userInfoClaimsSet.getSubject();
+        if (StringUtils.isBlank(profile.getId()) && StringUtils.isNotBlank(subject)) {
+            profile.setId(ProfileHelper.sanitizeIdentifier(subject));
+        }
+        getProfileDefinition().convertAndAdd(profile, userInfoClaimsSet.getClaims(), null);
+    }
+
+    /**
+     * Compute the cache key of an access token: its digest, so that the tokens are never stored.
+     *
+     * @param token the access token
+     * @return the cache key
+     */
+    protected String computeUserInfoCacheKey(final String token) {
+        return CommonHelper.sha256Base64Url(token);
+    }
+
+    /**
+     * Compute when the cached UserInfo claims expire: after the maximum time to live
+     * or when the access token expires if it is a JWT expiring before.
+     *
+     * @param accessToken the access token
+     * @return the expiration time in milliseconds
+     */
+    protected long computeUserInfoCacheExpirationTime(final AccessToken accessToken) {
+        var expirationTime = System.currentTimeMillis() + configuration.getUserInfoCacheMaxTtl() * 1000L;
+        try {
+            // the token is not verified: its expiration is only used to reduce the lifetime of the cache entry
+            val tokenExpiration = JWTParser.parse(accessToken.getValue()).getJWTClaimsSet().getExpirationTime();
+            if (tokenExpiration != null) {
+                expirationTime = Math.min(expirationTime, tokenExpiration.getTime());
             }
+        } catch (final java.text.ParseException e) {
+            LOGGER.trace("Opaque access token", e);
+        }
+        return expirationTime;
+    }
+
+    /**
+     * Compute the proactive refresh time of the profile: the configured one, but at most half of the remaining lifetime
+     * of the access token (minus the <code>tokenExpirationAdvance</code>), so that a renewed profile is not due
+     * for renewal right away.
+     *
+     * @param profile the profile
+     * @return the proactive refresh time in seconds
+     */
+    protected int computeProactiveRefreshTime(final OidcProfile profile) {
+        val proactiveRefreshTime = configuration.getProactiveTokenRefreshTime();
+        val expiration = profile.getExpiration();
+        if (expiration == null) {
+            return proactiveRefreshTime;
+        }
+        val lifetime = (expiration.getTime() - System.currentTimeMillis()) / 1000
+            - Math.max(configuration.getTokenExpirationAdvance(), 0);
+        val maxRefreshTime = (int) Math.max(lifetime / 2, 0);
+        if (maxRefreshTime < proactiveRefreshTime) {
+            LOGGER.debug("Proactive refresh time reduced to: {}s for a remaining token lifetime of: {}s", maxRefreshTime, lifetime);
+            return maxRefreshTime;
         }
+        return proactiveRefreshTime;
     }
 
     private void collectClaimsFromAccessTokenIfAny(final OidcCredentials credentials,
@@ -2,7 +2,10 @@ package org.pac4j.oidc.profile.creator;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.oauth2.sdk.auth.Secret;
 import com.nimbusds.oauth2.sdk.id.ClientID;
@@ -13,6 +16,7 @@ import com.nimbusds.openid.connect.sdk.claims.LogoutTokenClaimsSet;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import com.nimbusds.openid.connect.sdk.validators.IDTokenValidator;
 import com.nimbusds.openid.connect.sdk.validators.LogoutTokenValidator;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
@@ -24,6 +28,8 @@ import org.pac4j.oidc.exceptions.OidcException;
 import org.pac4j.oidc.exceptions.OidcTokenException;
 import org.pac4j.oidc.util.OidcHelper;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -48,6 +54,10 @@ public class TokenValidator {
 
     private final OIDCProviderMetadata metadata;
 
+    /** The source of the OP keys, shared by all the ID token and logout token validators. */
+    @Getter
+    private JWKSource<SecurityContext> jwkSource;
+
     /**
      * <p>Constructor for TokenValidator.</p>
      *
@@ -55,10 +65,23 @@ public class TokenValidator {
      * @param metadata a {@link OIDCProviderMetadata} object
      */
     public TokenValidator(final OidcConfiguration config, final OIDCProviderMetadata metadata) {
+        this(config, metadata, null);
+    }
+
+    /**
+     * <p>Constructor for TokenValidator.</p>
+     *
+     * @param config a {@link OidcConfiguration} object
+     * @param metadata a {@link OIDCProviderMetadata} object
+     * @param jwkSource the source of the OP keys to reuse (built from the JWKS URI of the metadata if <code>null</code>)
+     */
+    public TokenValidator(final OidcConfiguration config, final OIDCProviderMetadata metadata,
+                          final JWKSource<SecurityContext> jwkSource) {
         CommonHelper.assertNotNull("config", config);
         CommonHelper.assertNotNull("metadata", metadata);
         this.configuration = config;
         this.metadata = metadata;
+        this.jwkSource = jwkSource;
 
         val idTokenJwsAlgs = OidcHelper.matchRPAlgAgainstOPAlgs("ID Token",
             config.getIdTokenSigningAlgorithm(), metadata.getIDTokenJWSAlgs());
@@ -112,12 +135,8 @@ public class TokenValidator {
      * @return a {@link IDTokenValidator} object
      */
     protected IDTokenValidator createRSAIdTokenValidator(final JWSAlgorithm jwsAlgorithm, final ClientID clientID) {
-        try {
-            return new IDTokenValidator(metadata.getIssuer(), clientID, jwsAlgorithm, metadata.getJWKSetURI().toURL(),
-                configuration.getResourceRetriever());
-        } catch (final MalformedURLException e) {
-            throw new OidcException(e);
-        }
+        return new IDTokenValidator(metadata.getIssuer(), clientID, new JWSVerificationKeySelector<>(jwsAlgorithm, getOrCreateJwkSource()),
+            null);
     }
 
     /**
@@ -128,14 +147,59 @@ public class TokenValidator {
      * @return a {@link LogoutTokenValidator} object
      */
     protected LogoutTokenValidator createRSALogoutTokenValidator(final JWSAlgorithm jwsAlgorithm, final ClientID clientID) {
+        return new LogoutTokenValidator(metadata.getIssuer(), clientID,
+            new JWSVerificationKeySelector<>(jwsAlgorithm, getOrCreateJwkSource()), null);
+    }
+
+    /**
+     * Return the source of the OP keys, created on first use.
+     *
+     * @return the JWK source
+     */
+    protected JWKSource<SecurityContext> getOrCreateJwkSource() {
+        if (jwkSource == null) {
+            jwkSource = createJwkSource();
+        }
+        return jwkSource;
+    }
+
+    /**
+     * Create the source of the OP keys from the JWKS URI of the metadata.
+     *
+     * @return the JWK source
+     */
+    protected JWKSource<SecurityContext> createJwkSource() {
         try {
-            return new LogoutTokenValidator(metadata.getIssuer(), clientID, jwsAlgorithm, metadata.getJWKSetURI().toURL(),
-                configuration.getResourceRetriever());
+            return OidcHelper.buildJwkSource(configuration, metadata.getJWKSetURI().toURL());
         } catch (final MalformedURLException e) {
             throw new OidcException(e);
         }
     }
 
+    /**
+     * Whether the source of the OP keys can be reused for the given metadata.
+     *
+     * @param otherMetadata the new OP metadata
+     * @return whether the JWK source can be reused
+     */
+    public boolean canReuseJwkSourceFor(final OIDCProviderMetadata otherMetadata) {
+        return jwkSource != null && otherMetadata != null && metadata.getJWKSetURI() != null
+            && metadata.getJWKSetURI().equals(otherMetadata.getJWKSetURI());
+    }
+
+    /**
+     * Close the source of the OP keys (and stop its background refresh) when it is not used anymore.
+     */
+    public void closeJwkSource() {
+        if (jwkSource instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (final IOException e) {
+                LOGGER.warn("Cannot close the JWK source", e);
+            }
+        }
+    }
+
     /**
      * <p>createHMACTokenValidator.</p>
      *
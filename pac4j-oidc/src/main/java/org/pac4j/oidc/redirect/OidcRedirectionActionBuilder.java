@@ -25,6 +25,7 @@ import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.config.OidcConfigurationContext;
 import org.pac4j.oidc.exceptions.OidcException;
 import org.pac4j.oidc.metadata.OidcFederationOpMetadataResolver;
+import org.pac4j.oidc.util.AuthenticationState;
 import org.pac4j.oidc.util.OidcHelper;
 
 import java.io.IOException;
@@ -194,30 +195,46 @@ public class OidcRedirectionActionBuilder extends InitializableObject implements
         val webContext = ctx.webContext();
         val sessionStore = ctx.sessionStore();
         val config = client.getConfiguration();
+        val authenticationStateStore = config.getAuthenticationStateStore();
 
         // Init state for CSRF mitigation
+        State state = null;
         if (config.isWithState()) {
-            val state = new State(config.getStateGenerator().generateValue(ctx));
+            state = new State(config.getStateGenerator().generateValue(ctx));
             params.requestObject().put(OidcConfiguration.STATE, state.getValue());
-            sessionStore.set(webContext, client.getStateSessionAttributeName(), state);
+            if (authenticationStateStore == null) {
+                sessionStore.set(webContext, client.getStateSessionAttributeName(), state);
+            }
         } else {
             ANNOUNCE_WITH_STATE_DISABLED.announce();
         }
 
         // Init nonce for replay attack mitigation
+        Nonce nonce = null;
         if (config.isUseNonce()) {
-            val nonce = new Nonce();
+            nonce = new Nonce();
             params.requestObject().put(OidcConfiguration.NONCE, nonce.getValue());
-            sessionStore.set(webContext, client.getNonceSessionAttributeName(), nonce.getValue());
+            if (authenticationStateStore == null) {
+                sessionStore.set(webContext, client.getNonceSessionAttributeName(), nonce.getValue());
+            }
         }
 
+        CodeVerifier verifier = null;
         var pkceMethod = config.findPkceMethod();
         if (pkceMethod != null) {
-            val verifier = new CodeVerifier(config.getCodeVerifierGenerator().generateValue(ctx));
-            sessionStore.set(webContext, client.getCodeVerifierSessionAttributeName(), verifier);
+            verifier = new CodeVerifier(config.getCodeVerifierGenerator().generateValue(ctx));
+            if (authenticationStateStore == null) {
+                sessionStore.set(webContext, client.getCodeVerifierSessionAttributeName(), verifier);
+            }
             params.requestObject().put(OidcConfiguration.CODE_CHALLENGE, CodeChallenge.compute(pkceMethod, verifier).getValue());
             params.requestObject().put(OidcConfiguration.CODE_CHALLENGE_METHOD, pkceMethod.getValue());
         }
+
+        // all the values in one entry
+        if (authenticationStateStore != null) {
+            authenticationStateStore.save(ctx, client, new AuthenticationState(state != null ? state.getValue() : null,
+                nonce != null ? nonce.getValue() : null, verifier != null ? verifier.getValue() : null));
+        }
     }
 
     protected String buildAuthenticationRequestUrl(final Map<String, String> params) {
@@ -252,8 +269,7 @@ public class OidcRedirectionActionBuilder extends InitializableObject implements
                     authzRequest
                 );
                 val request = parRequest.toHTTPRequest();
-                config.configureHttpRequest(request);
-                val response = request.send();
+                val response = config.sendHttpRequest(request);
                 val parResponse = PushedAuthorizationResponse.parse(response);
 
                 if (parResponse.indicatesSuccess()) {
@@ -0,0 +1,104 @@
+package org.pac4j.oidc.util;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.oidc.exceptions.OidcException;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+
+/**
+ * The values of an in-flight authorization request (state, nonce and PKCE code verifier) saved as one compact entry.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@ToString(exclude = "codeVerifier")
+public class AuthenticationState implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -4105186632590731187L;
+
+    private static final String STATE = "s";
+
+    private static final String NONCE = "n";
+
+    private static final String CODE_VERIFIER = "v";
+
+    private static final String CREATION_TIME = "t";
+
+    private final String state;
+
+    private final String nonce;
+
+    private final String codeVerifier;
+
+    private final long creationTime;
+
+    /**
+     * <p>Constructor for AuthenticationState.</p>
+     *
+     * @param state the state (<code>null</code> if disabled)
+     * @param nonce the nonce (<code>null</code> if disabled)
+     * @param codeVerifier the PKCE code verifier (<code>null</code> if disabled)
+     */
+    public AuthenticationState(final String state, final String nonce, final String codeVerifier) {
+        this(state, nonce, codeVerifier, System.currentTimeMillis());
+    }
+
+    /**
+     * <p>Constructor for AuthenticationState.</p>
+     *
+     * @param state the state (<code>null</code> if disabled)
+     * @param nonce the nonce (<code>null</code> if disabled)
+     * @param codeVerifier the PKCE code verifier (<code>null</code> if disabled)
+     * @param creationTime the creation time in milliseconds
+     */
+    public AuthenticationState(final String state, final String nonce, final String codeVerifier, final long creationTime) {
+        this.state = state;
+        this.nonce = nonce;
+        this.codeVerifier = codeVerifier;
+        this.creationTime = creationTime;
+    }
+
+    /**
+     * Serialize as a compact JSON string.
+     *
+     * @return the compact JSON string
+     */
+    public String toCompactString() {
+        val json = new LinkedHashMap<String, Object>();
+        if (state != null) {
+            json.put(STATE, state);
+        }
+        if (nonce != null) {
+            json.put(NONCE, nonce);
+        }
+        if (codeVerifier != null) {
+            json.put(CODE_VERIFIER, codeVerifier);
+        }
+        json.put(CREATION_TIME, creationTime);
+        return JSONObjectUtils.toJSONString(json);
+    }
+
+    /**
+     * Parse a compact JSON string.
+     *
+     * @param value the compact JSON string
+     * @return the authentication state
+     */
+    public static AuthenticationState parse(final String value) {
+        try {
+            val json = JSONObjectUtils.parse(value);
+            return new AuthenticationState(JSONObjectUtils.getString(json, STATE), JSONObjectUtils.getString(json, NONCE),
+                JSONObjectUtils.getString(json, CODE_VERIFIER), JSONObjectUtils.getLong(json, CREATION_TIME));
+        } catch (final ParseException e) {
+            throw new OidcException("Invalid authentication state", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.pac4j.oidc.util;
+
+import org.pac4j.core.context.CallContext;
+import org.pac4j.oidc.client.OidcClient;
+
+import java.util.Optional;
+
+/**
+ * Saves the values of the in-flight authorization requests as one entry per request (instead of one session attribute per value)
+ * and retrieves them at callback.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public interface AuthenticationStateStore {
+
+    /**
+     * Save the values of an authorization request.
+     *
+     * @param ctx the context
+     * @param client the OIDC client
+     * @param authenticationState the values of the authorization request
+     */
+    void save(CallContext ctx, OidcClient client, AuthenticationState authenticationState);
+
+    /**
+     * Retrieve and remove the values of an authorization request.
+     *
+     * @param ctx the context
+     * @param client the OIDC client
+     * @param state the state returned by the OP (<code>null</code> if the state is disabled)
+     * @return the values of the authorization request, if any
+     */
+    Optional<AuthenticationState> remove(CallContext ctx, OidcClient client, String state);
+}
@@ -0,0 +1,196 @@
+package org.pac4j.oidc.util;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.oauth2.sdk.ResponseMode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oidc.client.OidcClient;
+import org.pac4j.oidc.exceptions.OidcConfigurationException;
+import org.pac4j.oidc.exceptions.OidcException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Saves the values of each authorization request in an encrypted and authenticated cookie (JWE, A256GCM) keyed by its state:
+ * a login costs no session write.
+ *
+ * The secret must be a random value of at least {@value #MIN_SECRET_LENGTH} bytes: its SHA-256 digest is the encryption key.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString(exclude = "secret")
+@Slf4j
+public class CookieAuthenticationStateStore implements AuthenticationStateStore {
+
+    /** The minimum length (in UTF-8 bytes) of the secret. */
+    public static final int MIN_SECRET_LENGTH = 32;
+
+    private static final int DEFAULT_MAX_AGE = 600;
+
+    private static final String DEFAULT_COOKIE_NAME_PREFIX = "pac4jOidcState";
+
+    /* the secret used to derive the encryption key */
+    private String secret;
+
+    /* the lifetime (in seconds) of the cookie */
+    private int maxAge = DEFAULT_MAX_AGE;
+
+    private String cookieNamePrefix = DEFAULT_COOKIE_NAME_PREFIX;
+
+    private String cookiePath = "/";
+
+    private String cookieDomain;
+
+    /* the SameSite policy of the cookie: by default, None for the form_post response mode, Lax otherwise */
+    private String sameSitePolicy;
+
+    /**
+     * <p>Constructor for CookieAuthenticationStateStore.</p>
+     */
+    public CookieAuthenticationStateStore() {}
+
+    /**
+     * <p>Constructor for CookieAuthenticationStateStore.</p>
+     *
+     * @param secret the secret used to derive the encryption key
+     */
+    public CookieAuthenticationStateStore(final String secret) {
+        this.secret = secret;
+    }
+
+    /**
+     * Check that the secret is long enough to derive the encryption key.
+     */
+    public void checkSecret() {
+        CommonHelper.assertNotBlank("secret", secret);
+        if (secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_LENGTH) {
+            throw new OidcConfigurationException("The secret of the CookieAuthenticationStateStore must have at least "
+                + MIN_SECRET_LENGTH + " bytes");
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void save(final CallContext ctx, final OidcClient client, final AuthenticationState authenticationState) {
+        try {
+            val jwe = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM),
+                new Payload(authenticationState.toCompactString()));
+            jwe.encrypt(new DirectEncrypter(computeKey()));
+            ctx.webContext().addResponseCookie(buildCookie(ctx.webContext(), client,
+                computeCookieName(client, authenticationState.getState()), jwe.serialize(), maxAge));
+        } catch (final JOSEException e) {
+            throw new OidcException(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<AuthenticationState> remove(final CallContext ctx, final OidcClient client, final String state) {
+        val webContext = ctx.webContext();
+        val cookieName = computeCookieName(client, state);
+        val cookie = webContext.getRequestCookies().stream().filter(c -> cookieName.equals(c.getName())).findFirst();
+        if (cookie.isEmpty() || StringUtils.isEmpty(cookie.get().getValue())) {
+            LOGGER.debug("No authentication state cookie: {}", cookieName);
+            return Optional.empty();
+        }
+        webContext.addResponseCookie(buildCookie(webContext, client, cookieName, "", 0));
+
+        val key = computeKey();
+        final AuthenticationState authenticationState;
+        try {
+            val jwe = JWEObject.parse(cookie.get().getValue());
+            jwe.decrypt(new DirectDecrypter(key));
+            authenticationState = AuthenticationState.parse(jwe.getPayload().toString());
+        } catch (final ParseException | JOSEException | OidcException e) {
+            LOGGER.warn("Invalid authentication state cookie: {}", cookieName, e);
+            return Optional.empty();
+        }
+        if (!CommonHelper.areEquals(state, authenticationState.getState())) {
+            LOGGER.warn("State mismatch in the authentication state cookie: {}", cookieName);
+            return Optional.empty();
+        }
+        if (authenticationState.getCreationTime() + maxAge * 1000L < System.currentTimeMillis()) {
+            LOGGER.debug("Expired authentication state cookie: {}", cookieName);
+            return Optional.empty();
+        }
+        return Optional.of(authenticationState);
+    }
+
+    /**
+     * Build the cookie.
+     *
+     * @param webContext the web context
+     * @param client the OIDC client
+     * @param name the name of the cookie
+     * @param value the value of the cookie
+     * @param age the max age of the cookie
+     * @return the cookie
+     */
+    protected Cookie buildCookie(final WebContext webContext, final OidcClient client, final String name, final String value,
+                                 final int age) {
+        val cookie = new Cookie(name, value);
+        cookie.setMaxAge(age);
+        cookie.setPath(cookiePath);
+        cookie.setDomain(cookieDomain);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(webContext.isSecure());
+        if (sameSitePolicy != null) {
+            cookie.setSameSitePolicy(sameSitePolicy);
+        } else if (ResponseMode.FORM_POST.getValue().equals(client.getConfiguration().getResponseMode())) {
+            // the response is posted by the OP: a cross-site request
+            cookie.setSameSitePolicy("None");
+            cookie.setSecure(true);
+        } else {
+            cookie.setSameSitePolicy("Lax");
+        }
+        return cookie;
+    }
+
+    /**
+     * Compute the name of the cookie (which does not reveal the state).
+     *
+     * @param client the OIDC client
+     * @param state the state
+     * @return the name of the cookie
+     */
+    protected String computeCookieName(final OidcClient client, final String state) {
+        val digest = sha256(client.getName() + "|" + (state != null ? state : ""));
+        return cookieNamePrefix + "_" + HexFormat.of().formatHex(digest, 0, 8);
+    }
+
+    private byte[] computeKey() {
+        checkSecret();
+        return sha256(secret);
+    }
+
+    private static byte[] sha256(final String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new OidcException(e);
+        }
+    }
+}
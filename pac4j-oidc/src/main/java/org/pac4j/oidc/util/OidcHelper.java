@@ -2,17 +2,26 @@ package org.pac4j.oidc.util;
 
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.resource.SpringResourceHelper;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oidc.config.OidcConfiguration;
 
 import java.io.IOException;
+import java.net.URL;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Helper for OIDC.
@@ -23,6 +32,17 @@ import java.util.List;
 @Slf4j
 public class OidcHelper {
 
+    private static final ThreadFactory JWKS_REFRESH_THREAD_FACTORY = r -> {
+        val thread = new Thread(r, "pac4j-oidc-jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private static final ExecutorService JWKS_REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(JWKS_REFRESH_THREAD_FACTORY);
+
+    private static final ScheduledExecutorService JWKS_REFRESH_SCHEDULER =
+        Executors.newSingleThreadScheduledExecutor(JWKS_REFRESH_THREAD_FACTORY);
+
     public static List<JWSAlgorithm> matchRPAlgAgainstOPAlgs(
         final String category,
         final JWSAlgorithm rpAlg,
@@ -44,6 +64,39 @@ public class OidcHelper {
         return keptAlgs;
     }
 
+    /**
+     * Build the source of the keys of the OP JWKS: the JWKS is cached and refreshed in the background before it expires,
+     * it is retrieved again (with a rate limit) when a key is unknown and the last JWKS is still used if the OP is unreachable.
+     *
+     * @param configuration the OIDC configuration
+     * @param jwkSetUrl the JWKS URL
+     * @return the JWK source
+     */
+    public static JWKSource<SecurityContext> buildJwkSource(final OidcConfiguration configuration, final URL jwkSetUrl) {
+        val timeToLive = configuration.getJwksCacheTimeToLive() > 0 ? configuration.getJwksCacheTimeToLive() * 1000L
+            : JWKSourceBuilder.DEFAULT_CACHE_TIME_TO_LIVE;
+        val resourceRetriever = configuration.getResourceRetriever();
+        final JWKSourceBuilder<SecurityContext> builder = resourceRetriever != null
+            ? JWKSourceBuilder.create(jwkSetUrl, resourceRetriever) : JWKSourceBuilder.create(jwkSetUrl);
+        builder.cache(timeToLive, JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT);
+        val refreshAheadTime = configuration.getJwksRefreshAheadTime() * 1000L;
+        if (refreshAheadTime > 0 && refreshAheadTime + JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT < timeToLive) {
+            builder.refreshAheadCache(refreshAheadTime, null, JWKS_REFRESH_EXECUTOR, false, JWKS_REFRESH_SCHEDULER, false);
+        } else {
+            builder.refreshAheadCache(false);
+        }
+        val rateLimitInterval = configuration.getJwksRateLimitInterval() * 1000L;
+        if (rateLimitInterval > 0 && rateLimitInterval < timeToLive) {
+            builder.rateLimited(rateLimitInterval);
+        } else {
+            builder.rateLimited(false);
+        }
+        if (configuration.getJwksOutageTolerance() > 0) {
+            builder.outageTolerant(configuration.getJwksOutageTolerance() * 1000L);
+        }
+        return builder.build();
+    }
+
     public static JWKSet retrieveJwkSetFrom(final OIDCProviderMetadata metadata, final String fallbackUrl) {
         if (metadata != null) {
             var jwkSet = metadata.getJWKSet();
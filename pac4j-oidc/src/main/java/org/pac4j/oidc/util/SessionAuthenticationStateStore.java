@@ -0,0 +1,95 @@
+package org.pac4j.oidc.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.oidc.client.OidcClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Saves the values of the authorization requests in one session attribute (compact JSON strings keyed by their state):
+ * a login costs one session write and several logins can run concurrently (in different tabs).
+ *
+ * The values expire after <code>maxAge</code> seconds and only the <code>maxEntries</code> most recent
+ * authorization requests are kept.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString
+@Slf4j
+public class SessionAuthenticationStateStore implements AuthenticationStateStore {
+
+    private static final int DEFAULT_MAX_AGE = 600;
+
+    private static final int DEFAULT_MAX_ENTRIES = 10;
+
+    /* the lifetime (in seconds) of the values of an authorization request */
+    private int maxAge = DEFAULT_MAX_AGE;
+
+    /* the maximum number of authorization requests kept in the session */
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /** {@inheritDoc} */
+    @Override
+    public void save(final CallContext ctx, final OidcClient client, final AuthenticationState authenticationState) {
+        val states = retrieveStates(ctx, client);
+        states.remove(computeKey(authenticationState.getState()));
+        while (!states.isEmpty() && states.size() >= maxEntries) {
+            val eldest = states.keySet().iterator().next();
+            LOGGER.debug("Too many authentication states in session, removing: {}", eldest);
+            states.remove(eldest);
+        }
+        states.put(computeKey(authenticationState.getState()), authenticationState.toCompactString());
+        ctx.sessionStore().set(ctx.webContext(), client.getAuthenticationStateAttributeName(), states);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<AuthenticationState> remove(final CallContext ctx, final OidcClient client, final String state) {
+        val states = retrieveStates(ctx, client);
+        val value = states.remove(computeKey(state));
+        if (value == null) {
+            LOGGER.debug("No authentication state in session for: {}", state);
+            return Optional.empty();
+        }
+        ctx.sessionStore().set(ctx.webContext(), client.getAuthenticationStateAttributeName(), states.isEmpty() ? null : states);
+        return Optional.of(AuthenticationState.parse(value));
+    }
+
+    /**
+     * Retrieve a copy of the non-expired values saved in session, from the oldest to the most recent.
+     *
+     * @param ctx the context
+     * @param client the OIDC client
+     * @return the values keyed by their state
+     */
+    protected LinkedHashMap<String, String> retrieveStates(final CallContext ctx, final OidcClient client) {
+        val states = new LinkedHashMap<String, String>();
+        val value = ctx.sessionStore().get(ctx.webContext(), client.getAuthenticationStateAttributeName());
+        if (value.isPresent() && value.get() instanceof Map<?, ?> map) {
+            val limit = System.currentTimeMillis() - maxAge * 1000L;
+            for (val entry : map.entrySet()) {
+                val compactString = (String) entry.getValue();
+                if (AuthenticationState.parse(compactString).getCreationTime() >= limit) {
+                    states.put((String) entry.getKey(), compactString);
+                } else {
+                    LOGGER.debug("Expired authentication state in session: {}", entry.getKey());
+                }
+            }
+        }
+        return states;
+    }
+
+    private static String computeKey(final String state) {
+        return state != null ? state : "";
+    }
+}
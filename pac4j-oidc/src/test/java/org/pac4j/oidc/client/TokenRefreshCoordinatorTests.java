@@ -0,0 +1,145 @@
+package org.pac4j.oidc.client;
+
+import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.oidc.credentials.OidcCredentials;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link TokenRefreshCoordinator}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class TokenRefreshCoordinatorTests {
+
+    private static final String REFRESH_TOKEN = "refreshToken";
+
+    private final AtomicInteger grants = new AtomicInteger();
+
+    private final AtomicInteger profiles = new AtomicInteger();
+
+    private OidcCredentials grant(final String refreshToken) {
+        grants.incrementAndGet();
+        val credentials = new OidcCredentials();
+        credentials.setAccessTokenObject(new BearerAccessToken(refreshToken + "-accessToken" + grants.get()));
+        return credentials;
+    }
+
+    private Optional<UserProfile> buildProfile(final OidcCredentials credentials) {
+        profiles.incrementAndGet();
+        val profile = new CommonProfile();
+        profile.setId(credentials.toAccessToken().getValue());
+        return Optional.of(profile);
+    }
+
+    @Test
+    public void testConcurrentRefreshesAreCoalesced() throws Exception {
+        val coordinator = new TokenRefreshCoordinator();
+        val started = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val executor = Executors.newFixedThreadPool(10);
+        try {
+            final List<Future<Optional<UserProfile>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> coordinator.refresh(REFRESH_TOKEN, token -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return grant(token);
+            }, this::buildProfile)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (var i = 0; i < 9; i++) {
+                results.add(executor.submit(() -> coordinator.refresh(REFRESH_TOKEN, this::grant, this::buildProfile)));
+            }
+            release.countDown();
+            val first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (val result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, grants.get());
+            assertEquals(1, profiles.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        // the result is kept for the late requests with the previous refresh token
+        assertTrue(coordinator.refresh(REFRESH_TOKEN, this::grant, this::buildProfile).isPresent());
+        assertEquals(1, grants.get());
+        assertEquals(1, profiles.get());
+    }
+
+    @Test
+    public void testResultNotKeptAfterRetention() {
+        val coordinator = new TokenRefreshCoordinator();
+        coordinator.setResultRetentionInMilliseconds(-1);
+        coordinator.refresh(REFRESH_TOKEN, this::grant, this::buildProfile);
+        coordinator.refresh(REFRESH_TOKEN, this::grant, this::buildProfile);
+        assertEquals(2, grants.get());
+    }
+
+    @Test
+    public void testFailedRefreshIsRetried() {
+        val coordinator = new TokenRefreshCoordinator();
+        assertThrows(TechnicalException.class, () -> coordinator.refresh(REFRESH_TOKEN, token -> {
+            throw new TechnicalException("invalid_grant");
+        }, this::buildProfile));
+        assertTrue(coordinator.refresh(REFRESH_TOKEN, this::grant, this::buildProfile).isPresent());
+        assertEquals(1, grants.get());
+    }
+
+    @Test
+    public void testRefreshInBackground() {
+        val coordinator = new TokenRefreshCoordinator();
+        final List<Runnable> tasks = new ArrayList<>();
+        coordinator.setExecutor(tasks::add);
+        assertTrue(coordinator.refreshInBackground(REFRESH_TOKEN, this::grant, this::buildProfile).isEmpty());
+        assertTrue(coordinator.refreshInBackground(REFRESH_TOKEN, this::grant, this::buildProfile).isEmpty());
+        assertEquals(1, tasks.size());
+        assertEquals(0, grants.get());
+        tasks.get(0).run();
+        assertTrue(coordinator.refreshInBackground(REFRESH_TOKEN, this::grant, this::buildProfile).isPresent());
+        assertEquals(1, grants.get());
+    }
+
+    @Test
+    public void testRefreshInBackgroundSharedDuringRetention() {
+        val coordinator = new TokenRefreshCoordinator();
+        final List<Runnable> tasks = new ArrayList<>();
+        coordinator.setExecutor(tasks::add);
+        coordinator.refreshInBackground(REFRESH_TOKEN, this::grant, this::buildProfile);
+        tasks.get(0).run();
+        val profile = coordinator.refreshInBackground(REFRESH_TOKEN, this::grant, this::buildProfile).orElseThrow();
+        // the requests still holding the previous tokens read the same renewed profile: no second grant
+        assertSame(profile, coordinator.refreshInBackground(REFRESH_TOKEN, this::grant, this::buildProfile).orElseThrow());
+        assertSame(profile, coordinator.refresh(REFRESH_TOKEN, this::grant, this::buildProfile).orElseThrow());
+        assertEquals(1, tasks.size());
+        assertEquals(1, grants.get());
+        assertEquals(1, profiles.get());
+    }
+
+    @Test
+    public void testProfileBuiltAgainAfterFailure() {
+        val coordinator = new TokenRefreshCoordinator();
+        assertThrows(TechnicalException.class, () -> coordinator.refresh(REFRESH_TOKEN, this::grant, credentials -> {
+            throw new TechnicalException("userinfo unavailable");
+        }));
+        assertTrue(coordinator.refresh(REFRESH_TOKEN, this::grant, this::buildProfile).isPresent());
+        assertEquals(1, grants.get());
+    }
+}
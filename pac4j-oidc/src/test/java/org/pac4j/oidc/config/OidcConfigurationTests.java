@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.exceptions.OidcConfigurationException;
+import org.pac4j.oidc.util.CookieAuthenticationStateStore;
+import org.pac4j.oidc.util.SessionAuthenticationStateStore;
 import org.pac4j.oidc.metadata.IOidcOpMetadataResolver;
 import org.pac4j.oidc.metadata.OidcOpMetadataResolver;
 import org.pac4j.test.util.TestsConstants;
@@ -66,6 +68,28 @@ public class OidcConfigurationTests implements TestsConstants {
         assertFalse(config.isDisablePkce());
     }
 
+    @Test
+    public void testNonceOnRefreshRejectedWithAuthenticationStateStore() {
+        config.setDiscoveryURI(null);
+        config.setOpMetadataResolver(mock(IOidcOpMetadataResolver.class));
+        config.setUseNonce(true);
+        config.setAuthenticationStateStore(new SessionAuthenticationStateStore());
+
+        assertThrows(OidcConfigurationException.class, () -> config.init());
+
+        config.setUseNonceOnRefresh(false);
+        config.init();
+    }
+
+    @Test
+    public void testShortCookieAuthenticationStateStoreSecretRejected() {
+        config.setDiscoveryURI(null);
+        config.setOpMetadataResolver(mock(IOidcOpMetadataResolver.class));
+        config.setAuthenticationStateStore(new CookieAuthenticationStateStore("short"));
+
+        assertThrows(OidcConfigurationException.class, () -> config.init());
+    }
+
     @Test
     public void testBadResponseType() {
         config.setResponseType("direct");
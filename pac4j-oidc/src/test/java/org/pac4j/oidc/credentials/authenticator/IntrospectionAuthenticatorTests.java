@@ -0,0 +1,182 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.oauth2.sdk.auth.ClientSecretBasic;
+import com.nimbusds.oauth2.sdk.auth.Secret;
+import com.nimbusds.oauth2.sdk.id.ClientID;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.openid.connect.sdk.SubjectType;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import com.sun.net.httpserver.HttpServer;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.exceptions.OidcException;
+import org.pac4j.oidc.metadata.IOidcOpMetadataResolver;
+import org.pac4j.oidc.profile.OidcProfile;
+import org.pac4j.test.context.MockWebContext;
+import org.pac4j.test.context.session.MockSessionStore;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link IntrospectionAuthenticator}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class IntrospectionAuthenticatorTests {
+
+    private static final String ACTIVE_TOKEN = "activeToken";
+
+    private static final String INACTIVE_TOKEN = "revokedToken";
+
+    private HttpServer server;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+
+    private final AtomicReference<String> receivedAuthorization = new AtomicReference<>();
+
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private IntrospectionAuthenticator authenticator;
+
+    private CallContext ctx;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/introspect", exchange -> {
+            calls.incrementAndGet();
+            val body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            receivedBody.set(body);
+            receivedAuthorization.set(exchange.getRequestHeaders().getFirst(HttpConstants.AUTHORIZATION_HEADER));
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final String json;
+            if (body.contains(ACTIVE_TOKEN)) {
+                val exp = System.currentTimeMillis() / 1000 + 3600;
+                json = "{\"active\":true,\"sub\":\"jdoe\",\"scope\":\"read write\",\"client_id\":\"api\",\"exp\":" + exp + "}";
+            } else {
+                json = "{\"active\":false}";
+            }
+            val response = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpConstants.CONTENT_TYPE_HEADER, "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(HttpConstants.OK, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+
+        val metadata = new OIDCProviderMetadata(new Issuer("issuer"), List.of(SubjectType.PUBLIC), new URI("https://op/jwks"));
+        metadata.setIntrospectionEndpointURI(new URI("http://localhost:" + server.getAddress().getPort() + "/introspect"));
+        val metadataResolver = mock(IOidcOpMetadataResolver.class);
+        when(metadataResolver.load()).thenReturn(metadata);
+        when(metadataResolver.getClientAuthenticationTokenEndpoint())
+            .thenReturn(new ClientSecretBasic(new ClientID("api"), new Secret("secret")));
+
+        val configuration = new OidcConfiguration();
+        configuration.setOpMetadataResolver(metadataResolver);
+        authenticator = new IntrospectionAuthenticator(configuration);
+        ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testActiveToken() {
+        val credentials = new TokenCredentials(ACTIVE_TOKEN);
+        assertTrue(authenticator.validate(ctx, credentials).isPresent());
+
+        val profile = (OidcProfile) credentials.getUserProfile();
+        assertEquals("jdoe", profile.getId());
+        assertEquals(ACTIVE_TOKEN, profile.getAccessToken().getValue());
+        assertEquals("api", profile.getAttribute("client_id"));
+        assertTrue(receivedBody.get().contains("token=" + ACTIVE_TOKEN));
+        assertTrue(receivedAuthorization.get().startsWith("Basic "));
+    }
+
+    @Test
+    public void testInactiveToken() {
+        val credentials = new TokenCredentials(INACTIVE_TOKEN);
+        assertFalse(authenticator.validate(ctx, credentials).isPresent());
+        assertNull(credentials.getUserProfile());
+    }
+
+    @Test
+    public void testResultsAreCached() {
+        authenticator.setStore(new GuavaStore<>(100, 1, TimeUnit.HOURS));
+        for (var i = 0; i < 3; i++) {
+            assertTrue(authenticator.validate(ctx, new TokenCredentials(ACTIVE_TOKEN)).isPresent());
+            assertFalse(authenticator.validate(ctx, new TokenCredentials(INACTIVE_TOKEN)).isPresent());
+        }
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testInactiveResultNotCachedWithoutTtl() {
+        authenticator.setStore(new GuavaStore<>(100, 1, TimeUnit.HOURS));
+        authenticator.setInactiveTokenCacheTtl(0);
+        assertFalse(authenticator.validate(ctx, new TokenCredentials(INACTIVE_TOKEN)).isPresent());
+        assertFalse(authenticator.validate(ctx, new TokenCredentials(INACTIVE_TOKEN)).isPresent());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testConcurrentIntrospectionsAreCoalesced() throws Exception {
+        release = new CountDownLatch(1);
+        val executor = Executors.newFixedThreadPool(10);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (var i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> authenticator.validate(ctx, new TokenCredentials(ACTIVE_TOKEN)).isPresent()));
+            }
+            for (var i = 0; i < 50 && calls.get() == 0; i++) {
+                Thread.sleep(100);
+            }
+            // let the waiting threads join the introspection in progress
+            Thread.sleep(200);
+            release.countDown();
+            for (val result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testNoIntrospectionEndpoint() {
+        server.stop(0);
+        authenticator.getConfiguration().getOpMetadataResolver().load().setIntrospectionEndpointURI(null);
+        assertThrows(OidcException.class, () -> authenticator.validate(ctx, new TokenCredentials(ACTIVE_TOKEN)));
+    }
+}
@@ -24,6 +24,8 @@ import org.pac4j.oidc.exceptions.OidcMissingStateParameterException;
 import org.pac4j.oidc.exceptions.OidcStateMismatchException;
 import org.pac4j.oidc.metadata.OidcOpMetadataResolver;
 import org.pac4j.oidc.profile.creator.TokenValidator;
+import org.pac4j.oidc.util.AuthenticationState;
+import org.pac4j.oidc.util.SessionAuthenticationStateStore;
 import org.pac4j.test.context.MockWebContext;
 
 import java.util.Date;
@@ -224,6 +226,41 @@ public final class OidcCredentialsExtractorTests {
         assertNotNull(extracted.getAccessToken());
     }
 
+    @Test
+    public void testExtractAuthenticationWithAuthenticationStateStore() {
+        configuration.setAuthenticationStateStore(new SessionAuthenticationStateStore());
+        configuration.getAuthenticationStateStore().save(context, client,
+            new AuthenticationState("expected-state", "nonce-value", "verifier-value"));
+        webContext.addRequestParameter("code", "auth-code");
+        webContext.addRequestParameter("state", "expected-state");
+
+        val extracted = (OidcCredentials) extractor.extract(context).orElseThrow();
+        assertEquals("auth-code", extracted.getCode());
+        val authenticationState = client.findAuthenticationState(webContext).orElseThrow();
+        assertEquals("nonce-value", authenticationState.getNonce());
+        assertEquals("verifier-value", authenticationState.getCodeVerifier());
+        // one-time use
+        assertTrue(configuration.getAuthenticationStateStore().remove(context, client, "expected-state").isEmpty());
+    }
+
+    @Test
+    public void testExtractAuthenticationWithAuthenticationStateStoreFailsWhenStateIsUnknown() {
+        configuration.setAuthenticationStateStore(new SessionAuthenticationStateStore());
+        configuration.getAuthenticationStateStore().save(context, client, new AuthenticationState("expected-state", null, null));
+        webContext.addRequestParameter("code", "auth-code");
+        webContext.addRequestParameter("state", "other-state");
+
+        assertThrows(OidcMissingSessionStateException.class, () -> extractor.extract(context));
+    }
+
+    @Test
+    public void testExtractAuthenticationWithAuthenticationStateStoreFailsWhenResponseStateIsMissing() {
+        configuration.setAuthenticationStateStore(new SessionAuthenticationStateStore());
+        webContext.addRequestParameter("code", "auth-code");
+
+        assertThrows(OidcMissingStateParameterException.class, () -> extractor.extract(context));
+    }
+
     private static String buildPlainJwt(final Map<String, Object> claims) {
         val builder = new JWTClaimsSet.Builder();
         for (val entry : claims.entrySet()) {
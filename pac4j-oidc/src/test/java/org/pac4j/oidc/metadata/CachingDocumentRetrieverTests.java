@@ -0,0 +1,223 @@
+package org.pac4j.oidc.metadata;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.oidc.config.OidcConfiguration;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link CachingDocumentRetriever}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class CachingDocumentRetrieverTests {
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final String DOCUMENT = "{\"keys\":[]}";
+
+    private static final String METADATA = "{\"issuer\":\"http://localhost\",\"subject_types_supported\":[\"public\"],"
+        + "\"id_token_signing_alg_values_supported\":[\"RS256\"],"
+        + "\"authorization_endpoint\":\"http://localhost/authorize\",\"jwks_uri\":\"http://localhost/keys\","
+        + "\"token_endpoint\":\"http://localhost/token\",\"token_endpoint_auth_methods_supported\":[\"client_secret_basic\"]}";
+
+    private HttpServer server;
+
+    private URL url;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private String document = DOCUMENT;
+
+    private volatile int status = HttpConstants.OK;
+
+    @TempDir
+    Path cacheDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jwks", exchange -> {
+            requests.incrementAndGet();
+            if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                exchange.sendResponseHeaders(status, -1);
+            } else if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(HttpConstants.NOT_MODIFIED, -1);
+            } else {
+                downloads.incrementAndGet();
+                val body = document.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        url = new URL("http://localhost:" + server.getAddress().getPort() + "/jwks");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private CachingDocumentRetriever newRetriever(final boolean withCacheDirectory) {
+        val configuration = new OidcConfiguration();
+        if (withCacheDirectory) {
+            configuration.setMetadataCacheDirectory(cacheDirectory.toString());
+        }
+        return new CachingDocumentRetriever(configuration);
+    }
+
+    @Test
+    public void testNotModified() throws IOException {
+        val retriever = newRetriever(false);
+        val first = retriever.retrieveDocument(url);
+        assertTrue(first.modified());
+        assertEquals(DOCUMENT, first.content());
+        val second = retriever.retrieveDocument(url);
+        assertFalse(second.modified());
+        assertEquals(DOCUMENT, second.content());
+        assertEquals(2, requests.get());
+        assertEquals(1, downloads.get());
+        assertEquals(DOCUMENT, retriever.retrieveResource(url).getContent());
+    }
+
+    @Test
+    public void testNoCacheDirectory() throws IOException {
+        newRetriever(false).retrieveDocument(url);
+        assertNull(newRetriever(false).findStoredDocument(url));
+    }
+
+    @Test
+    public void testRestartFromCacheDirectory() throws IOException {
+        newRetriever(true).retrieveDocument(url);
+        assertEquals(1, requests.get());
+
+        val retriever = newRetriever(true);
+        val stored = retriever.findStoredDocument(url);
+        assertNotNull(stored);
+        assertEquals(DOCUMENT, stored.content());
+        assertEquals(ETAG, stored.etag());
+        // the saved document is revalidated with its validators before being served
+        assertEquals(DOCUMENT, retriever.retrieveResource(url).getContent());
+        assertEquals(2, requests.get());
+        assertEquals(1, downloads.get());
+        assertFalse(retriever.retrieveDocument(url).modified());
+    }
+
+    @Test
+    public void testSavedDocumentServedWhenUnreachable() throws IOException {
+        newRetriever(true).retrieveDocument(url);
+        server.stop(0);
+        val retriever = newRetriever(true);
+        assertThrows(IOException.class, () -> retriever.retrieveDocument(url));
+        assertEquals(DOCUMENT, retriever.retrieveResource(url).getContent());
+        assertThrows(IOException.class, () -> newRetriever(false).retrieveResource(url));
+    }
+
+    @Test
+    public void testSavedDocumentNotServedForErrorStatus() throws IOException {
+        val retriever = newRetriever(true);
+        retriever.retrieveDocument(url);
+        status = HttpURLConnection.HTTP_UNAVAILABLE;
+        assertThrows(IOException.class, () -> retriever.retrieveResource(url));
+        assertThrows(IOException.class, () -> newRetriever(true).retrieveResource(url));
+    }
+
+    @Test
+    public void testTooOldDocumentNotServedWhenUnreachable() throws IOException {
+        val retriever = newRetriever(true);
+        retriever.retrieveDocument(url);
+        server.stop(0);
+        retriever.setMaxStaleInSeconds(-1);
+        assertNull(retriever.findRecentStoredDocument(url));
+        assertThrows(IOException.class, () -> retriever.retrieveResource(url));
+    }
+
+    @Test
+    public void testOtherSuccessfulStatus() throws IOException {
+        status = HttpURLConnection.HTTP_NOT_AUTHORITATIVE;
+        assertEquals(DOCUMENT, newRetriever(false).retrieveDocument(url).content());
+    }
+
+    @Test
+    public void testMaxDocuments() throws IOException {
+        val retriever = newRetriever(false);
+        retriever.setMaxDocuments(1);
+        retriever.retrieveDocument(url);
+        retriever.retrieveDocument(new URL(url + "2"));
+        // the first document has been evicted: downloaded again
+        assertTrue(retriever.retrieveDocument(url).modified());
+        assertEquals(3, downloads.get());
+    }
+
+    @Test
+    public void testUnexpectedStatus() throws IOException {
+        val retriever = newRetriever(true);
+        assertThrows(IOException.class,
+            () -> retriever.retrieveDocument(new URL("http://localhost:" + server.getAddress().getPort() + "/unknown")));
+    }
+
+    @Test
+    public void testMetadataResolverReloadsOnlyModifiedMetadata() {
+        document = METADATA;
+        val configuration = new OidcConfiguration();
+        configuration.setClientId("clientId");
+        configuration.setSecret("secret");
+        configuration.setDiscoveryURI(url.toString());
+        configuration.setResourceRetriever(new CachingDocumentRetriever(configuration));
+        val resolver = new OidcOpMetadataResolver(configuration);
+        resolver.init();
+        val metadata = resolver.load();
+        assertEquals("http://localhost", metadata.getIssuer().getValue());
+        assertEquals(1, requests.get());
+
+        assertFalse(resolver.hasChanged());
+        assertEquals(2, requests.get());
+        assertSame(metadata, resolver.load());
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    public void testMetadataResolverRevalidatesSavedMetadataOnStartup() {
+        document = METADATA;
+        newMetadataResolver().init();
+        assertEquals(1, requests.get());
+
+        val resolver = newMetadataResolver();
+        resolver.init();
+        assertEquals("http://localhost", resolver.load().getIssuer().getValue());
+        // no background refresh: the saved metadata are revalidated on startup
+        assertEquals(2, requests.get());
+        assertEquals(1, downloads.get());
+    }
+
+    private OidcOpMetadataResolver newMetadataResolver() {
+        val configuration = new OidcConfiguration();
+        configuration.setClientId("clientId");
+        configuration.setSecret("secret");
+        configuration.setDiscoveryURI(url.toString());
+        configuration.setMetadataCacheDirectory(cacheDirectory.toString());
+        configuration.setResourceRetriever(new CachingDocumentRetriever(configuration));
+        return new OidcOpMetadataResolver(configuration);
+    }
+}
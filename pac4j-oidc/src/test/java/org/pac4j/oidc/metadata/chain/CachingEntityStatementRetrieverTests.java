@@ -0,0 +1,170 @@
+package org.pac4j.oidc.metadata.chain;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.openid.connect.sdk.federation.entities.EntityID;
+import com.nimbusds.openid.connect.sdk.federation.entities.EntityStatement;
+import com.nimbusds.openid.connect.sdk.federation.entities.EntityStatementClaimsSet;
+import com.nimbusds.openid.connect.sdk.federation.entities.FederationEntityMetadata;
+import com.nimbusds.openid.connect.sdk.federation.trust.EntityStatementRetriever;
+import com.nimbusds.openid.connect.sdk.federation.trust.ResolveException;
+import lombok.val;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link CachingEntityStatementRetriever}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class CachingEntityStatementRetrieverTests {
+
+    private static final EntityID LEAF = new EntityID("https://op.example.org");
+    private static final EntityID INTERMEDIATE1 = new EntityID("https://int1.example.org");
+    private static final EntityID INTERMEDIATE2 = new EntityID("https://int2.example.org");
+    private static final EntityID TRUST_ANCHOR = new EntityID("https://ta.example.org");
+
+    private static RSAKey key;
+
+    private final Map<String, AtomicInteger> fetches = new ConcurrentHashMap<>();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private long lifetime = 3600_000;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        key = new RSAKeyGenerator(2048).keyID("key").generate();
+    }
+
+    private final EntityStatementRetriever delegate = new EntityStatementRetriever() {
+        @Override
+        public EntityStatement fetchEntityConfiguration(final EntityID target) throws ResolveException {
+            record("configuration|" + target.getValue());
+            if (failures.getAndDecrement() > 0) {
+                throw new ResolveException("unavailable");
+            }
+            if (LEAF.equals(target)) {
+                return build(LEAF, LEAF, List.of(INTERMEDIATE1, INTERMEDIATE2));
+            } else if (TRUST_ANCHOR.equals(target)) {
+                return build(TRUST_ANCHOR, TRUST_ANCHOR, null);
+            }
+            return build(target, target, List.of(TRUST_ANCHOR));
+        }
+
+        @Override
+        public EntityStatement fetchEntityStatement(final URI federationAPIEndpoint, final EntityID issuer, final EntityID subject)
+            throws ResolveException {
+            record("statement|" + issuer.getValue() + "|" + subject.getValue());
+            return build(issuer, subject, null);
+        }
+    };
+
+    private void record(final String fetch) {
+        fetches.computeIfAbsent(fetch, k -> new AtomicInteger()).incrementAndGet();
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(100);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private EntityStatement build(final EntityID issuer, final EntityID subject, final List<EntityID> authorityHints) {
+        try {
+            val now = System.currentTimeMillis();
+            val claims = new EntityStatementClaimsSet(issuer, subject, new Date(now), new Date(now + lifetime),
+                new JWKSet(key.toPublicJWK()));
+            if (issuer.equals(subject)) {
+                claims.setFederationEntityMetadata(new FederationEntityMetadata(new URI(issuer.getValue() + "/fetch")));
+            }
+            if (authorityHints != null) {
+                claims.setAuthorityHints(authorityHints);
+            }
+            return EntityStatement.sign(claims, key);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int fetchCount(final String fetch) {
+        val count = fetches.get(fetch);
+        return count != null ? count.get() : 0;
+    }
+
+    @Test
+    public void testStatementsAreCached() throws Exception {
+        val retriever = new CachingEntityStatementRetriever(delegate);
+        retriever.setExecutor(Runnable::run);
+
+        val first = retriever.fetchEntityConfiguration(TRUST_ANCHOR);
+        assertSame(first, retriever.fetchEntityConfiguration(TRUST_ANCHOR));
+        val endpoint = new URI(TRUST_ANCHOR.getValue() + "/fetch");
+        val statement = retriever.fetchEntityStatement(endpoint, TRUST_ANCHOR, INTERMEDIATE1);
+        assertSame(statement, retriever.fetchEntityStatement(endpoint, TRUST_ANCHOR, INTERMEDIATE1));
+
+        assertEquals(1, fetchCount("configuration|" + TRUST_ANCHOR.getValue()));
+        assertEquals(1, fetchCount("statement|" + TRUST_ANCHOR.getValue() + "|" + INTERMEDIATE1.getValue()));
+    }
+
+    @Test
+    public void testExpiredStatementsAreFetchedAgain() throws Exception {
+        lifetime = -1000;
+        val retriever = new CachingEntityStatementRetriever(delegate);
+
+        retriever.fetchEntityConfiguration(TRUST_ANCHOR);
+        retriever.fetchEntityConfiguration(TRUST_ANCHOR);
+
+        assertEquals(2, fetchCount("configuration|" + TRUST_ANCHOR.getValue()));
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws Exception {
+        failures.set(1);
+        val retriever = new CachingEntityStatementRetriever(delegate);
+
+        assertThrows(ResolveException.class, () -> retriever.fetchEntityConfiguration(TRUST_ANCHOR));
+        assertNotNull(retriever.fetchEntityConfiguration(TRUST_ANCHOR));
+
+        assertEquals(2, fetchCount("configuration|" + TRUST_ANCHOR.getValue()));
+    }
+
+    @Test
+    public void testSuperiorsArePrefetchedInParallel() throws Exception {
+        val retriever = new CachingEntityStatementRetriever(delegate);
+
+        retriever.fetchEntityConfiguration(LEAF);
+        // the superiors are requested like in a trust chain resolution
+        for (val intermediate : List.of(INTERMEDIATE1, INTERMEDIATE2)) {
+            retriever.fetchEntityConfiguration(intermediate);
+            retriever.fetchEntityStatement(new URI(intermediate.getValue() + "/fetch"), intermediate, LEAF);
+            retriever.fetchEntityConfiguration(TRUST_ANCHOR);
+            retriever.fetchEntityStatement(new URI(TRUST_ANCHOR.getValue() + "/fetch"), TRUST_ANCHOR, intermediate);
+        }
+
+        assertEquals(1, fetchCount("configuration|" + LEAF.getValue()));
+        assertEquals(1, fetchCount("configuration|" + INTERMEDIATE1.getValue()));
+        assertEquals(1, fetchCount("configuration|" + INTERMEDIATE2.getValue()));
+        assertEquals(1, fetchCount("configuration|" + TRUST_ANCHOR.getValue()));
+        assertEquals(1, fetchCount("statement|" + INTERMEDIATE1.getValue() + "|" + LEAF.getValue()));
+        assertEquals(1, fetchCount("statement|" + TRUST_ANCHOR.getValue() + "|" + INTERMEDIATE2.getValue()));
+        assertTrue(maxRunning.get() >= 2);
+    }
+}
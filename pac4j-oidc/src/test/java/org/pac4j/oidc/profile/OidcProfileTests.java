@@ -10,6 +10,7 @@ import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.pac4j.test.util.TestsConstants;
+import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.util.serializer.JavaSerializer;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
@@ -19,6 +20,7 @@ import org.pac4j.oidc.profile.google.GoogleOidcProfile;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -148,6 +150,64 @@ public final class OidcProfileTests implements TestsConstants {
     /**
      * Default behavior. No expiration info.
      */
+    @Test
+    public void testTokenVault() {
+        val store = new GuavaStore<String, VaultedTokens>(100, 1, TimeUnit.HOURS);
+        val vault = new OidcTokenVault(store);
+        var profile = new OidcProfile();
+        profile.setAccessToken(populatedAccessToken);
+        profile.setIdTokenString(ID_TOKEN);
+        profile.setRefreshToken(new RefreshToken(REFRESH_TOKEN));
+        profile.setClientName(MY_CLIENT_NAME);
+
+        vault.save(profile);
+        assertNull(profile.getAttribute(OidcProfileDefinition.ACCESS_TOKEN));
+        assertNull(profile.getAttribute(OidcProfileDefinition.ID_TOKEN));
+        assertNull(profile.getAttribute(OidcProfileDefinition.REFRESH_TOKEN));
+        assertNotNull(profile.getAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE));
+
+        val result = JAVA_SERIALIZER.serializeToBytes(profile);
+        profile = (OidcProfile) JAVA_SERIALIZER.deserializeFromBytes(result);
+        // the vault is not attached yet
+        assertNull(profile.getAccessToken());
+
+        vault.attach(profile);
+        assertEquals(populatedAccessToken.getValue(), profile.getAccessToken().getValue());
+        assertEquals(ID_TOKEN, profile.getIdTokenString());
+        assertEquals(REFRESH_TOKEN, profile.getRefreshToken().getValue());
+
+        vault.remove(profile);
+        // the tokens already resolved remain available
+        assertEquals(ID_TOKEN, profile.getIdTokenString());
+        profile = (OidcProfile) JAVA_SERIALIZER.deserializeFromBytes(result);
+        vault.attach(profile);
+        assertNull(profile.getAccessToken());
+        assertNull(profile.getRefreshToken());
+    }
+
+    @Test
+    public void testTokenVaultRenewal() {
+        val store = new GuavaStore<String, VaultedTokens>(100, 1, TimeUnit.HOURS);
+        val vault = new OidcTokenVault(store);
+        val previousProfile = new OidcProfile();
+        previousProfile.setAccessToken(populatedAccessToken);
+        vault.save(previousProfile);
+        val handle = previousProfile.getAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE);
+
+        val profile = new OidcProfile();
+        profile.setAccessToken(new BearerAccessToken("renewed"));
+        vault.save(profile);
+        vault.renew(previousProfile, profile);
+
+        // the renewed tokens replace the previous ones under the same handle
+        assertEquals(handle, profile.getAttribute(OidcProfileDefinition.TOKEN_VAULT_HANDLE));
+        assertEquals(1, store.getCache().size());
+        assertEquals("renewed", profile.getAccessToken().getValue());
+        val restoredProfile = (OidcProfile) JAVA_SERIALIZER.deserializeFromBytes(JAVA_SERIALIZER.serializeToBytes(previousProfile));
+        vault.attach(restoredProfile);
+        assertEquals("renewed", restoredProfile.getAccessToken().getValue());
+    }
+
     @Test
     public void testNullTokenExpiration() {
         var profile = new OidcProfile();
@@ -191,6 +251,23 @@ public final class OidcProfileTests implements TestsConstants {
         assertTrue(profile.isExpired());
     }
 
+    @Test
+    public void testRenewalDue() {
+        final AccessToken token = new BearerAccessToken("token_value", 60, new Scope("scope"));
+        val profile = new OidcProfile();
+        profile.setAccessToken(token);
+        profile.setRefreshToken(new RefreshToken("refresh_token"));
+        profile.setTokenExpirationAdvance(0);
+        assertFalse(profile.isRenewalDue());
+        profile.setProactiveRefreshTime(30);
+        assertFalse(profile.isRenewalDue());
+        profile.setProactiveRefreshTime(120);
+        assertTrue(profile.isRenewalDue());
+        assertFalse(profile.isExpired());
+        profile.setTokenExpirationAdvance(-1);
+        assertFalse(profile.isRenewalDue());
+    }
+
     /**
      * Test experation based on access token exp date.
      */
@@ -5,7 +5,9 @@ import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.oauth2.sdk.token.AccessToken;
 import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import com.nimbusds.oauth2.sdk.token.RefreshToken;
 import com.nimbusds.openid.connect.sdk.claims.IDTokenClaimsSet;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import lombok.val;
@@ -16,6 +18,8 @@ import org.pac4j.test.context.session.MockSessionStore;
 import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.creator.ProfileCreator;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.serializer.JavaSerializer;
 import org.pac4j.test.util.TestsConstants;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.config.OidcConfiguration;
@@ -24,10 +28,16 @@ import org.pac4j.oidc.credentials.authenticator.OidcAuthenticator;
 import org.pac4j.oidc.exceptions.OidcConfigurationException;
 import org.pac4j.oidc.federation.config.OidcFederationProperties;
 import org.pac4j.oidc.metadata.OidcOpMetadataResolver;
+import org.pac4j.oidc.profile.OidcProfile;
+import org.pac4j.oidc.profile.OidcProfileDefinition;
+import org.pac4j.oidc.profile.OidcTokenVault;
+import org.pac4j.oidc.profile.VaultedTokens;
 import org.pac4j.test.context.MockWebContext;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -91,6 +101,52 @@ public class OidcProfileCreatorTests implements TestsConstants {
         assertTrue(creator.create(new CallContext(webContext, new MockSessionStore()), credentials).isPresent());
     }
 
+    @Test
+    public void testCreateOidcProfileWithTokenVault() throws Exception {
+        val vault = new OidcTokenVault(new GuavaStore<>(100, 1, TimeUnit.HOURS));
+        when(configuration.getTokenVault()).thenReturn(vault);
+        OidcClient client = new OidcClient(configuration);
+        client.setAuthenticator(new OidcAuthenticator(configuration, client));
+        ProfileCreator creator = new OidcProfileCreator(configuration, client);
+        var webContext = MockWebContext.create();
+        var credentials = new OidcCredentials();
+        val accessToken = new BearerAccessToken(UUID.randomUUID().toString());
+        credentials.setAccessToken(accessToken.toJSONObject());
+        JWT idToken = new PlainJWT(idTokenClaims.toJWTClaimsSet());
+        credentials.setIdToken(idToken.serialize());
+
+        val profile = (OidcProfile) creator.create(new CallContext(webContext, new MockSessionStore()), credentials).orElseThrow();
+        assertNull(profile.getAttribute(OidcProfileDefinition.ACCESS_TOKEN));
+        assertNull(profile.getAttribute(OidcProfileDefinition.ID_TOKEN));
+        assertEquals(accessToken.getValue(), profile.getAccessToken().getValue());
+        assertEquals(idToken.serialize(), profile.getIdTokenString());
+    }
+
+    @Test
+    public void testTokenVaultRestoredAndReleasedByClient() throws Exception {
+        val store = new GuavaStore<String, VaultedTokens>(100, 1, TimeUnit.HOURS);
+        when(configuration.getTokenVault()).thenReturn(new OidcTokenVault(store));
+        val client = new OidcClient(configuration);
+        client.setAuthenticator(new OidcAuthenticator(configuration, client));
+        val creator = new OidcProfileCreator(configuration, client);
+        val ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+        val credentials = new OidcCredentials();
+        credentials.setAccessToken(new BearerAccessToken(VALUE).toJSONObject());
+        val idToken = new PlainJWT(idTokenClaims.toJWTClaimsSet()).serialize();
+        credentials.setIdToken(idToken);
+        val created = creator.create(ctx, credentials).orElseThrow();
+
+        val serializer = new JavaSerializer();
+        val profile = (OidcProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(created));
+        client.restoreUserProfile(ctx, profile);
+        assertEquals(VALUE, profile.getAccessToken().getValue());
+
+        client.releaseUserProfile(ctx, profile);
+        assertEquals(0, store.getCache().size());
+        // the ID token remains available for the central logout
+        assertEquals(idToken, profile.getIdTokenString());
+    }
+
     @Test
     public void testCreateOidcProfileWithoutAccessToken() throws Exception {
         when(configuration.isIncludeAccessTokenClaimsInProfile()).thenReturn(true);
@@ -145,4 +201,66 @@ public class OidcProfileCreatorTests implements TestsConstants {
         assertThrows(OidcConfigurationException.class,
             () -> creator.create(new CallContext(webContext, new MockSessionStore()), credentials));
     }
+
+    @Test
+    public void testUserInfoCache() throws Exception {
+        when(configuration.isCallUserInfoEndpoint()).thenReturn(true);
+        val store = new GuavaStore<String, CachedUserInfo>(100, 1, TimeUnit.HOURS);
+        when(configuration.getUserInfoStore()).thenReturn(store);
+        when(configuration.getUserInfoCacheMaxTtl()).thenReturn(300);
+        val calls = new AtomicInteger();
+        val creator = new OidcProfileCreator(configuration, new OidcClient(configuration)) {
+            @Override
+            protected JWTClaimsSet retrieveUserInfoClaims(final AccessToken accessToken) {
+                calls.incrementAndGet();
+                return new JWTClaimsSet.Builder().subject("user" + calls.get()).claim("email", "user@pac4j.org").build();
+            }
+        };
+        val webContext = MockWebContext.create();
+        val credentials = new TokenCredentials(VALUE);
+
+        val profile = creator.create(new CallContext(webContext, new MockSessionStore()), credentials);
+        assertEquals("user1", profile.get().getId());
+        assertEquals("user@pac4j.org", profile.get().getAttribute("email"));
+        val profile2 = creator.create(new CallContext(webContext, new MockSessionStore()), new TokenCredentials(VALUE));
+        assertEquals("user1", profile2.get().getId());
+        assertEquals("user@pac4j.org", profile2.get().getAttribute("email"));
+        assertEquals(1, calls.get());
+        // the access token itself is not stored
+        assertTrue(store.get(VALUE).isEmpty());
+
+        creator.create(new CallContext(webContext, new MockSessionStore()), new TokenCredentials(TOKEN));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testUserInfoCacheBoundedByTokenExpiration() {
+        when(configuration.getUserInfoCacheMaxTtl()).thenReturn(300);
+        val creator = new OidcProfileCreator(configuration, new OidcClient(configuration));
+        val expiration = new Date(System.currentTimeMillis() + 10_000);
+        val jwt = new PlainJWT(new JWTClaimsSet.Builder().expirationTime(expiration).build()).serialize();
+        assertEquals(expiration.getTime() / 1000 * 1000, creator.computeUserInfoCacheExpirationTime(new BearerAccessToken(jwt)));
+        val opaqueExpiration = creator.computeUserInfoCacheExpirationTime(new BearerAccessToken(VALUE));
+        assertTrue(opaqueExpiration > System.currentTimeMillis() + 290_000);
+    }
+
+    @Test
+    public void testProactiveRefreshTimeBoundedByTokenLifetime() {
+        when(configuration.getProactiveTokenRefreshTime()).thenReturn(300);
+        when(configuration.getTokenExpirationAdvance()).thenReturn(0);
+        val creator = new OidcProfileCreator(configuration, new OidcClient(configuration));
+        val profile = new OidcProfile();
+        assertEquals(300, creator.computeProactiveRefreshTime(profile));
+        profile.setExpiration(new Date(System.currentTimeMillis() + 3_600_000));
+        assertEquals(300, creator.computeProactiveRefreshTime(profile));
+        profile.setExpiration(new Date(System.currentTimeMillis() + 61_000));
+        profile.setProactiveRefreshTime(creator.computeProactiveRefreshTime(profile));
+        assertEquals(30, profile.getProactiveRefreshTime());
+        profile.setTokenExpirationAdvance(0);
+        profile.setRefreshToken(new RefreshToken(VALUE));
+        // a renewed profile is not due for renewal right away
+        assertFalse(profile.isRenewalDue());
+        profile.setExpiration(new Date(System.currentTimeMillis() - 1000));
+        assertEquals(0, creator.computeProactiveRefreshTime(profile));
+    }
 }
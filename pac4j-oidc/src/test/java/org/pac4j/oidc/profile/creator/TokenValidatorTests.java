@@ -1,6 +1,9 @@
 package org.pac4j.oidc.profile.creator;
 
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.id.Issuer;
 import com.nimbusds.openid.connect.sdk.Nonce;
@@ -10,8 +13,10 @@ import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import com.nimbusds.openid.connect.sdk.validators.IDTokenValidator;
 import com.nimbusds.openid.connect.sdk.validators.LogoutTokenValidator;
 import net.minidev.json.JSONObject;
+import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.test.util.TestsHelper;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
@@ -19,6 +24,7 @@ import org.pac4j.jwt.profile.JwtGenerator;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.test.util.TestsConstants;
 
+import java.io.Closeable;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -120,6 +126,50 @@ public final class TokenValidatorTests implements TestsConstants {
         assertEquals(1, logoutTokenValidators.size());
     }
 
+    @Test
+    public void testSharedJwkSource() throws URISyntaxException {
+        algorithms.add(JWSAlgorithm.RS256);
+        algorithms.add(JWSAlgorithm.ES256);
+        when(metadata.supportsBackChannelLogout()).thenReturn(true);
+
+        final TokenValidator validator = new TokenValidator(configuration, metadata);
+        val jwkSource = validator.getJwkSource();
+        assertNotNull(jwkSource);
+        for (val idTokenValidator : validator.getIdTokenValidators()) {
+            assertSame(jwkSource, ((JWSVerificationKeySelector<?>) idTokenValidator.getJWSKeySelector()).getJWKSource());
+        }
+        for (val logoutTokenValidator : validator.getLogoutTokenValidators()) {
+            assertSame(jwkSource, ((JWSVerificationKeySelector<?>) logoutTokenValidator.getJWSKeySelector()).getJWKSource());
+        }
+
+        assertTrue(validator.canReuseJwkSourceFor(metadata));
+        final TokenValidator validator2 = new TokenValidator(configuration, metadata, jwkSource);
+        assertSame(jwkSource, validator2.getJwkSource());
+
+        final OIDCProviderMetadata metadata2 = mock(OIDCProviderMetadata.class);
+        when(metadata2.getJWKSetURI()).thenReturn(new URI(CALLBACK_URL));
+        assertFalse(validator.canReuseJwkSourceFor(metadata2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCloseJwkSource() throws Exception {
+        algorithms.add(JWSAlgorithm.RS256);
+        final JWKSource<SecurityContext> jwkSource = mock(JWKSource.class,
+            Mockito.withSettings().extraInterfaces(Closeable.class));
+        final TokenValidator validator = new TokenValidator(configuration, metadata, jwkSource);
+        validator.closeJwkSource();
+        Mockito.verify((Closeable) jwkSource).close();
+    }
+
+    @Test
+    public void testNoJwkSourceForSecret() {
+        algorithms.add(JWSAlgorithm.HS256);
+        final TokenValidator validator = new TokenValidator(configuration, metadata);
+        assertNull(validator.getJwkSource());
+        assertFalse(validator.canReuseJwkSourceFor(metadata));
+    }
+
     @Test
     public void testValidateIdToken() throws Exception {
         algorithms.add(JWSAlgorithm.HS256);
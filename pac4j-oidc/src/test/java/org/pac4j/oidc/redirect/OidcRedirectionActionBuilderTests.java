@@ -23,6 +23,7 @@ import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.exceptions.OidcException;
 import org.pac4j.oidc.metadata.OidcFederationOpMetadataResolver;
 import org.pac4j.oidc.metadata.OidcOpMetadataResolver;
+import org.pac4j.oidc.util.SessionAuthenticationStateStore;
 import org.pac4j.test.context.MockWebContext;
 import org.pac4j.test.context.session.MockSessionStore;
 import org.pac4j.test.util.TestsConstants;
@@ -200,6 +201,24 @@ public class OidcRedirectionActionBuilderTests implements TestsConstants {
         assertTrue(sessionStore.get(webContext, client.getCodeVerifierSessionAttributeName()).isPresent());
     }
 
+    @Test
+    public void testOidcRedirectionSavesOneAuthenticationState() throws Exception {
+        configuration.setUseNonce(true);
+        configuration.setUseNonceOnRefresh(false);
+        configuration.setPkceMethod(CodeChallengeMethod.S256);
+        configuration.setAuthenticationStateStore(new SessionAuthenticationStateStore());
+
+        val action = getFoundAction();
+        val url = new URIBuilder(action.getLocation());
+        val state = url.getFirstQueryParam(OidcConfiguration.STATE).getValue();
+        assertTrue(sessionStore.get(webContext, client.getStateSessionAttributeName()).isEmpty());
+        assertTrue(sessionStore.get(webContext, client.getNonceSessionAttributeName()).isEmpty());
+        assertTrue(sessionStore.get(webContext, client.getCodeVerifierSessionAttributeName()).isEmpty());
+        val authenticationState = configuration.getAuthenticationStateStore().remove(context, client, state).orElseThrow();
+        assertEquals(url.getFirstQueryParam(OidcConfiguration.NONCE).getValue(), authenticationState.getNonce());
+        assertNotNull(authenticationState.getCodeVerifier());
+    }
+
     @Test
     public void testOidcRedirectionUsesSignedRequestObjectWhenRequested() throws Exception {
         configuration.setRequestObjectSigningAlgorithm(JWSAlgorithm.RS256);
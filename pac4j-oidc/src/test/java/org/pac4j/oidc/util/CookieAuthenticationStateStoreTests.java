@@ -0,0 +1,107 @@
+package org.pac4j.oidc.util;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.oidc.client.OidcClient;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.exceptions.OidcConfigurationException;
+import org.pac4j.test.context.MockWebContext;
+import org.pac4j.test.context.session.MockSessionStore;
+import org.pac4j.test.util.TestsConstants;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link CookieAuthenticationStateStore}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class CookieAuthenticationStateStoreTests implements TestsConstants {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private OidcClient client;
+
+    private MockSessionStore sessionStore;
+
+    @BeforeEach
+    public void beforeEach() {
+        client = new OidcClient();
+        client.setConfiguration(new OidcConfiguration());
+        client.setName(NAME);
+        sessionStore = new MockSessionStore();
+    }
+
+    private Cookie save(final CookieAuthenticationStateStore store, final AuthenticationState authenticationState) {
+        val webContext = MockWebContext.create();
+        store.save(new CallContext(webContext, sessionStore), client, authenticationState);
+        assertTrue(sessionStore.getSessionId(webContext, false).isEmpty());
+        assertEquals(1, webContext.getResponseCookies().size());
+        return webContext.getResponseCookies().iterator().next();
+    }
+
+    private CallContext callbackContext(final Cookie cookie) {
+        val webContext = MockWebContext.create();
+        webContext.getRequestCookies().add(cookie);
+        return new CallContext(webContext, sessionStore);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        val store = new CookieAuthenticationStateStore(SECRET);
+        val cookie = save(store, new AuthenticationState(VALUE, "nonce", "verifier"));
+        assertTrue(cookie.isHttpOnly());
+        assertEquals("Lax", cookie.getSameSitePolicy());
+        assertFalse(cookie.getValue().contains("verifier"));
+
+        val ctx = callbackContext(cookie);
+        val authenticationState = store.remove(ctx, client, VALUE).orElseThrow();
+        assertEquals(VALUE, authenticationState.getState());
+        assertEquals("nonce", authenticationState.getNonce());
+        assertEquals("verifier", authenticationState.getCodeVerifier());
+        // the cookie is expired
+        val expiredCookie = ((MockWebContext) ctx.webContext()).getResponseCookies().iterator().next();
+        assertEquals(cookie.getName(), expiredCookie.getName());
+        assertEquals(0, expiredCookie.getMaxAge());
+    }
+
+    @Test
+    public void testFormPostCookieIsCrossSite() {
+        client.getConfiguration().setResponseMode("form_post");
+        val cookie = save(new CookieAuthenticationStateStore(SECRET), new AuthenticationState(VALUE, null, null));
+        assertEquals("None", cookie.getSameSitePolicy());
+        assertTrue(cookie.isSecure());
+    }
+
+    @Test
+    public void testOtherState() {
+        val store = new CookieAuthenticationStateStore(SECRET);
+        val cookie = save(store, new AuthenticationState(VALUE, null, null));
+        assertTrue(store.remove(callbackContext(cookie), client, FAKE_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testOtherSecret() {
+        val cookie = save(new CookieAuthenticationStateStore(SECRET), new AuthenticationState(VALUE, null, null));
+        assertTrue(new CookieAuthenticationStateStore(SECRET + "2").remove(callbackContext(cookie), client, VALUE).isEmpty());
+    }
+
+    @Test
+    public void testExpired() {
+        val store = new CookieAuthenticationStateStore(SECRET);
+        val cookie = save(store, new AuthenticationState(VALUE, null, null, System.currentTimeMillis() - 3600_000L));
+        assertTrue(store.remove(callbackContext(cookie), client, VALUE).isEmpty());
+    }
+
+    @Test
+    public void testShortSecret() {
+        val store = new CookieAuthenticationStateStore("short");
+        val e = assertThrows(OidcConfigurationException.class, store::checkSecret);
+        assertEquals("The secret of the CookieAuthenticationStateStore must have at least 32 bytes", e.getMessage());
+        assertThrows(OidcConfigurationException.class, () -> save(store, new AuthenticationState(VALUE, null, null)));
+    }
+}
@@ -0,0 +1,69 @@
+package org.pac4j.oidc.util;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.oidc.client.OidcClient;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.test.context.MockWebContext;
+import org.pac4j.test.context.session.MockSessionStore;
+import org.pac4j.test.util.TestsConstants;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link SessionAuthenticationStateStore}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class SessionAuthenticationStateStoreTests implements TestsConstants {
+
+    private OidcClient client;
+
+    private CallContext ctx;
+
+    @BeforeEach
+    public void beforeEach() {
+        client = new OidcClient();
+        client.setConfiguration(new OidcConfiguration());
+        client.setName(NAME);
+        ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+    }
+
+    @Test
+    public void testRoundTrip() {
+        val store = new SessionAuthenticationStateStore();
+        store.save(ctx, client, new AuthenticationState(VALUE, "nonce", "verifier"));
+        store.save(ctx, client, new AuthenticationState(KEY, null, null));
+
+        val authenticationState = store.remove(ctx, client, VALUE).orElseThrow();
+        assertEquals("nonce", authenticationState.getNonce());
+        assertEquals("verifier", authenticationState.getCodeVerifier());
+        assertTrue(store.remove(ctx, client, VALUE).isEmpty());
+        assertTrue(store.remove(ctx, client, KEY).isPresent());
+        assertTrue(ctx.sessionStore().get(ctx.webContext(), client.getAuthenticationStateAttributeName()).isEmpty());
+    }
+
+    @Test
+    public void testExpiredState() {
+        val store = new SessionAuthenticationStateStore();
+        store.save(ctx, client, new AuthenticationState(VALUE, null, null, System.currentTimeMillis() - 601_000));
+        assertTrue(store.remove(ctx, client, VALUE).isEmpty());
+    }
+
+    @Test
+    public void testMaxEntries() {
+        val store = new SessionAuthenticationStateStore();
+        store.setMaxEntries(2);
+        store.save(ctx, client, new AuthenticationState(VALUE, null, null));
+        store.save(ctx, client, new AuthenticationState(KEY, null, null));
+        store.save(ctx, client, new AuthenticationState(NAME, null, null));
+
+        // the oldest authorization request is dropped
+        assertTrue(store.remove(ctx, client, VALUE).isEmpty());
+        assertTrue(store.remove(ctx, client, KEY).isPresent());
+        assertTrue(store.remove(ctx, client, NAME).isPresent());
+    }
+}
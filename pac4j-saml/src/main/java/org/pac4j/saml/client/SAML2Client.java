@@ -25,6 +25,7 @@ import org.pac4j.saml.profile.api.SAML2ResponseValidator;
 import org.pac4j.saml.redirect.SAML2RedirectionActionBuilder;
 import org.pac4j.saml.replay.InMemoryReplayCacheProvider;
 import org.pac4j.saml.replay.ReplayCacheProvider;
+import org.pac4j.saml.replay.StoreReplayCacheProvider;
 import org.pac4j.saml.sso.artifact.DefaultSOAPPipelineProvider;
 import org.pac4j.saml.sso.artifact.SOAPPipelineProvider;
 import org.pac4j.saml.sso.impl.SAML2AuthnResponseValidator;
@@ -254,7 +255,8 @@ public class SAML2Client extends IndirectClient {
 
     protected void initSAMLReplayCache(final boolean forceReinit) {
         if (replayCache == null || forceReinit) {
-            replayCache = new InMemoryReplayCacheProvider();
+            val replayCacheStore = configuration.getReplayCacheStore();
+            replayCache = replayCacheStore != null ? new StoreReplayCacheProvider(replayCacheStore) : new InMemoryReplayCacheProvider();
         }
     }
 
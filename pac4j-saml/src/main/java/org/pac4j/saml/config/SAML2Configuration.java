@@ -20,6 +20,7 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.keystore.generation.KeystoreGenerator;
 import org.pac4j.core.profile.converter.AttributeConverter;
 import org.pac4j.core.resource.SpringResourceHelper;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.saml.crypto.CredentialProvider;
 import org.pac4j.saml.crypto.KeyStoreCredentialProvider;
@@ -43,6 +44,7 @@ import org.springframework.core.io.UrlResource;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 import java.net.URL;
+import java.time.Instant;
 import java.time.Period;
 import java.util.*;
 import java.util.function.Supplier;
@@ -136,6 +138,12 @@ public class SAML2Configuration extends BaseClientConfiguration {
 
     private SAMLMessageStoreFactory samlMessageStoreFactory = new EmptyStoreFactory();
 
+    /**
+     * The store (shared by the nodes of a cluster) of the assertion IDs already received, to detect the replay attacks:
+     * when not defined, they are kept in memory.
+     */
+    private Store<String, Instant> replayCacheStore;
+
     private SAML2MetadataGenerator metadataGenerator;
 
     private CredentialProvider credentialProvider;
@@ -205,6 +213,18 @@ public class SAML2Configuration extends BaseClientConfiguration {
 
     private int identityProviderMetadataReadTimeout = 2500;
 
+    /**
+     * Whether the identity provider metadata (like a federation aggregate) are streamed and filtered
+     * to only keep the {@link #identityProviderEntityId} (or the identity providers) before being parsed.
+     */
+    private boolean identityProviderMetadataStreamingFilter;
+
+    /**
+     * The file where the last successfully loaded identity provider metadata (with their ETag / Last-Modified) are saved:
+     * on startup, they are loaded from this snapshot and revalidated against the metadata URL in the background.
+     */
+    private String identityProviderMetadataSnapshotPath;
+
     /**
      * <p>Constructor for SAML2Configuration.</p>
      *
@@ -0,0 +1,126 @@
+package org.pac4j.saml.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import net.shibboleth.shared.resolver.Criterion;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import net.shibboleth.shared.resolver.ResolverException;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.criterion.ProtocolCriterion;
+import org.opensaml.saml.saml2.metadata.RoleDescriptor;
+import org.opensaml.saml.security.impl.MetadataCredentialResolver;
+import org.opensaml.security.credential.Credential;
+import org.opensaml.security.criteria.UsageCriterion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A metadata credential resolver which keeps the credentials resolved from the metadata (key descriptors)
+ * for the entity/role/protocol/usage criteria used to validate the signatures.
+ *
+ * The role descriptors are still resolved for each call (so the metadata resolvers can refresh their entities,
+ * like the MDQ one): the cached credentials are only used while they were resolved from the same role descriptors.
+ * A new resolver is also built when the underlying metadata are reloaded (see {@link ExplicitSignatureTrustEngineProvider}).
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Slf4j
+public class CachingMetadataCredentialResolver extends MetadataCredentialResolver {
+
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    private final Map<String, CachedCredentials> credentials = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override
+    protected Iterable<Credential> resolveFromSource(final CriteriaSet criteriaSet) throws ResolverException {
+        val key = computeCacheKey(criteriaSet);
+        if (key == null) {
+            return super.resolveFromSource(criteriaSet);
+        }
+        final List<RoleDescriptor> roleDescriptors = new ArrayList<>();
+        val roleDescriptorResolver = getRoleDescriptorResolver();
+        if (roleDescriptorResolver != null) {
+            roleDescriptorResolver.resolve(criteriaSet).forEach(roleDescriptors::add);
+        }
+        val cachedCredentials = credentials.get(key);
+        if (cachedCredentials != null && cachedCredentials.isResolvedFrom(roleDescriptors)) {
+            return cachedCredentials.credentials();
+        }
+        final List<Credential> resolvedCredentials = new ArrayList<>();
+        super.resolveFromSource(criteriaSet).forEach(resolvedCredentials::add);
+        // an unknown entity may be added by the next metadata reload: not cached
+        if (resolvedCredentials.isEmpty() || roleDescriptors.isEmpty()) {
+            credentials.remove(key);
+        } else if (cachedCredentials != null || credentials.size() < MAX_CACHE_SIZE) {
+            LOGGER.debug("Caching {} credential(s) for: {}", resolvedCredentials.size(), key);
+            credentials.put(key, new CachedCredentials(List.copyOf(roleDescriptors), List.copyOf(resolvedCredentials)));
+        }
+        return resolvedCredentials;
+    }
+
+    /**
+     * Compute the cache key for the criteria: <code>null</code> if they can't be cached.
+     *
+     * @param criteriaSet the criteria
+     * @return the cache key
+     */
+    protected String computeCacheKey(final CriteriaSet criteriaSet) {
+        if (criteriaSet == null || criteriaSet.get(EntityIdCriterion.class) == null
+            || criteriaSet.get(EntityRoleCriterion.class) == null) {
+            return null;
+        }
+        val key = new StringBuilder();
+        for (final Criterion criterion : criteriaSet) {
+            if (criterion instanceof EntityIdCriterion entityIdCriterion) {
+                key.append("|entityId=").append(entityIdCriterion.getEntityId());
+            } else if (criterion instanceof EntityRoleCriterion entityRoleCriterion) {
+                key.append("|role=").append(entityRoleCriterion.getRole());
+            } else if (criterion instanceof ProtocolCriterion protocolCriterion) {
+                key.append("|protocol=").append(protocolCriterion.getProtocol());
+            } else if (criterion instanceof UsageCriterion usageCriterion) {
+                key.append("|usage=").append(usageCriterion.getUsage());
+            } else {
+                // other criteria may change the resolved credentials
+                return null;
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Return the number of cached credential lists.
+     *
+     * @return the number of cached credential lists
+     */
+    public int size() {
+        return credentials.size();
+    }
+
+    /**
+     * Credentials resolved from role descriptors.
+     *
+     * @param roleDescriptors the role descriptors
+     * @param credentials the credentials
+     */
+    private record CachedCredentials(List<RoleDescriptor> roleDescriptors, List<Credential> credentials) {
+
+        boolean isResolvedFrom(final List<RoleDescriptor> currentRoleDescriptors) {
+            if (currentRoleDescriptors.size() != roleDescriptors.size()) {
+                return false;
+            }
+            // refreshed metadata are new objects
+            for (var i = 0; i < roleDescriptors.size(); i++) {
+                if (currentRoleDescriptors.get(i) != roleDescriptors.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package org.pac4j.saml.crypto;
 
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.shibboleth.shared.component.ComponentInitializationException;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.metadata.resolver.RefreshableMetadataResolver;
 import org.opensaml.saml.metadata.resolver.impl.PredicateRoleDescriptorResolver;
-import org.opensaml.saml.security.impl.MetadataCredentialResolver;
 import org.opensaml.xmlsec.config.impl.DefaultSecurityConfigurationBootstrap;
 import org.opensaml.xmlsec.signature.support.SignatureTrustEngine;
 import org.opensaml.xmlsec.signature.support.impl.ExplicitKeySignatureTrustEngine;
@@ -12,18 +13,27 @@ import org.pac4j.saml.exceptions.SAMLException;
 import org.pac4j.saml.metadata.SAML2MetadataResolver;
 import org.pac4j.saml.util.SAML2Utils;
 
+import java.time.Instant;
+import java.util.Objects;
+
 /**
  * Provider returning well configured {@link SignatureTrustEngine} instances.
  *
+ * The trust engine (and the credentials it resolves from the metadata) is built once and reused
+ * until the IdP or SP metadata resolver is reloaded.
+ *
  * @author Misagh Moayyed
  * @since 1.8.0
  */
+@Slf4j
 public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrustEngineProvider {
 
     private final SAML2MetadataResolver idpMetadataResolver;
 
     private final SAML2MetadataResolver spMetadataResolver;
 
+    private volatile CachedTrustEngine cachedTrustEngine;
+
     /**
      * <p>Constructor for ExplicitSignatureTrustEngineProvider.</p>
      *
@@ -39,8 +49,36 @@ public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrust
     /** {@inheritDoc} */
     @Override
     public SignatureTrustEngine build() {
-        val metadataCredentialResolver = new MetadataCredentialResolver();
-        final MetadataResolver metadataResolver = SAML2Utils.buildChainingMetadataResolver(idpMetadataResolver, spMetadataResolver);
+        val idpResolver = idpMetadataResolver.resolve();
+        val spResolver = spMetadataResolver.resolve();
+        val idpLastUpdate = lastUpdate(idpResolver);
+        val spLastUpdate = lastUpdate(spResolver);
+
+        var trustEngine = cachedTrustEngine;
+        if (trustEngine == null || !trustEngine.isBuiltFrom(idpResolver, idpLastUpdate, spResolver, spLastUpdate)) {
+            synchronized (this) {
+                trustEngine = cachedTrustEngine;
+                if (trustEngine == null || !trustEngine.isBuiltFrom(idpResolver, idpLastUpdate, spResolver, spLastUpdate)) {
+                    LOGGER.debug("Building the signature trust engine");
+                    trustEngine = new CachedTrustEngine(buildTrustEngine(idpResolver, spResolver),
+                        idpResolver, idpLastUpdate, spResolver, spLastUpdate);
+                    cachedTrustEngine = trustEngine;
+                }
+            }
+        }
+        return trustEngine.engine();
+    }
+
+    /**
+     * Build a new trust engine for the resolved metadata.
+     *
+     * @param idpResolver the resolved idp metadata
+     * @param spResolver the resolved sp metadata
+     * @return the trust engine
+     */
+    protected SignatureTrustEngine buildTrustEngine(final MetadataResolver idpResolver, final MetadataResolver spResolver) {
+        val metadataCredentialResolver = new CachingMetadataCredentialResolver();
+        final MetadataResolver metadataResolver = SAML2Utils.buildChainingMetadataResolver(idpResolver, spResolver);
         val roleResolver = new PredicateRoleDescriptorResolver(metadataResolver);
 
         val keyResolver =
@@ -58,4 +96,29 @@ public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrust
 
         return new ExplicitKeySignatureTrustEngine(metadataCredentialResolver, keyResolver);
     }
+
+    /**
+     * Remove the cached trust engine: the next {@link #build()} creates a new one.
+     */
+    public void invalidate() {
+        cachedTrustEngine = null;
+    }
+
+    // the resolvers refreshing their metadata in place are detected by their last update
+    private static Instant lastUpdate(final MetadataResolver resolver) {
+        if (resolver instanceof RefreshableMetadataResolver refreshableResolver) {
+            return refreshableResolver.getLastUpdate();
+        }
+        return null;
+    }
+
+    private record CachedTrustEngine(SignatureTrustEngine engine, MetadataResolver idpResolver, Instant idpLastUpdate,
+                                     MetadataResolver spResolver, Instant spLastUpdate) {
+
+        private boolean isBuiltFrom(final MetadataResolver idp, final Instant idpUpdate, final MetadataResolver sp,
+                                    final Instant spUpdate) {
+            return idpResolver == idp && spResolver == sp
+                && Objects.equals(idpLastUpdate, idpUpdate) && Objects.equals(spLastUpdate, spUpdate);
+        }
+    }
 }
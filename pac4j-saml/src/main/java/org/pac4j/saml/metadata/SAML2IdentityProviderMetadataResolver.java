@@ -6,6 +6,7 @@ import lombok.val;
 import net.shibboleth.shared.component.ComponentInitializationException;
 import net.shibboleth.shared.resolver.CriteriaSet;
 import net.shibboleth.shared.resolver.ResolverException;
+import net.shibboleth.shared.xml.SerializeSupport;
 import net.shibboleth.shared.xml.XMLParserException;
 import org.opensaml.core.criterion.EntityIdCriterion;
 import org.opensaml.core.xml.XMLObject;
@@ -26,10 +27,13 @@ import org.pac4j.saml.util.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.w3c.dom.Element;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -37,9 +41,13 @@ import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
@@ -47,6 +55,10 @@ import java.util.concurrent.Future;
  * Resolve and download idp metadata to form a metadata resolver.
  * <p>
  * The resolver supports proxies using {@link Proxy} when fetching metadata over URL resources.
+ * <p>
+ * When a <code>identityProviderMetadataSnapshotPath</code> is defined for a metadata URL, the last successfully loaded metadata
+ * are saved in this snapshot with their ETag / Last-Modified. On startup, they are loaded from the snapshot and revalidated
+ * against the metadata URL in the background.
  *
  * @author Misagh Moayyed
  * @since 1.7
@@ -54,6 +66,18 @@ import java.util.concurrent.Future;
 @Slf4j
 public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<MetadataResolver> implements SAML2MetadataResolver {
 
+    private static final String SNAPSHOT_SOURCE = "source";
+
+    private static final String SNAPSHOT_ETAG = "etag";
+
+    private static final String SNAPSHOT_LAST_MODIFIED = "lastModified";
+
+    private static final ExecutorService REVALIDATION_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        val thread = new Thread(r, "pac4j-saml-metadata-revalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     @Setter
     private Proxy proxy = Proxy.NO_PROXY;
     @Setter
@@ -63,6 +87,14 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
 
     private final SAML2Configuration configuration;
 
+    private volatile String sourceEtag;
+
+    private volatile String sourceLastModified;
+
+    private volatile MetadataSnapshot pendingRevalidation;
+
+    private volatile boolean servedFromSnapshot;
+
     public SAML2IdentityProviderMetadataResolver(final SAML2Configuration configuration) {
         super(configuration.getIdentityProviderMetadataResource());
         if (configuration.getSslSocketFactory() != null) {
@@ -91,9 +123,42 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
             LOGGER.debug("Metadata resolution took: {} ms", t1 - t0);
         }
 
+        // the snapshot is revalidated once it is served
+        val snapshot = pendingRevalidation;
+        servedFromSnapshot = snapshot != null;
+        if (snapshot != null) {
+            pendingRevalidation = null;
+            REVALIDATION_EXECUTOR.execute(() -> revalidateSnapshot(snapshot));
+        }
+    }
+
+    /**
+     * The metadata served from the snapshot are checked by {@link #revalidateSnapshot(MetadataSnapshot)} in the background,
+     * not by a blocking request on startup.
+     *
+     * @return whether the changes are detected on initialization
+     */
+    @Override
+    protected boolean isChangeDetectedOnInit() {
+        return !servedFromSnapshot;
     }
 
     protected DOMMetadataResolver initializeMetadataResolver() {
+        if (loaded == null && isSnapshotEnabled()) {
+            val snapshotResolver = loadSnapshot();
+            if (snapshotResolver != null) {
+                return snapshotResolver;
+            }
+        }
+        return initializeMetadataResolverFromSource();
+    }
+
+    /**
+     * Load the metadata from their source (resource or URL).
+     *
+     * @return the metadata resolver
+     */
+    protected DOMMetadataResolver initializeMetadataResolverFromSource() {
         if (configuration.getIdentityProviderMetadataResource() instanceof UrlResource urlResource) {
             var fileUrl = urlResource.getURL().toString();
             HttpURLConnection conn = null;
@@ -109,6 +174,8 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
                 }
                 conn.setRequestMethod("HEAD");
                 var supportsRange = "bytes".equalsIgnoreCase(conn.getHeaderField("Accept-Ranges"));
+                sourceEtag = conn.getHeaderField("ETag");
+                sourceLastModified = conn.getHeaderField("Last-Modified");
                 if (supportsRange) {
                     var contentLength = conn.getContentLengthLong();
                     conn.disconnect();
@@ -189,20 +256,15 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
             configuration.getIdentityProviderMetadataConnectTimeout(),
             configuration.getIdentityProviderMetadataReadTimeout()
         )) {
-            var parsedInput = Configuration.getParserPool().parse(in);
+            var parsedInput = configuration.isIdentityProviderMetadataStreamingFilter()
+                ? Configuration.getParserPool().parse(new ByteArrayInputStream(buildStreamingFilter().filter(in)))
+                : Configuration.getParserPool().parse(in);
             var metadataRoot = parsedInput.getDocumentElement();
-            var resolver = new DOMMetadataResolver(metadataRoot);
-            resolver.setIndexes(Collections.singleton(new RoleMetadataIndex()));
-            resolver.setParserPool(Configuration.getParserPool());
-            resolver.setFailFastInitialization(true);
-            resolver.setRequireValidMetadata(true);
-            resolver.setId(resolver.getClass().getCanonicalName());
-
-            var entityRoleFilter = new EntityRoleFilter(List.of(IDPSSODescriptor.DEFAULT_ELEMENT_NAME));
-            entityRoleFilter.initialize();
-
-            resolver.setMetadataFilter(entityRoleFilter);
-            resolver.initialize();
+            var snapshot = isSnapshotEnabled() ? serialize(metadataRoot) : null;
+            var resolver = buildMetadataResolver(metadataRoot);
+            if (snapshot != null) {
+                saveSnapshot(snapshot);
+            }
             return resolver;
         } catch (final FileNotFoundException e) {
             throw new TechnicalException("Error loading idp metadata", e);
@@ -215,6 +277,201 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
         }
     }
 
+    private static DOMMetadataResolver buildMetadataResolver(final Element metadataRoot) throws ComponentInitializationException {
+        var resolver = new DOMMetadataResolver(metadataRoot);
+        resolver.setIndexes(Collections.singleton(new RoleMetadataIndex()));
+        resolver.setParserPool(Configuration.getParserPool());
+        resolver.setFailFastInitialization(true);
+        resolver.setRequireValidMetadata(true);
+        resolver.setId(resolver.getClass().getCanonicalName());
+
+        var entityRoleFilter = new EntityRoleFilter(List.of(IDPSSODescriptor.DEFAULT_ELEMENT_NAME));
+        entityRoleFilter.initialize();
+
+        resolver.setMetadataFilter(entityRoleFilter);
+        resolver.initialize();
+        return resolver;
+    }
+
+    /**
+     * Whether the metadata are saved in (and loaded from) a snapshot: only for metadata URLs.
+     *
+     * @return whether the snapshot is enabled
+     */
+    protected boolean isSnapshotEnabled() {
+        return configuration.getIdentityProviderMetadataSnapshotPath() != null
+            && configuration.getIdentityProviderMetadataResource() instanceof UrlResource urlResource
+            && urlResource.getURL().getProtocol().startsWith("http");
+    }
+
+    /**
+     * Load the metadata from the snapshot if it exists, is related to the current metadata URL and has valid entities.
+     *
+     * @return the metadata resolver (<code>null</code> if the snapshot cannot be used)
+     */
+    protected DOMMetadataResolver loadSnapshot() {
+        val path = Path.of(configuration.getIdentityProviderMetadataSnapshotPath());
+        val propertiesPath = snapshotPropertiesPath(path);
+        if (!Files.isRegularFile(path) || !Files.isRegularFile(propertiesPath)) {
+            LOGGER.debug("No idp metadata snapshot: {}", path);
+            return null;
+        }
+        try {
+            val properties = new Properties();
+            try (var in = Files.newInputStream(propertiesPath)) {
+                properties.load(in);
+            }
+            val source = sourceUrl();
+            if (!source.equals(properties.getProperty(SNAPSHOT_SOURCE))) {
+                LOGGER.info("The idp metadata snapshot: {} is not related to: {}, ignoring it", path, source);
+                return null;
+            }
+            final DOMMetadataResolver resolver;
+            try (var in = Files.newInputStream(path)) {
+                resolver = buildMetadataResolver(Configuration.getParserPool().parse(in).getDocumentElement());
+            }
+            val entities = resolver.iterator();
+            if (!entities.hasNext()
+                || resolver.resolveSingle(new CriteriaSet(new EntityIdCriterion(entities.next().getEntityID()))) == null) {
+                LOGGER.info("No valid entity in the idp metadata snapshot: {}, ignoring it", path);
+                return null;
+            }
+            sourceEtag = properties.getProperty(SNAPSHOT_ETAG);
+            sourceLastModified = properties.getProperty(SNAPSHOT_LAST_MODIFIED);
+            pendingRevalidation = new MetadataSnapshot(source, sourceEtag, sourceLastModified);
+            LOGGER.debug("Idp metadata loaded from the snapshot: {}", path);
+            return resolver;
+        } catch (final IOException | XMLParserException | ComponentInitializationException | ResolverException | RuntimeException e) {
+            LOGGER.warn("Cannot load the idp metadata snapshot: {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Check the metadata URL against the snapshot and reload the metadata if they have changed
+     * (under the loader lock, like the other reloads). The snapshot metadata are kept if the check or the reload fails.
+     *
+     * @param snapshot the snapshot
+     */
+    protected void revalidateSnapshot(final MetadataSnapshot snapshot) {
+        try {
+            if (isSourceModified(snapshot)) {
+                LOGGER.info("Idp metadata modified since their snapshot, reloading them from: {}", snapshot.source());
+                reloadInBackground();
+            } else {
+                LOGGER.debug("Idp metadata not modified since their snapshot: {}", snapshot.source());
+                // the last modification is recorded for the next change checks
+                hasChanged();
+            }
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warn("Cannot revalidate the idp metadata snapshot against: {}, keeping it", snapshot.source(), e);
+        }
+    }
+
+    /**
+     * Check with a conditional request whether the metadata URL has changed since the snapshot.
+     *
+     * @param snapshot the snapshot
+     * @return whether the metadata have changed
+     * @throws IOException an I/O exception
+     */
+    protected boolean isSourceModified(final MetadataSnapshot snapshot) throws IOException {
+        if (snapshot.etag() == null && snapshot.lastModified() == null) {
+            return true;
+        }
+        val conn = (HttpURLConnection) new URL(snapshot.source()).openConnection();
+        try {
+            if (conn instanceof HttpsURLConnection https) {
+                if (hostnameVerifier != null) {
+                    https.setHostnameVerifier(hostnameVerifier);
+                }
+                if (sslSocketFactory != null) {
+                    https.setSSLSocketFactory(sslSocketFactory);
+                }
+            }
+            conn.setRequestMethod("HEAD");
+            conn.setConnectTimeout(configuration.getIdentityProviderMetadataConnectTimeout());
+            conn.setReadTimeout(configuration.getIdentityProviderMetadataReadTimeout());
+            if (snapshot.etag() != null) {
+                conn.setRequestProperty("If-None-Match", snapshot.etag());
+            }
+            if (snapshot.lastModified() != null) {
+                conn.setRequestProperty("If-Modified-Since", snapshot.lastModified());
+            }
+            val status = conn.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return false;
+            } else if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected status: " + status + " for: " + snapshot.source());
+            }
+            return snapshot.etag() == null || !snapshot.etag().equals(conn.getHeaderField("ETag"));
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private static byte[] serialize(final Element metadataRoot) {
+        val out = new ByteArrayOutputStream();
+        SerializeSupport.writeNode(metadataRoot, out);
+        return out.toByteArray();
+    }
+
+    private void saveSnapshot(final byte[] metadata) {
+        val path = Path.of(configuration.getIdentityProviderMetadataSnapshotPath()).toAbsolutePath();
+        try {
+            val directory = path.getParent();
+            Files.createDirectories(directory);
+            val properties = new Properties();
+            properties.setProperty(SNAPSHOT_SOURCE, sourceUrl());
+            if (sourceEtag != null) {
+                properties.setProperty(SNAPSHOT_ETAG, sourceEtag);
+            }
+            if (sourceLastModified != null) {
+                properties.setProperty(SNAPSHOT_LAST_MODIFIED, sourceLastModified);
+            }
+            // written aside then moved: a snapshot is never partially written
+            val metadataFile = Files.createTempFile(directory, "idpmetadata", ".tmp");
+            Files.write(metadataFile, metadata);
+            val propertiesFile = Files.createTempFile(directory, "idpmetadata", ".tmp");
+            try (var out = Files.newOutputStream(propertiesFile)) {
+                properties.store(out, "Idp metadata snapshot");
+            }
+            Files.move(metadataFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(propertiesFile, snapshotPropertiesPath(path), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Idp metadata snapshot saved to: {}", path);
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot save the idp metadata snapshot to: {}", path, e);
+        }
+    }
+
+    private static Path snapshotPropertiesPath(final Path path) {
+        return path.resolveSibling(path.getFileName() + ".properties");
+    }
+
+    private String sourceUrl() {
+        return ((UrlResource) configuration.getIdentityProviderMetadataResource()).getURL().toString();
+    }
+
+    /**
+     * A snapshot of the idp metadata.
+     *
+     * @param source the metadata URL
+     * @param etag the ETag of the metadata
+     * @param lastModified the Last-Modified date of the metadata
+     */
+    protected record MetadataSnapshot(String source, String etag, String lastModified) {}
+
+    /**
+     * Build the filter keeping only the wanted entities of the metadata.
+     *
+     * @return the streaming filter
+     */
+    protected SAML2MetadataStreamingFilter buildStreamingFilter() {
+        val idpEntityId = configuration.getIdentityProviderEntityId();
+        return new SAML2MetadataStreamingFilter(idpEntityId != null ? List.of(idpEntityId) : List.of());
+    }
+
     /**
      * If no idpEntityId declared, select first EntityDescriptor entityId as our IDP.
      *
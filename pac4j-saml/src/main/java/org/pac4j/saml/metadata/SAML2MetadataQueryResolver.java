@@ -0,0 +1,430 @@
+package org.pac4j.saml.metadata;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import net.shibboleth.shared.component.ComponentInitializationException;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import net.shibboleth.shared.resolver.ResolverException;
+import net.shibboleth.shared.xml.XMLParserException;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.core.xml.XMLObject;
+import org.opensaml.core.xml.io.UnmarshallingException;
+import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.metadata.resolver.impl.AbstractBatchMetadataResolver;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.exceptions.SAMLException;
+import org.pac4j.saml.util.Configuration;
+
+import javax.annotation.Nonnull;
+import javax.net.ssl.HttpsURLConnection;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolve the identity provider metadata on demand, entity by entity, from a Metadata Query (MDQ) endpoint:
+ * <code>{baseUrl}/entities/{sha1}hex(sha1(entityID))</code>.
+ *
+ * The entity descriptors are kept in a bounded LRU cache until their <code>cacheDuration</code> (or the
+ * <code>defaultCacheDuration</code>) elapses, but never after their <code>validUntil</code> date. They are then
+ * fetched again with a conditional request (<code>If-None-Match</code> / <code>If-Modified-Since</code>) and the
+ * cached entity is kept (while it is still valid) if the MDQ server is unavailable. Concurrent resolutions of the same
+ * entity share a single fetch.
+ *
+ * The returned {@link MetadataResolver} resolves any entity (like the ones selected by a discovery service);
+ * the default entity is the <code>identityProviderEntityId</code> of the configuration.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString(of = {"baseUrl", "maxEntries"})
+@Slf4j
+public class SAML2MetadataQueryResolver implements SAML2MetadataResolver {
+
+    private static final String MDQ_CONTENT_TYPE = "application/samlmetadata+xml";
+
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final Duration DEFAULT_CACHE_DURATION = Duration.ofHours(1);
+
+    private final SAML2Configuration configuration;
+
+    private final String baseUrl;
+
+    /* the maximum number of cached entities */
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /* the caching duration when the entity descriptor defines none */
+    private Duration defaultCacheDuration = DEFAULT_CACHE_DURATION;
+
+    /* the maximum caching duration, whatever the entity descriptor defines */
+    private Duration maxCacheDuration = Duration.ofDays(1);
+
+    /* whether the entity IDs are sent as {sha1} transformed identifiers */
+    private boolean useSha1Identifiers = true;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, CachedEntity> entities = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedEntity> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, CompletableFuture<CachedEntity>> fetches = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile QueryMetadataResolver metadataResolver;
+
+    /**
+     * <p>Constructor for SAML2MetadataQueryResolver.</p>
+     *
+     * @param configuration the SAML configuration
+     * @param baseUrl the base URL of the MDQ endpoint
+     */
+    public SAML2MetadataQueryResolver(final SAML2Configuration configuration, final String baseUrl) {
+        CommonHelper.assertNotNull("configuration", configuration);
+        CommonHelper.assertNotBlank("baseUrl", baseUrl);
+        this.configuration = configuration;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public MetadataResolver resolve(final boolean force) {
+        if (force) {
+            clear();
+        }
+        var resolver = metadataResolver;
+        if (resolver == null) {
+            synchronized (this) {
+                resolver = metadataResolver;
+                if (resolver == null) {
+                    resolver = newMetadataResolver();
+                    metadataResolver = resolver;
+                }
+            }
+        }
+        return resolver;
+    }
+
+    /**
+     * Resolve the descriptor of an entity, from the cache or from the MDQ endpoint.
+     *
+     * @param entityId the entity ID
+     * @return the entity descriptor (<code>null</code> if the entity is unknown)
+     */
+    public EntityDescriptor resolveEntity(final String entityId) {
+        CommonHelper.assertNotBlank("entityId", entityId);
+        final CachedEntity cachedEntity;
+        synchronized (entities) {
+            cachedEntity = entities.get(entityId);
+        }
+        val now = Instant.now();
+        if (cachedEntity != null && now.isBefore(cachedEntity.refreshTime())) {
+            return cachedEntity.entityDescriptor();
+        }
+
+        final CachedEntity newEntity;
+        try {
+            newEntity = fetchOnce(entityId, cachedEntity);
+        } catch (final IOException | SAMLException e) {
+            if (cachedEntity != null && cachedEntity.isValid(now)) {
+                LOGGER.warn("Cannot refresh the metadata of: {}, keeping the cached ones", entityId, e);
+                return cachedEntity.entityDescriptor();
+            }
+            throw new SAMLException("Cannot retrieve the metadata of: " + entityId, e);
+        }
+        return newEntity != null ? newEntity.entityDescriptor() : null;
+    }
+
+    /**
+     * Fetch the entity descriptor and cache it, or wait for the fetch of the same entity already in progress.
+     *
+     * @param entityId the entity ID
+     * @param cachedEntity the cached entity (for the conditional request)
+     * @return the fetched entity (<code>null</code> if the entity is unknown or no longer valid)
+     * @throws IOException an I/O exception
+     */
+    protected CachedEntity fetchOnce(final String entityId, final CachedEntity cachedEntity) throws IOException {
+        val fetch = new CompletableFuture<CachedEntity>();
+        val existingFetch = fetches.putIfAbsent(entityId, fetch);
+        if (existingFetch != null) {
+            LOGGER.debug("Waiting for the fetch in progress of: {}", entityId);
+            try {
+                return CommonHelper.join(existingFetch);
+            } catch (final TechnicalException e) {
+                if (!(e instanceof SAMLException) && e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw e;
+            }
+        }
+        try {
+            val newEntity = fetch(entityId, cachedEntity);
+            synchronized (entities) {
+                if (newEntity != null) {
+                    entities.put(entityId, newEntity);
+                } else {
+                    entities.remove(entityId);
+                }
+            }
+            if (newEntity != null && (cachedEntity == null || newEntity.entityDescriptor() != cachedEntity.entityDescriptor())) {
+                // a new resolver for the new metadata (so the trust engine is rebuilt)
+                metadataResolver = null;
+            }
+            fetches.remove(entityId, fetch);
+            fetch.complete(newEntity);
+            return newEntity;
+        } catch (final IOException | RuntimeException e) {
+            fetches.remove(entityId, fetch);
+            fetch.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Fetch the entity descriptor from the MDQ endpoint.
+     *
+     * @param entityId the entity ID
+     * @param cachedEntity the cached entity (for the conditional request)
+     * @return the fetched entity (<code>null</code> if the entity is unknown or no longer valid)
+     * @throws IOException an I/O exception
+     */
+    protected CachedEntity fetch(final String entityId, final CachedEntity cachedEntity) throws IOException {
+        val url = buildEntityUrl(entityId);
+        LOGGER.debug("Fetching metadata of: {} from: {}", entityId, url);
+        val connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            if (connection instanceof HttpsURLConnection https) {
+                if (configuration.getHostnameVerifier() != null) {
+                    https.setHostnameVerifier(configuration.getHostnameVerifier());
+                }
+                if (configuration.getSslSocketFactory() != null) {
+                    https.setSSLSocketFactory(configuration.getSslSocketFactory());
+                }
+            }
+            connection.setConnectTimeout(configuration.getIdentityProviderMetadataConnectTimeout());
+            connection.setReadTimeout(configuration.getIdentityProviderMetadataReadTimeout());
+            connection.setRequestProperty("Accept", MDQ_CONTENT_TYPE);
+            if (cachedEntity != null) {
+                if (cachedEntity.etag() != null) {
+                    connection.setRequestProperty("If-None-Match", cachedEntity.etag());
+                }
+                if (cachedEntity.lastModified() != null) {
+                    connection.setRequestProperty("If-Modified-Since", cachedEntity.lastModified());
+                }
+            }
+
+            val status = connection.getResponseCode();
+            val now = Instant.now();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cachedEntity != null) {
+                LOGGER.debug("Metadata of: {} not modified", entityId);
+                val entityDescriptor = cachedEntity.entityDescriptor();
+                return cachedEntity.isValid(now) ? new CachedEntity(entityDescriptor, computeRefreshTime(entityDescriptor, now),
+                    cachedEntity.etag(), cachedEntity.lastModified()) : null;
+            } else if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                LOGGER.debug("Unknown entity: {}", entityId);
+                return null;
+            } else if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected status: " + status + " for: " + url);
+            }
+
+            final EntityDescriptor entityDescriptor;
+            try (val in = connection.getInputStream()) {
+                entityDescriptor = parse(entityId, Configuration.getParserPool().parse(in).getDocumentElement());
+            }
+            val newEntity = new CachedEntity(entityDescriptor, computeRefreshTime(entityDescriptor, now),
+                connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+            if (!newEntity.isValid(now)) {
+                LOGGER.warn("Expired metadata for: {}", entityId);
+                return null;
+            }
+            return newEntity;
+        } catch (final XMLParserException e) {
+            throw new SAMLException("Cannot parse the metadata of: " + entityId, e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static EntityDescriptor parse(final String entityId, final org.w3c.dom.Element element) {
+        final XMLObject xmlObject;
+        try {
+            val unmarshaller = Configuration.getUnmarshallerFactory().getUnmarshaller(element);
+            xmlObject = Objects.requireNonNull(unmarshaller).unmarshall(element);
+        } catch (final UnmarshallingException e) {
+            throw new SAMLException("Cannot unmarshall the metadata of: " + entityId, e);
+        }
+        if (!(xmlObject instanceof EntityDescriptor entityDescriptor) || !entityId.equals(entityDescriptor.getEntityID())) {
+            throw new SAMLException("The MDQ response is not the entity descriptor of: " + entityId);
+        }
+        return entityDescriptor;
+    }
+
+    /**
+     * Compute the time when the entity must be fetched again.
+     *
+     * @param entityDescriptor the entity descriptor
+     * @param now the current time
+     * @return the refresh time
+     */
+    protected Instant computeRefreshTime(final EntityDescriptor entityDescriptor, final Instant now) {
+        var cacheDuration = entityDescriptor.getCacheDuration() != null ? entityDescriptor.getCacheDuration() : defaultCacheDuration;
+        if (cacheDuration.compareTo(maxCacheDuration) > 0) {
+            cacheDuration = maxCacheDuration;
+        }
+        val refreshTime = now.plus(cacheDuration);
+        val validUntil = entityDescriptor.getValidUntil();
+        return validUntil != null && validUntil.isBefore(refreshTime) ? validUntil : refreshTime;
+    }
+
+    /**
+     * Build the MDQ URL of an entity.
+     *
+     * @param entityId the entity ID
+     * @return the URL
+     */
+    protected String buildEntityUrl(final String entityId) {
+        if (useSha1Identifiers) {
+            return baseUrl + "/entities/" + CommonHelper.urlEncode("{sha1}" + sha1Hex(entityId));
+        }
+        return baseUrl + "/entities/" + CommonHelper.urlEncode(entityId);
+    }
+
+    private static String sha1Hex(final String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new SAMLException(e);
+        }
+    }
+
+    /**
+     * Remove all the cached entities.
+     */
+    public void clear() {
+        synchronized (entities) {
+            entities.clear();
+        }
+        metadataResolver = null;
+    }
+
+    /**
+     * Return the number of cached entities.
+     *
+     * @return the number of cached entities
+     */
+    public int size() {
+        synchronized (entities) {
+            return entities.size();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getEntityId() {
+        val entityId = configuration.getIdentityProviderEntityId();
+        if (entityId == null) {
+            throw new SAMLException("No idp entityId defined for the MDQ resolution");
+        }
+        return entityId;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getMetadata() {
+        val entityDescriptor = getEntityDescriptorElement();
+        if (entityDescriptor == null) {
+            throw new SAMLException("Metadata cannot be retrieved because entity descriptor is null");
+        }
+        return Configuration.serializeSamlObject(entityDescriptor).toString();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public XMLObject getEntityDescriptorElement() {
+        return resolveEntity(getEntityId());
+    }
+
+    private QueryMetadataResolver newMetadataResolver() {
+        val resolver = new QueryMetadataResolver(this);
+        try {
+            resolver.initialize();
+        } catch (final ComponentInitializationException e) {
+            throw new SAMLException("Unable to initialize the MDQ metadata resolver", e);
+        }
+        return resolver;
+    }
+
+    /**
+     * A cached entity.
+     *
+     * @param entityDescriptor the entity descriptor
+     * @param refreshTime the time when the entity must be fetched again
+     * @param etag the ETag of the MDQ response
+     * @param lastModified the Last-Modified date of the MDQ response
+     */
+    protected record CachedEntity(EntityDescriptor entityDescriptor, Instant refreshTime, String etag, String lastModified) {
+
+        boolean isValid(final Instant now) {
+            val validUntil = entityDescriptor.getValidUntil();
+            return validUntil == null || now.isBefore(validUntil);
+        }
+    }
+
+    private static final class QueryMetadataResolver extends AbstractBatchMetadataResolver {
+
+        private final SAML2MetadataQueryResolver queryResolver;
+
+        private QueryMetadataResolver(final SAML2MetadataQueryResolver queryResolver) {
+            this.queryResolver = queryResolver;
+            setId(QueryMetadataResolver.class.getCanonicalName());
+            setRequireValidMetadata(true);
+            setParserPool(Configuration.getParserPool());
+            setFailFastInitialization(true);
+        }
+
+        @Nonnull
+        @Override
+        protected Iterable<EntityDescriptor> doResolve(final CriteriaSet criteria) throws ResolverException {
+            val entityIdCriterion = criteria != null ? criteria.get(EntityIdCriterion.class) : null;
+            val entityId = entityIdCriterion != null ? entityIdCriterion.getEntityId()
+                : queryResolver.getConfiguration().getIdentityProviderEntityId();
+            if (entityId == null) {
+                return List.of();
+            }
+            try {
+                val entityDescriptor = queryResolver.resolveEntity(entityId);
+                return entityDescriptor != null ? List.of(entityDescriptor) : List.of();
+            } catch (final SAMLException e) {
+                throw new ResolverException(e);
+            }
+        }
+    }
+}
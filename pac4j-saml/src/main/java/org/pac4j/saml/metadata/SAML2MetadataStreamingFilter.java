@@ -0,0 +1,245 @@
+package org.pac4j.saml.metadata;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.saml2.metadata.EntitiesDescriptor;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
+import org.opensaml.saml.saml2.metadata.IDPSSODescriptor;
+import org.pac4j.saml.exceptions.SAMLException;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams (StAX) a metadata aggregate and only keeps the wanted entity descriptors: the ones whose entity ID is configured
+ * or, if none is configured, the ones with an IdP role. Only these entities are held in memory, whatever the size
+ * of the aggregate.
+ *
+ * The kept entities are returned in a new <code>EntitiesDescriptor</code> carrying the <code>validUntil</code> and
+ * <code>cacheDuration</code> of the aggregate. The signature of the aggregate is dropped (it does not match
+ * the filtered document) while the signatures of the kept entities are preserved.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@Getter
+@Setter
+@ToString
+@Slf4j
+public class SAML2MetadataStreamingFilter {
+
+    private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newInstance();
+
+    private static final QName ENTITY_ID = new QName("entityID");
+
+    private static final List<QName> VALIDITY_ATTRIBUTES = List.of(new QName("validUntil"), new QName("cacheDuration"));
+
+    private Set<String> entityIds = new HashSet<>();
+
+    /**
+     * <p>Constructor for SAML2MetadataStreamingFilter.</p>
+     */
+    public SAML2MetadataStreamingFilter() {}
+
+    /**
+     * <p>Constructor for SAML2MetadataStreamingFilter.</p>
+     *
+     * @param entityIds the entity IDs to keep (all the IdPs if empty)
+     */
+    public SAML2MetadataStreamingFilter(final Collection<String> entityIds) {
+        this.entityIds = new HashSet<>(entityIds);
+    }
+
+    /**
+     * Filter the metadata.
+     *
+     * @param in the metadata aggregate
+     * @return the filtered metadata
+     */
+    public byte[] filter(final InputStream in) {
+        val out = new ByteArrayOutputStream();
+        XMLEventReader reader = null;
+        XMLEventWriter writer = null;
+        try {
+            reader = newInputFactory().createXMLEventReader(in);
+            writer = XMLOutputFactory.newInstance().createXMLEventWriter(out, "UTF-8");
+            writer.add(EVENT_FACTORY.createStartDocument("UTF-8"));
+
+            // namespaces declared by the ancestors of the current element
+            final Deque<List<Namespace>> namespaces = new ArrayDeque<>();
+            var rootWritten = false;
+            var nbEntities = 0;
+            var nbKeptEntities = 0;
+            while (reader.hasNext()) {
+                val event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    val startElement = event.asStartElement();
+                    if (EntityDescriptor.DEFAULT_ELEMENT_NAME.equals(startElement.getName())) {
+                        nbEntities++;
+                        if (!rootWritten) {
+                            writeRoot(writer, null);
+                            rootWritten = true;
+                        }
+                        if (copyEntityIfWanted(reader, writer, startElement, namespaces)) {
+                            nbKeptEntities++;
+                        }
+                        continue;
+                    }
+                    if (!rootWritten && EntitiesDescriptor.DEFAULT_ELEMENT_NAME.equals(startElement.getName())) {
+                        writeRoot(writer, startElement);
+                        rootWritten = true;
+                    }
+                    namespaces.push(collectNamespaces(startElement));
+                } else if (event.isEndElement()) {
+                    namespaces.poll();
+                }
+            }
+            if (!rootWritten) {
+                throw new SAMLException("No entity descriptor found in the metadata");
+            }
+            writer.add(EVENT_FACTORY.createEndElement(SAMLConstants.SAML20MD_PREFIX, SAMLConstants.SAML20MD_NS,
+                EntitiesDescriptor.DEFAULT_ELEMENT_LOCAL_NAME));
+            writer.add(EVENT_FACTORY.createEndDocument());
+            writer.flush();
+            LOGGER.debug("Kept {} entities out of {} from the metadata", nbKeptEntities, nbEntities);
+            return out.toByteArray();
+        } catch (final XMLStreamException e) {
+            throw new SAMLException("Cannot filter the metadata", e);
+        } finally {
+            close(reader, writer);
+        }
+    }
+
+    private void writeRoot(final XMLEventWriter writer, final StartElement aggregate) throws XMLStreamException {
+        final List<Attribute> attributes = new ArrayList<>();
+        if (aggregate != null) {
+            // the validity of the aggregate applies to its entities
+            for (val name : VALIDITY_ATTRIBUTES) {
+                val attribute = aggregate.getAttributeByName(name);
+                if (attribute != null) {
+                    attributes.add(attribute);
+                }
+            }
+        }
+        val namespace = EVENT_FACTORY.createNamespace(SAMLConstants.SAML20MD_PREFIX, SAMLConstants.SAML20MD_NS);
+        writer.add(EVENT_FACTORY.createStartElement(SAMLConstants.SAML20MD_PREFIX, SAMLConstants.SAML20MD_NS,
+            EntitiesDescriptor.DEFAULT_ELEMENT_LOCAL_NAME, attributes.iterator(), List.of(namespace).iterator()));
+    }
+
+    private boolean copyEntityIfWanted(final XMLEventReader reader, final XMLEventWriter writer, final StartElement entity,
+                                       final Deque<List<Namespace>> namespaces) throws XMLStreamException {
+        val entityIdAttribute = entity.getAttributeByName(ENTITY_ID);
+        val entityId = entityIdAttribute != null ? entityIdAttribute.getValue() : null;
+        val filterOnEntityIds = !entityIds.isEmpty();
+        if (filterOnEntityIds && !entityIds.contains(entityId)) {
+            skipElement(reader);
+            return false;
+        }
+
+        // the entity is buffered to check its roles: one entity at a time
+        final List<XMLEvent> events = new ArrayList<>();
+        events.add(withInheritedNamespaces(entity, namespaces));
+        var hasIdpRole = false;
+        var depth = 1;
+        while (depth > 0) {
+            val event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+                if (IDPSSODescriptor.DEFAULT_ELEMENT_NAME.equals(event.asStartElement().getName())) {
+                    hasIdpRole = true;
+                }
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+            events.add(event);
+        }
+        if (filterOnEntityIds || hasIdpRole) {
+            LOGGER.debug("Keeping entity: {}", entityId);
+            for (val event : events) {
+                writer.add(event);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static StartElement withInheritedNamespaces(final StartElement entity, final Deque<List<Namespace>> namespaces) {
+        final Map<String, Namespace> allNamespaces = new LinkedHashMap<>();
+        // the closest declarations win
+        val ancestors = namespaces.descendingIterator();
+        while (ancestors.hasNext()) {
+            for (val namespace : ancestors.next()) {
+                allNamespaces.put(namespace.getPrefix(), namespace);
+            }
+        }
+        for (val namespace : collectNamespaces(entity)) {
+            allNamespaces.put(namespace.getPrefix(), namespace);
+        }
+        val name = entity.getName();
+        return EVENT_FACTORY.createStartElement(name.getPrefix(), name.getNamespaceURI(), name.getLocalPart(),
+            entity.getAttributes(), allNamespaces.values().iterator());
+    }
+
+    private static List<Namespace> collectNamespaces(final StartElement element) {
+        final List<Namespace> namespaces = new ArrayList<>();
+        element.getNamespaces().forEachRemaining(namespaces::add);
+        return namespaces;
+    }
+
+    private static void skipElement(final XMLEventReader reader) throws XMLStreamException {
+        var depth = 1;
+        while (depth > 0) {
+            val event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        val factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    private static void close(final XMLEventReader reader, final XMLEventWriter writer) {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+        } catch (final XMLStreamException e) {
+            LOGGER.debug("Cannot close the metadata streams", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.pac4j.saml.replay;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.opensaml.storage.ReplayCache;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+
+import java.time.Instant;
+
+/**
+ * Replay cache provider which saves the received identifiers in a {@link Store} (like a Redis or Hazelcast store
+ * shared by the nodes of a cluster) until their expiration.
+ *
+ * The store should itself evict the entries after a timeout (the expiration of an entry is checked when it is read).
+ * The identifiers are saved with {@link Store#setIfAbsent(Object, Object)} and the expired ones are replaced with
+ * {@link Store#replace(Object, Object, Object)}: they must be atomic for all the nodes (the default implementations
+ * of a {@link Store} are not) for a replay to be detected across the cluster.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+@ToString
+@Slf4j
+public class StoreReplayCacheProvider implements ReplayCacheProvider {
+
+    @Getter
+    private final Store<String, Instant> store;
+
+    @ToString.Exclude
+    private final ReplayCache cache = new StoreReplayCache();
+
+    /**
+     * <p>Constructor for StoreReplayCacheProvider.</p>
+     *
+     * @param store the store of the identifiers
+     */
+    public StoreReplayCacheProvider(final Store<String, Instant> store) {
+        CommonHelper.assertNotNull("store", store);
+        this.store = store;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ReplayCache get() {
+        return cache;
+    }
+
+    /**
+     * Save the identifier unless it is already saved and not expired.
+     *
+     * @param key the key of the identifier
+     * @param expires the expiration of the identifier
+     * @return whether the identifier has been saved (<code>false</code> for a replay)
+     */
+    protected boolean saveIfAbsent(final String key, final Instant expires) {
+        if (store.setIfAbsent(key, expires)) {
+            return true;
+        }
+        val existing = store.get(key);
+        if (existing.isEmpty()) {
+            // evicted in the meantime
+            return store.setIfAbsent(key, expires);
+        }
+        if (Instant.now().isBefore(existing.get())) {
+            return false;
+        }
+        // the saved identifier has expired (but not been evicted yet): only one node can replace it
+        LOGGER.debug("Replacing the expired identifier: {}", key);
+        return store.replace(key, existing.get(), expires);
+    }
+
+    private final class StoreReplayCache implements ReplayCache {
+
+        @Override
+        public boolean check(final String context, final String key, final Instant expires) {
+            val storeKey = context + ":" + key;
+            val saved = saveIfAbsent(storeKey, expires);
+            if (!saved) {
+                LOGGER.warn("Replay detected for: {}", storeKey);
+            }
+            return saved;
+        }
+    }
+}
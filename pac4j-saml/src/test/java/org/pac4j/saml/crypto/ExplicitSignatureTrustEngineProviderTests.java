@@ -0,0 +1,99 @@
+package org.pac4j.saml.crypto;
+
+import lombok.val;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.criterion.ProtocolCriterion;
+import org.opensaml.saml.saml2.metadata.IDPSSODescriptor;
+import org.opensaml.security.credential.UsageType;
+import org.opensaml.security.criteria.UsageCriterion;
+import org.opensaml.xmlsec.signature.support.impl.ExplicitKeySignatureTrustEngine;
+import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.metadata.SAML2IdentityProviderMetadataResolver;
+import org.pac4j.saml.metadata.SAML2MetadataResolver;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link ExplicitSignatureTrustEngineProvider}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class ExplicitSignatureTrustEngineProviderTests {
+
+    private SAML2IdentityProviderMetadataResolver idpMetadataResolver;
+
+    private ExplicitSignatureTrustEngineProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        val configuration = new SAML2Configuration();
+        configuration.setIdentityProviderMetadataResource(new ClassPathResource("idp-metadata.xml"));
+        idpMetadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+        idpMetadataResolver.init();
+
+        // the idp metadata also stand for the sp metadata
+        val spMetadataResolver = mock(SAML2MetadataResolver.class);
+        val spResolver = idpMetadataResolver.resolve();
+        when(spMetadataResolver.resolve()).thenReturn(spResolver);
+
+        provider = new ExplicitSignatureTrustEngineProvider(idpMetadataResolver, spMetadataResolver);
+    }
+
+    private static CriteriaSet signingCriteria() {
+        val criteriaSet = new CriteriaSet();
+        criteriaSet.add(new UsageCriterion(UsageType.SIGNING));
+        criteriaSet.add(new EntityRoleCriterion(IDPSSODescriptor.DEFAULT_ELEMENT_NAME));
+        criteriaSet.add(new ProtocolCriterion(SAMLConstants.SAML20P_NS));
+        criteriaSet.add(new EntityIdCriterion("mmoayyed.example.net"));
+        return criteriaSet;
+    }
+
+    @Test
+    public void testTrustEngineIsReused() {
+        val engine = provider.build();
+        assertSame(engine, provider.build());
+    }
+
+    @Test
+    public void testCredentialsAreCached() throws Exception {
+        val engine = (ExplicitKeySignatureTrustEngine) provider.build();
+        val credentialResolver = (CachingMetadataCredentialResolver) engine.getCredentialResolver();
+
+        val credential = credentialResolver.resolveSingle(signingCriteria());
+        assertNotNull(credential);
+        assertSame(credential, credentialResolver.resolveSingle(signingCriteria()));
+        assertEquals(1, credentialResolver.size());
+    }
+
+    @Test
+    public void testUnknownEntityIsNotCached() throws Exception {
+        val engine = (ExplicitKeySignatureTrustEngine) provider.build();
+        val credentialResolver = (CachingMetadataCredentialResolver) engine.getCredentialResolver();
+
+        assertNull(credentialResolver.resolveSingle(new CriteriaSet(new EntityIdCriterion("unknown.example.net"),
+            new UsageCriterion(UsageType.SIGNING))));
+        assertEquals(0, credentialResolver.size());
+    }
+
+    @Test
+    public void testTrustEngineIsRebuiltAfterReload() {
+        val engine = provider.build();
+        idpMetadataResolver.resolve(true);
+        assertNotSame(engine, provider.build());
+    }
+
+    @Test
+    public void testInvalidate() {
+        val engine = provider.build();
+        provider.invalidate();
+        assertNotSame(engine, provider.build());
+    }
+}
@@ -1,9 +1,11 @@
 package org.pac4j.saml.metadata;
 
+import com.sun.net.httpserver.HttpServer;
 import net.shibboleth.shared.resolver.CriteriaSet;
 import net.shibboleth.shared.xml.XMLParserException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.opensaml.core.criterion.EntityIdCriterion;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.saml.config.SAML2Configuration;
@@ -18,8 +20,12 @@ import javax.net.ssl.X509TrustManager;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -141,5 +147,67 @@ public class SAML2IdentityProviderMetadataResolverTest {
         assertNull(metadataResolver.getEntityDescriptorElement());
     }
 
+    @Test
+    public void resolveAggregateMetadataWithStreamingFilter() throws Exception {
+        var configuration = new SAML2Configuration();
+        configuration.setIdentityProviderMetadataResource(new ClassPathResource("testshib-providers.xml"));
+        configuration.setIdentityProviderMetadataStreamingFilter(true);
+        metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+        metadataResolver.init();
+
+        assertEquals("https://idp.testshib.org/idp/shibboleth", metadataResolver.getEntityId());
+        var resolver = metadataResolver.resolve();
+        assertNull(resolver.resolveSingle(new CriteriaSet(new EntityIdCriterion("https://sp.testshib.org/shibboleth-sp"))));
+    }
+
+    @Test
+    public void resolveMetadataFromSnapshot(@TempDir final Path directory) throws Exception {
+        var metadata = new ClassPathResource("idp-metadata.xml").getInputStream().readAllBytes();
+        var etag = new AtomicReference<>("\"v1\"");
+        var downloads = new AtomicInteger();
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/idp/metadata", exchange -> {
+            exchange.getResponseHeaders().add("ETag", etag.get());
+            if (etag.get().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                downloads.incrementAndGet();
+                exchange.sendResponseHeaders(200, metadata.length);
+                exchange.getResponseBody().write(metadata);
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            var snapshotPath = directory.resolve("idp-metadata-snapshot.xml");
+            var configuration = new SAML2Configuration();
+            configuration.setIdentityProviderMetadataResourceUrl("http://localhost:" + server.getAddress().getPort() + "/idp/metadata");
+            configuration.setIdentityProviderMetadataSnapshotPath(snapshotPath.toString());
+            metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+            metadataResolver.init();
+            assertEquals("mmoayyed.example.net", metadataResolver.getEntityId());
+            assertEquals(1, downloads.get());
+            assertTrue(Files.exists(snapshotPath));
+
+            // a new instance starts from the snapshot, not modified
+            metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+            metadataResolver.init();
+            assertEquals("mmoayyed.example.net", metadataResolver.getEntityId());
+            assertEquals(1, downloads.get());
 
+            // a new instance starts from the snapshot, modified: reloaded in the background
+            etag.set("\"v2\"");
+            metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+            metadataResolver.init();
+            assertEquals("mmoayyed.example.net", metadataResolver.getEntityId());
+            for (var i = 0; i < 50 && downloads.get() < 2; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(2, downloads.get());
+        } finally {
+            server.stop(0);
+        }
+    }
 }
@@ -0,0 +1,254 @@
+package org.pac4j.saml.metadata;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.val;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.criterion.ProtocolCriterion;
+import org.opensaml.saml.metadata.resolver.impl.PredicateRoleDescriptorResolver;
+import org.opensaml.saml.saml2.metadata.IDPSSODescriptor;
+import org.opensaml.security.credential.UsageType;
+import org.opensaml.security.criteria.UsageCriterion;
+import org.opensaml.xmlsec.config.impl.DefaultSecurityConfigurationBootstrap;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.crypto.CachingMetadataCredentialResolver;
+import org.pac4j.saml.exceptions.SAMLException;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link SAML2MetadataQueryResolver}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class SAML2MetadataQueryResolverTests {
+
+    private static final String ENTITY_ID = "mmoayyed.example.net";
+
+    private static final String SHA1 = "d6eea119c5ac8456768a10709d6223d4b2f0a62a";
+
+    private static final String OTHER_ENTITY_ID = "other.example.net";
+
+    private static final String OTHER_SHA1 = "634ce0769a4d4877ec25e7b15062a582e47e613c";
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final String NEW_ETAG = "\"v2\"";
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile boolean available = true;
+
+    private volatile String etag = ETAG;
+
+    private volatile CountDownLatch gate;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        final String metadata;
+        try (val in = new ClassPathResource("idp-metadata.xml").getInputStream()) {
+            metadata = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/mdq/entities/", exchange -> {
+            requests.incrementAndGet();
+            val currentGate = gate;
+            if (currentGate != null) {
+                try {
+                    currentGate.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            val path = exchange.getRequestURI().getPath();
+            final String entityId;
+            if (path.endsWith("/{sha1}" + SHA1)) {
+                entityId = ENTITY_ID;
+            } else if (path.endsWith("/{sha1}" + OTHER_SHA1)) {
+                entityId = OTHER_ENTITY_ID;
+            } else {
+                entityId = null;
+            }
+            if (!available) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, -1);
+            } else if (entityId == null) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+            } else if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(HttpConstants.NOT_MODIFIED, -1);
+            } else {
+                downloads.incrementAndGet();
+                val body = metadata.replace("entityID=\"" + ENTITY_ID + "\"", "entityID=\"" + entityId + "\"")
+                    .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.getResponseHeaders().add("Content-Type", "application/samlmetadata+xml");
+                exchange.sendResponseHeaders(HttpConstants.OK, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/mdq/";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private SAML2MetadataQueryResolver newResolver() {
+        val configuration = new SAML2Configuration();
+        configuration.setIdentityProviderEntityId(ENTITY_ID);
+        return new SAML2MetadataQueryResolver(configuration, baseUrl);
+    }
+
+    @Test
+    public void testResolveEntityIsCached() throws Exception {
+        val resolver = newResolver();
+        val metadataResolver = resolver.resolve();
+        val entity = metadataResolver.resolveSingle(new CriteriaSet(new EntityIdCriterion(ENTITY_ID)));
+        assertNotNull(entity);
+        assertEquals(ENTITY_ID, entity.getEntityID());
+        assertSame(entity, resolver.getEntityDescriptorElement());
+        assertEquals(ENTITY_ID, resolver.getEntityId());
+        assertTrue(resolver.getMetadata().contains(ENTITY_ID));
+        assertEquals(1, requests.get());
+        assertEquals(1, resolver.size());
+    }
+
+    @Test
+    public void testConditionalRefresh() {
+        val resolver = newResolver();
+        resolver.setDefaultCacheDuration(Duration.ZERO);
+        val entity = resolver.resolveEntity(ENTITY_ID);
+        val metadataResolver = resolver.resolve();
+        assertSame(entity, resolver.resolveEntity(ENTITY_ID));
+        assertEquals(2, requests.get());
+        assertEquals(1, downloads.get());
+        // the metadata did not change: same resolver
+        assertSame(metadataResolver, resolver.resolve());
+    }
+
+    @Test
+    public void testKeepCachedEntityWhenUnavailable() {
+        val resolver = newResolver();
+        resolver.setDefaultCacheDuration(Duration.ZERO);
+        val entity = resolver.resolveEntity(ENTITY_ID);
+        available = false;
+        assertSame(entity, resolver.resolveEntity(ENTITY_ID));
+        resolver.clear();
+        assertThrows(SAMLException.class, () -> resolver.resolveEntity(ENTITY_ID));
+    }
+
+    @Test
+    public void testConcurrentResolutionsShareOneFetch() throws Exception {
+        val resolver = newResolver();
+        gate = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        final List<Object> entities = new ArrayList<>();
+        for (var i = 0; i < 4; i++) {
+            val thread = new Thread(() -> {
+                val entity = resolver.resolveEntity(ENTITY_ID);
+                synchronized (entities) {
+                    entities.add(entity);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        while (requests.get() == 0) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        gate.countDown();
+        for (val thread : threads) {
+            thread.join(10_000);
+        }
+        assertEquals(4, entities.size());
+        assertNotNull(entities.get(0));
+        entities.forEach(entity -> assertSame(entities.get(0), entity));
+        assertEquals(1, requests.get());
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    public void testCachedCredentialsFollowRefreshedMetadata() throws Exception {
+        val resolver = newResolver();
+        resolver.setDefaultCacheDuration(Duration.ZERO);
+        val roleResolver = new PredicateRoleDescriptorResolver(resolver.resolve());
+        roleResolver.initialize();
+        val credentialResolver = new CachingMetadataCredentialResolver();
+        credentialResolver.setKeyInfoCredentialResolver(DefaultSecurityConfigurationBootstrap.buildBasicInlineKeyInfoCredentialResolver());
+        credentialResolver.setRoleDescriptorResolver(roleResolver);
+        credentialResolver.initialize();
+        val criteria = new CriteriaSet(new EntityIdCriterion(ENTITY_ID), new EntityRoleCriterion(IDPSSODescriptor.DEFAULT_ELEMENT_NAME),
+            new ProtocolCriterion(SAMLConstants.SAML20P_NS), new UsageCriterion(UsageType.SIGNING));
+
+        val credential = credentialResolver.resolveSingle(criteria);
+        assertNotNull(credential);
+        // not modified: the cached credential
+        assertSame(credential, credentialResolver.resolveSingle(criteria));
+        assertTrue(requests.get() > 1);
+        assertEquals(1, downloads.get());
+        // modified: new credentials
+        etag = NEW_ETAG;
+        val newCredential = credentialResolver.resolveSingle(criteria);
+        assertNotNull(newCredential);
+        assertNotSame(credential, newCredential);
+        assertEquals(2, downloads.get());
+        assertEquals(1, credentialResolver.size());
+    }
+
+    @Test
+    public void testUnknownEntity() throws Exception {
+        val resolver = newResolver();
+        assertNull(resolver.resolveEntity("unknown"));
+        assertNull(resolver.resolve().resolveSingle(new CriteriaSet(new EntityIdCriterion("unknown"))));
+        assertEquals(0, resolver.size());
+    }
+
+    @Test
+    public void testLruEviction() {
+        val resolver = newResolver();
+        resolver.setMaxEntries(1);
+        resolver.resolveEntity(ENTITY_ID);
+        assertEquals(1, resolver.size());
+        assertEquals(OTHER_ENTITY_ID, resolver.resolveEntity(OTHER_ENTITY_ID).getEntityID());
+        assertEquals(1, resolver.size());
+        // evicted: downloaded again
+        resolver.resolveEntity(ENTITY_ID);
+        assertEquals(3, downloads.get());
+    }
+
+    @Test
+    public void testEntityUrl() {
+        val resolver = new SAML2MetadataQueryResolver(new SAML2Configuration(), "https://mdq.example.org/");
+        assertEquals("https://mdq.example.org/entities/%7Bsha1%7D" + SHA1, resolver.buildEntityUrl(ENTITY_ID));
+        resolver.setUseSha1Identifiers(false);
+        assertEquals("https://mdq.example.org/entities/mmoayyed.example.net", resolver.buildEntityUrl(ENTITY_ID));
+    }
+}
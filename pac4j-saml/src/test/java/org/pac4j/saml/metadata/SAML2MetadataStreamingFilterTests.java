@@ -0,0 +1,63 @@
+package org.pac4j.saml.metadata;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.pac4j.saml.exceptions.SAMLException;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link SAML2MetadataStreamingFilter}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class SAML2MetadataStreamingFilterTests {
+
+    private static final String IDP = "https://idp.testshib.org/idp/shibboleth";
+
+    private static final String SP = "https://sp.testshib.org/shibboleth-sp";
+
+    private static String filter(final SAML2MetadataStreamingFilter filter) throws Exception {
+        try (val in = new ClassPathResource("testshib-providers.xml").getInputStream()) {
+            return new String(filter.filter(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testKeepIdentityProviders() throws Exception {
+        val metadata = filter(new SAML2MetadataStreamingFilter());
+        assertTrue(metadata.contains(IDP));
+        assertFalse(metadata.contains(SP));
+        // the namespaces of the aggregate are declared on the kept entities
+        assertTrue(metadata.contains("xmlns:ds=\"http://www.w3.org/2000/09/xmldsig#\""));
+    }
+
+    @Test
+    public void testKeepEntityId() throws Exception {
+        val metadata = filter(new SAML2MetadataStreamingFilter(List.of(SP)));
+        assertFalse(metadata.contains(IDP));
+        assertTrue(metadata.contains(SP));
+    }
+
+    @Test
+    public void testValidityOfTheAggregateIsKept() {
+        val aggregate = "<EntitiesDescriptor xmlns=\"urn:oasis:names:tc:SAML:2.0:metadata\" validUntil=\"2030-01-01T00:00:00Z\">"
+            + "<EntityDescriptor entityID=\"idp\"><IDPSSODescriptor/></EntityDescriptor></EntitiesDescriptor>";
+        val metadata = new String(new SAML2MetadataStreamingFilter()
+            .filter(new ByteArrayInputStream(aggregate.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8);
+        assertTrue(metadata.contains("validUntil=\"2030-01-01T00:00:00Z\""));
+        assertTrue(metadata.contains("entityID=\"idp\""));
+    }
+
+    @Test
+    public void testNoEntity() {
+        val metadata = "<root/>".getBytes(StandardCharsets.UTF_8);
+        assertThrows(SAMLException.class, () -> new SAML2MetadataStreamingFilter().filter(new ByteArrayInputStream(metadata)));
+    }
+}
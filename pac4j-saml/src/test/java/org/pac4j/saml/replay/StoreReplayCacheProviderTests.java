@@ -0,0 +1,95 @@
+package org.pac4j.saml.replay;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.store.GuavaStore;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link StoreReplayCacheProvider}.
+ *
+ * @author Jerome LELEU
+ * @since 6.5.0
+ */
+public final class StoreReplayCacheProviderTests {
+
+    private static final String CONTEXT = "context";
+
+    private static final String ID = "_assertionId";
+
+    @Test
+    public void testReplayDetected() {
+        val store = new GuavaStore<String, Instant>(100, 10, TimeUnit.MINUTES);
+        val provider = new StoreReplayCacheProvider(store);
+        val expires = Instant.now().plusSeconds(60);
+        assertSame(provider.get(), provider.get());
+        assertTrue(provider.get().check(CONTEXT, ID, expires));
+        assertFalse(provider.get().check(CONTEXT, ID, expires));
+        assertTrue(provider.get().check("otherContext", ID, expires));
+        assertTrue(store.get(CONTEXT + ":" + ID).isPresent());
+    }
+
+    @Test
+    public void testReplayDetectedAcrossNodes() {
+        val store = new GuavaStore<String, Instant>(100, 10, TimeUnit.MINUTES);
+        val expires = Instant.now().plusSeconds(60);
+        assertTrue(new StoreReplayCacheProvider(store).get().check(CONTEXT, ID, expires));
+        assertFalse(new StoreReplayCacheProvider(store).get().check(CONTEXT, ID, expires));
+    }
+
+    @Test
+    public void testExpiredEntry() {
+        val provider = new StoreReplayCacheProvider(new GuavaStore<>(100, 10, TimeUnit.MINUTES));
+        assertTrue(provider.get().check(CONTEXT, ID, Instant.now().minusSeconds(1)));
+        assertTrue(provider.get().check(CONTEXT, ID, Instant.now().plusSeconds(60)));
+        assertFalse(provider.get().check(CONTEXT, ID, Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    public void testConcurrentChecksAcrossNodes() throws Exception {
+        assertEquals(1, concurrentChecks(new GuavaStore<>(100, 10, TimeUnit.MINUTES)));
+    }
+
+    @Test
+    public void testConcurrentChecksOfExpiredEntryAcrossNodes() throws Exception {
+        val store = new GuavaStore<String, Instant>(100, 10, TimeUnit.MINUTES);
+        store.set(CONTEXT + ":" + ID, Instant.now().minusSeconds(1));
+        assertEquals(1, concurrentChecks(store));
+    }
+
+    private int concurrentChecks(final GuavaStore<String, Instant> store) throws InterruptedException {
+        val expires = Instant.now().plusSeconds(60);
+        val start = new CountDownLatch(1);
+        val saved = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (var i = 0; i < 8; i++) {
+            // one provider per node sharing the same store
+            val provider = new StoreReplayCacheProvider(store);
+            val thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (provider.get().check(CONTEXT, ID, expires)) {
+                    saved.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (val thread : threads) {
+            thread.join(10_000);
+        }
+        return saved.get();
+    }
+}